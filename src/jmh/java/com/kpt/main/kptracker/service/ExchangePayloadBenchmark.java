@@ -0,0 +1,91 @@
+package com.kpt.main.kptracker.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 거래소 응답 파싱 (기록된 응답 fixture, 스트리밍 파서와 JsonNode 트리 파서 비교)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExchangePayloadBenchmark {
+
+  private final ExchangePayloadParser parser = new ExchangePayloadParser();
+
+  private byte[] bithumbTicker;
+  private byte[] upbitTicker;
+  private byte[] binanceExchangeInfo;
+  private byte[] binanceTickerPrice;
+  private Set<String> tradingSymbols;
+
+  @Setup
+  public void setup() throws IOException {
+    bithumbTicker = fixture("bithumb-ticker-all-krw.json");
+    upbitTicker = fixture("upbit-ticker.json");
+    binanceExchangeInfo = fixture("binance-exchange-info.json");
+    binanceTickerPrice = fixture("binance-ticker-price.json");
+    tradingSymbols = parser.parseBinanceTradingSymbols(new ByteArrayInputStream(binanceExchangeInfo));
+  }
+
+  @Benchmark
+  public Map<String, TickerQuote> bithumbTicker() throws IOException {
+    return parser.parseBithumbTicker(new ByteArrayInputStream(bithumbTicker));
+  }
+
+  @Benchmark
+  public Map<String, TickerQuote> bithumbTickerTree() throws IOException {
+    return parser.parseBithumbTickerTree(new String(bithumbTicker, StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public Map<String, TickerQuote> upbitTicker() throws IOException {
+    return parser.parseUpbitTicker(new ByteArrayInputStream(upbitTicker));
+  }
+
+  @Benchmark
+  public Map<String, TickerQuote> upbitTickerTree() throws IOException {
+    return parser.parseUpbitTickerTree(new String(upbitTicker, StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public Set<String> binanceExchangeInfo() throws IOException {
+    return parser.parseBinanceTradingSymbols(new ByteArrayInputStream(binanceExchangeInfo));
+  }
+
+  @Benchmark
+  public Set<String> binanceExchangeInfoTree() throws IOException {
+    return parser.parseBinanceTradingSymbolsTree(new String(binanceExchangeInfo, StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public Map<String, Double> binanceTickerPrice() throws IOException {
+    return parser.parseBinanceUsdtPrices(new ByteArrayInputStream(binanceTickerPrice), tradingSymbols,
+        new HashSet<>());
+  }
+
+  @Benchmark
+  public Map<String, Double> binanceTickerPriceTree() throws IOException {
+    return parser.parseBinanceUsdtPricesTree(new String(binanceTickerPrice, StandardCharsets.UTF_8), tradingSymbols);
+  }
+
+  static byte[] fixture(String name) throws IOException {
+    try (InputStream in = ExchangePayloadBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+      if (in == null) {
+        throw new IOException("fixture not found: " + name);
+      }
+      return in.readAllBytes();
+    }
+  }
+}
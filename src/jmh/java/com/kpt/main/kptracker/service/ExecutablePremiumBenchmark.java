@@ -0,0 +1,45 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 유지 중인 호가창으로 실제 체결 김프 계산 (/api/premium/{coin}/executable 요청 한 건의 계산 비용)
+// krw가 클수록 더 많은 호가 단계를 훑음
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExecutablePremiumBenchmark {
+
+  private static final double EXCHANGE_RATE = 1390.0;
+
+  @Param({"10000000", "1000000000"})
+  public double krw;
+
+  private OrderBook korean;
+  private OrderBook binance;
+
+  @Setup
+  public void setup() {
+    korean = new OrderBook(30);
+    binance = new OrderBook(30);
+    for (int i = 0; i < 30; i++) {
+      korean.addBid(140_000_000 - i * 10_000, 0.5 + i * 0.1);
+      korean.addAsk(140_010_000 + i * 10_000, 0.5 + i * 0.1);
+      binance.addBid(99_000 - i * 5, 1 + i * 0.2);
+      binance.addAsk(99_005 + i * 5, 1 + i * 0.2);
+    }
+  }
+
+  @Benchmark
+  public Map<String, Object> executablePremium() {
+    return OrderBookService.executable(korean, binance, krw, EXCHANGE_RATE);
+  }
+}
@@ -0,0 +1,106 @@
+package com.kpt.main.kptracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 김프 테이블 계산(거래소 데이터 병합 + 코인별 김프)과 응답 직렬화
+// 입력은 기록된 응답 fixture를 파싱한 값, 마켓 메타데이터는 외부 호출 없이 fixture 심볼로 채움
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PremiumPipelineBenchmark {
+
+  private static final double EXCHANGE_RATE = 1390.0;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final KimchiPremiumService service = new KimchiPremiumService();
+
+  private List<String> upbitMarkets;
+  private Map<String, TickerQuote> bithumbTickerData;
+  private Map<String, TickerQuote> upbitTickerData;
+  private Map<String, Double> binancePrices;
+  private Map<String, SourceStatus> statuses;
+  private PremiumTable table;
+  private PremiumSnapshot snapshot;
+
+  @Setup
+  public void setup() throws Exception {
+    ExchangePayloadParser parser = new ExchangePayloadParser();
+    bithumbTickerData = parser.parseBithumbTicker(
+        new ByteArrayInputStream(ExchangePayloadBenchmark.fixture("bithumb-ticker-all-krw.json")));
+    upbitTickerData = parser.parseUpbitTicker(
+        new ByteArrayInputStream(ExchangePayloadBenchmark.fixture("upbit-ticker.json")));
+    Set<String> tradingSymbols = parser.parseBinanceTradingSymbols(
+        new ByteArrayInputStream(ExchangePayloadBenchmark.fixture("binance-exchange-info.json")));
+    binancePrices = new HashMap<>(parser.parseBinanceUsdtPrices(
+        new ByteArrayInputStream(ExchangePayloadBenchmark.fixture("binance-ticker-price.json")),
+        tradingSymbols, new HashSet<>()));
+    binancePrices.put("USDT", 1.0);
+    upbitMarkets = new ArrayList<>(upbitTickerData.keySet());
+
+    statuses = new LinkedHashMap<>();
+    for (String source : List.of(KimchiPremiumService.SOURCE_EXCHANGE_RATE, KimchiPremiumService.SOURCE_UPBIT_TICKER,
+        KimchiPremiumService.SOURCE_BITHUMB_TICKER, KimchiPremiumService.SOURCE_BINANCE_TICKER)) {
+      statuses.put(source, SourceStatus.ok(0));
+    }
+
+    Map<String, MarketListing> listings = new HashMap<>();
+    for (String symbol : bithumbTickerData.keySet()) {
+      listings.put(symbol, new MarketListing(symbol, symbol, symbol));
+    }
+    for (String symbol : upbitMarkets) {
+      listings.put(symbol, new MarketListing(symbol, symbol, symbol));
+    }
+    inject("marketRegistry", new MarketMetadataRegistry() {
+      @Override
+      public MarketListing findListing(String symbol) {
+        return listings.get(symbol);
+      }
+    });
+    inject("premiumStatsEngine", new PremiumStatsEngine());
+
+    table = premiumTable();
+    snapshot = new PremiumSnapshot(1, System.currentTimeMillis(), table, statuses);
+  }
+
+  // getAllPremiumData의 병합/계산 단계 (통계 반영 포함)
+  @Benchmark
+  public PremiumTable premiumTable() {
+    return service.buildPremiumTable(EXCHANGE_RATE, upbitMarkets, bithumbTickerData, upbitTickerData,
+        binancePrices, statuses);
+  }
+
+  // /api/premium/all 응답 본문 (PremiumTable 스트리밍 직렬화)
+  @Benchmark
+  public byte[] serializeTable() {
+    return PremiumPayload.full(snapshot).getJson();
+  }
+
+  // 코인별 Map으로 변환 후 Jackson 직렬화 (getAllPremiumData 결과 형식)
+  @Benchmark
+  public byte[] serializeMap() throws Exception {
+    return objectMapper.writeValueAsBytes(table.toMap());
+  }
+
+  private void inject(String name, Object value) throws ReflectiveOperationException {
+    Field field = KimchiPremiumService.class.getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(service, value);
+  }
+}
@@ -0,0 +1,466 @@
+package com.kpt.main.kptracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// 거래소/환율 API 시뮬레이터 (실제 거래소에 부하를 주지 않고 부하 테스트하기 위함)
+// KimchiPremiumService, MarketMetadataRegistry가 호출하는 엔드포인트를 기록된 응답 fixture와 같은 형식으로 응답한다
+//   /upbit/v1/ticker?markets=KRW-BTC,...      /upbit/v1/market/all
+//   /bithumb/public/ticker/ALL_KRW, /{X}_KRW  /bithumb/v1/market/all
+//   /binance/api/v3/ticker/price[?symbol=]     /binance/api/v3/exchangeInfo
+//   /exchangerate/v4/latest/USD               /_stats (경로별 요청 수)
+// 코인은 fixture 코인에 합성 코인(SIM0001...)을 더해 --coins개, 가격은 시간에 따라 조금씩 움직인다
+// 옵션 (거래소별로 바꾸려면 --latency-ms.binance=200처럼 이름 뒤에 upbit/bithumb/binance/exchangerate):
+//   --port=18080 --coins=300 --latency-ms=30 --jitter-ms=20 --error-rate=0 --threads=64 --seed=42
+// 앱은 --spring.profiles.active=simulator로 실행 (application-simulator.properties)
+public final class ExchangeSimulator implements AutoCloseable {
+
+  private static final double EXCHANGE_RATE = 1390.0;
+  private static final double PRICE_SWING = 0.003;
+  private static final long PRICE_PERIOD_MS = 60_000;
+  private static final int MIN_GZIP_SIZE = 1024;
+
+  static {
+    // 내장 HttpServer는 Nagle 알고리즘이 켜져 있어 keep-alive 연결에서 응답마다 약 40ms가 더해진다
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Map<String, String> options;
+  private final List<SimCoin> coins;
+  private final Map<String, SimCoin> bySymbol = new LinkedHashMap<>();
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+  // 응답 형식 템플릿 (fixture 첫 항목, 필요한 필드만 바꿔서 사용)
+  private final ObjectNode upbitTemplate;
+  private final ObjectNode bithumbTemplate;
+  private final ObjectNode binanceSymbolTemplate;
+
+  // 변하지 않는 응답 (마켓 목록, exchangeInfo)
+  private final byte[] upbitMarkets;
+  private final byte[] bithumbMarkets;
+  private final byte[] binanceExchangeInfo;
+
+  public ExchangeSimulator(Map<String, String> options) throws IOException {
+    this.options = options;
+
+    JsonNode upbitFixture = mapper.readTree(fixture("upbit-ticker.json"));
+    JsonNode bithumbFixture = mapper.readTree(fixture("bithumb-ticker-all-krw.json"));
+    JsonNode binancePriceFixture = mapper.readTree(fixture("binance-ticker-price.json"));
+    JsonNode exchangeInfoFixture = mapper.readTree(fixture("binance-exchange-info.json"));
+
+    upbitTemplate = (ObjectNode) upbitFixture.get(0);
+    bithumbTemplate = (ObjectNode) bithumbFixture.path("data").path("BTC");
+    binanceSymbolTemplate = (ObjectNode) exchangeInfoFixture.path("symbols").get(0);
+
+    coins = createCoins(upbitFixture, bithumbFixture, binancePriceFixture,
+        intOption("coins", null, 300), new Random(intOption("seed", null, 42)));
+    for (SimCoin coin : coins) {
+      bySymbol.put(coin.symbol, coin);
+    }
+
+    upbitMarkets = marketList(true);
+    bithumbMarkets = marketList(false);
+    binanceExchangeInfo = exchangeInfo((ObjectNode) exchangeInfoFixture);
+
+    server = HttpServer.create(new InetSocketAddress(intOption("port", null, 18080)), 256);
+    executor = Executors.newFixedThreadPool(intOption("threads", null, 64));
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+  }
+
+  public static void main(String[] args) throws Exception {
+    ExchangeSimulator simulator = new ExchangeSimulator(parseOptions(args));
+    simulator.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(simulator::close));
+  }
+
+  public void start() {
+    server.start();
+    System.out.println("거래소 시뮬레이터 시작: http://localhost:" + server.getAddress().getPort()
+        + " (코인 " + coins.size() + "개, 옵션 " + options + ")");
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      URI uri = exchange.getRequestURI();
+      String path = uri.getPath();
+      String source = path.length() > 1 ? path.substring(1).split("/", 2)[0] : "";
+      requestCounts.computeIfAbsent(path.startsWith("/bithumb/public/ticker/") && !path.endsWith("/ALL_KRW")
+          ? "/bithumb/public/ticker/{X}_KRW" : path, key -> new AtomicLong()).incrementAndGet();
+
+      if (path.equals("/_stats")) {
+        respond(exchange, 200, mapper.writeValueAsBytes(new TreeMap<>(requestCounts)));
+        return;
+      }
+
+      delay(source);
+      if (ThreadLocalRandom.current().nextDouble() < doubleOption("error-rate", source, 0)) {
+        respond(exchange, 503, "{\"error\":\"simulated failure\"}".getBytes(StandardCharsets.UTF_8));
+        return;
+      }
+
+      long now = System.currentTimeMillis();
+      String query = uri.getRawQuery();
+      if (path.equals("/upbit/v1/ticker")) {
+        respond(exchange, 200, upbitTicker(param(query, "markets"), now));
+      } else if (path.equals("/upbit/v1/market/all")) {
+        respond(exchange, 200, upbitMarkets);
+      } else if (path.equals("/bithumb/v1/market/all")) {
+        respond(exchange, 200, bithumbMarkets);
+      } else if (path.equals("/bithumb/public/ticker/ALL_KRW")) {
+        respond(exchange, 200, bithumbTickerAll(now));
+      } else if (path.startsWith("/bithumb/public/ticker/") && path.endsWith("_KRW")) {
+        String symbol = path.substring("/bithumb/public/ticker/".length(), path.length() - "_KRW".length());
+        respond(exchange, 200, bithumbTicker(symbol, now));
+      } else if (path.equals("/binance/api/v3/ticker/price")) {
+        String symbol = param(query, "symbol");
+        byte[] body = symbol != null ? binancePrice(symbol, now) : binancePrices(now);
+        respond(exchange, body != null ? 200 : 400, body != null ? body
+            : "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}".getBytes(StandardCharsets.UTF_8));
+      } else if (path.equals("/binance/api/v3/exchangeInfo")) {
+        respond(exchange, 200, binanceExchangeInfo);
+      } else if (path.equals("/exchangerate/v4/latest/USD")) {
+        respond(exchange, 200, exchangeRate(now));
+      } else {
+        respond(exchange, 404, "{\"error\":\"not found\"}".getBytes(StandardCharsets.UTF_8));
+      }
+    } catch (Exception e) {
+      System.err.println("시뮬레이터 응답 실패: " + e.getMessage());
+      respond(exchange, 500, "{\"error\":\"simulator error\"}".getBytes(StandardCharsets.UTF_8));
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private byte[] upbitTicker(String markets, long now) throws IOException {
+    ArrayNode result = mapper.createArrayNode();
+    if (markets != null) {
+      for (String market : markets.split(",")) {
+        SimCoin coin = market.startsWith("KRW-") ? bySymbol.get(market.substring(4)) : null;
+        if (coin != null && coin.onUpbit) {
+          double price = coin.upbitKrw * coin.krwFactor(now);
+          ObjectNode node = upbitTemplate.deepCopy();
+          node.put("market", market);
+          node.put("trade_price", price);
+          node.put("acc_trade_price_24h", coin.upbitVolume);
+          node.put("acc_trade_volume_24h", coin.upbitVolume / price);
+          node.put("trade_timestamp", now);
+          node.put("timestamp", now);
+          result.add(node);
+        }
+      }
+    }
+    return mapper.writeValueAsBytes(result);
+  }
+
+  private byte[] bithumbTickerAll(long now) throws IOException {
+    ObjectNode data = mapper.createObjectNode();
+    for (SimCoin coin : coins) {
+      if (coin.onBithumb) {
+        data.set(coin.symbol, bithumbQuote(coin, now));
+      }
+    }
+    data.put("date", String.valueOf(now));
+    return bithumbResponse(data);
+  }
+
+  private byte[] bithumbTicker(String symbol, long now) throws IOException {
+    SimCoin coin = bySymbol.get(symbol);
+    if (coin == null || !coin.onBithumb) {
+      return "{\"status\":\"5500\",\"message\":\"Invalid Parameter\"}".getBytes(StandardCharsets.UTF_8);
+    }
+    ObjectNode data = bithumbQuote(coin, now);
+    data.put("date", String.valueOf(now));
+    return bithumbResponse(data);
+  }
+
+  private ObjectNode bithumbQuote(SimCoin coin, long now) {
+    double price = coin.bithumbKrw * coin.krwFactor(now);
+    ObjectNode node = bithumbTemplate.deepCopy();
+    node.put("closing_price", decimal(price));
+    node.put("units_traded_24H", decimal(coin.bithumbVolume / price));
+    node.put("acc_trade_value_24H", decimal(coin.bithumbVolume));
+    return node;
+  }
+
+  private byte[] bithumbResponse(ObjectNode data) throws IOException {
+    ObjectNode root = mapper.createObjectNode();
+    root.put("status", "0000");
+    root.set("data", data);
+    return mapper.writeValueAsBytes(root);
+  }
+
+  private byte[] binancePrices(long now) throws IOException {
+    ArrayNode result = mapper.createArrayNode();
+    for (SimCoin coin : coins) {
+      if (coin.onBinance) {
+        result.add(binanceQuote(coin, now));
+      }
+    }
+    return mapper.writeValueAsBytes(result);
+  }
+
+  private byte[] binancePrice(String pair, long now) throws IOException {
+    SimCoin coin = pair.endsWith("USDT") ? bySymbol.get(pair.substring(0, pair.length() - 4)) : null;
+    return coin != null && coin.onBinance ? mapper.writeValueAsBytes(binanceQuote(coin, now)) : null;
+  }
+
+  private ObjectNode binanceQuote(SimCoin coin, long now) {
+    ObjectNode node = mapper.createObjectNode();
+    node.put("symbol", coin.symbol + "USDT");
+    node.put("price", decimal(coin.usd * coin.usdFactor(now)));
+    return node;
+  }
+
+  private byte[] exchangeRate(long now) throws IOException {
+    ObjectNode root = mapper.createObjectNode();
+    root.put("base", "USD");
+    root.put("time_last_updated", now / 1000);
+    ObjectNode rates = root.putObject("rates");
+    rates.put("USD", 1);
+    rates.put("KRW", Math.round(EXCHANGE_RATE * (1 + 0.001 * Math.sin(2 * Math.PI * now / (10 * PRICE_PERIOD_MS))) * 100) / 100.0);
+    return mapper.writeValueAsBytes(root);
+  }
+
+  private byte[] marketList(boolean upbit) throws IOException {
+    ArrayNode result = mapper.createArrayNode();
+    for (SimCoin coin : coins) {
+      if (upbit ? coin.onUpbit : coin.onBithumb) {
+        ObjectNode node = result.addObject();
+        node.put("market", "KRW-" + coin.symbol);
+        node.put("korean_name", coin.symbol);
+        node.put("english_name", coin.symbol);
+      }
+    }
+    return mapper.writeValueAsBytes(result);
+  }
+
+  private byte[] exchangeInfo(ObjectNode fixture) throws IOException {
+    ObjectNode root = fixture.deepCopy();
+    ArrayNode symbols = root.putArray("symbols");
+    for (SimCoin coin : coins) {
+      if (coin.onBinance) {
+        ObjectNode node = binanceSymbolTemplate.deepCopy();
+        node.put("symbol", coin.symbol + "USDT");
+        node.put("status", "TRADING");
+        node.put("baseAsset", coin.symbol);
+        node.put("quoteAsset", "USDT");
+        symbols.add(node);
+      }
+    }
+    return mapper.writeValueAsBytes(root);
+  }
+
+  // fixture 코인 (거래소별 실제 가격/거래대금) + 합성 코인으로 count개
+  private static List<SimCoin> createCoins(JsonNode upbit, JsonNode bithumb, JsonNode binance, int count,
+      Random random) {
+    Map<String, Double> usdPrices = new LinkedHashMap<>();
+    for (JsonNode node : binance) {
+      String pair = node.path("symbol").asText();
+      if (pair.endsWith("USDT")) {
+        usdPrices.put(pair.substring(0, pair.length() - 4), node.path("price").asDouble());
+      }
+    }
+    Map<String, JsonNode> upbitQuotes = new LinkedHashMap<>();
+    for (JsonNode node : upbit) {
+      upbitQuotes.put(node.path("market").asText().replace("KRW-", ""), node);
+    }
+    Set<String> symbols = new LinkedHashSet<>(upbitQuotes.keySet());
+    for (Iterator<String> it = bithumb.path("data").fieldNames(); it.hasNext(); ) {
+      String symbol = it.next();
+      if (!symbol.equals("date")) {
+        symbols.add(symbol);
+      }
+    }
+
+    List<SimCoin> coins = new ArrayList<>();
+    for (String symbol : symbols) {
+      if (coins.size() >= count) {
+        break;
+      }
+      JsonNode upbitQuote = upbitQuotes.get(symbol);
+      JsonNode bithumbQuote = bithumb.path("data").get(symbol);
+      Double usd = usdPrices.get(symbol);
+      double bithumbKrw = bithumbQuote != null ? bithumbQuote.path("closing_price").asDouble() : Double.NaN;
+      coins.add(new SimCoin(symbol,
+          usd != null ? usd : Double.NaN,
+          upbitQuote != null ? upbitQuote.path("trade_price").asDouble() : Double.NaN,
+          bithumbKrw,
+          upbitQuote != null ? upbitQuote.path("acc_trade_price_24h").asDouble() : 0,
+          bithumbQuote != null ? bithumbQuote.path("units_traded_24H").asDouble() * bithumbKrw : 0,
+          random.nextDouble() * 2 * Math.PI));
+    }
+
+    // 합성 코인: 가격 0.0001~1000달러, 김프 평균 2%, 일부는 한 거래소나 바이낸스에만 없음
+    for (int i = 1; coins.size() < count; i++) {
+      double usd = Math.pow(10, -4 + random.nextDouble() * 7);
+      double krw = usd * EXCHANGE_RATE;
+      boolean onUpbit = random.nextDouble() < 0.7;
+      boolean onBithumb = !onUpbit || random.nextDouble() < 0.6;
+      coins.add(new SimCoin(String.format("SIM%04d", i),
+          random.nextDouble() < 0.9 ? usd : Double.NaN,
+          onUpbit ? krw * (1.02 + random.nextGaussian() * 0.01) : Double.NaN,
+          onBithumb ? krw * (1.02 + random.nextGaussian() * 0.01) : Double.NaN,
+          Math.pow(10, 7 + random.nextDouble() * 4),
+          Math.pow(10, 7 + random.nextDouble() * 4),
+          random.nextDouble() * 2 * Math.PI));
+    }
+    return coins;
+  }
+
+  private void delay(String source) throws InterruptedException {
+    long latency = (long) doubleOption("latency-ms", source, 30);
+    long jitter = (long) doubleOption("jitter-ms", source, 20);
+    long sleepMs = latency + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+    if (sleepMs > 0) {
+      Thread.sleep(sleepMs);
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    if (acceptEncoding != null && acceptEncoding.contains("gzip") && body.length >= MIN_GZIP_SIZE) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+      try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+        gzip.write(body);
+      }
+      body = compressed.toByteArray();
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+    }
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static String param(String query, String name) {
+    if (query == null) {
+      return null;
+    }
+    for (String pair : query.split("&")) {
+      if (pair.startsWith(name + "=")) {
+        return URLDecoder.decode(pair.substring(name.length() + 1), StandardCharsets.UTF_8);
+      }
+    }
+    return null;
+  }
+
+  private static String decimal(double value) {
+    return BigDecimal.valueOf(value).setScale(8, RoundingMode.HALF_UP)
+        .stripTrailingZeros().toPlainString();
+  }
+
+  private double doubleOption(String name, String source, double defaultValue) {
+    String value = options.get(name + "." + source);
+    if (value == null) {
+      value = options.get(name);
+    }
+    return value != null ? Double.parseDouble(value) : defaultValue;
+  }
+
+  private int intOption(String name, String source, int defaultValue) {
+    return (int) doubleOption(name, source, defaultValue);
+  }
+
+  // --name=value 형식 인자
+  static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("옵션은 --name=value 형식이어야 합니다: " + arg);
+      }
+      int eq = arg.indexOf('=');
+      options.put(arg.substring(2, eq), arg.substring(eq + 1));
+    }
+    return options;
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = ExchangeSimulator.class.getResourceAsStream("/fixtures/" + name)) {
+      if (in == null) {
+        throw new IOException("fixture not found: " + name);
+      }
+      return in.readAllBytes();
+    }
+  }
+
+  // 시뮬레이터 코인 (거래소에 없으면 가격 NaN)
+  private static final class SimCoin {
+    final String symbol;
+    final double usd;
+    final double upbitKrw;
+    final double bithumbKrw;
+    final double upbitVolume;
+    final double bithumbVolume;
+    final double phase;
+    final boolean onUpbit;
+    final boolean onBithumb;
+    final boolean onBinance;
+
+    SimCoin(String symbol, double usd, double upbitKrw, double bithumbKrw, double upbitVolume,
+        double bithumbVolume, double phase) {
+      this.symbol = symbol;
+      this.usd = usd;
+      this.upbitKrw = upbitKrw;
+      this.bithumbKrw = bithumbKrw;
+      this.upbitVolume = upbitVolume;
+      this.bithumbVolume = bithumbVolume;
+      this.phase = phase;
+      this.onUpbit = upbitKrw > 0;
+      this.onBithumb = bithumbKrw > 0;
+      this.onBinance = usd > 0;
+    }
+
+    // 원화 가격과 달러 가격을 다른 위상으로 움직여 김프도 변하게 함
+    double krwFactor(long now) {
+      return 1 + PRICE_SWING * Math.sin(2 * Math.PI * now / PRICE_PERIOD_MS + phase);
+    }
+
+    double usdFactor(long now) {
+      return 1 + PRICE_SWING * Math.sin(2 * Math.PI * now / PRICE_PERIOD_MS + phase + 1.0);
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package com.kpt.main.kptracker.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 부하 테스트: 동시 클라이언트 N개가 /api/premium/all, /api/premium/{coin}, /api/proxy를 번갈아 호출하고
+// 엔드포인트별 처리량과 지연 시간 분위수(p50/p90/p99/max)를 출력한다
+// 옵션:
+//   --target=http://localhost:8080 --clients=32 --duration-s=30 --warmup-s=5
+//   --endpoints=all,coin,proxy --coins=BTC,ETH,XRP,SOL,DOGE
+//   --proxy-url=http://localhost:18080/upbit/v1/ticker?markets=KRW-BTC (없으면 /api/proxy는 호출하지 않음)
+//   --conditional=false (true면 /api/premium/all에 이전 응답의 ETag를 If-None-Match로 보냄)
+public final class LoadHarness {
+
+  private final String target;
+  private final int clients;
+  private final long durationMs;
+  private final long warmupMs;
+  private final List<String> endpoints;
+  private final List<String> coins;
+  private final String proxyUrl;
+  private final boolean conditional;
+
+  LoadHarness(Map<String, String> options) {
+    target = options.getOrDefault("target", "http://localhost:8080").replaceAll("/$", "");
+    clients = Integer.parseInt(options.getOrDefault("clients", "32"));
+    durationMs = Long.parseLong(options.getOrDefault("duration-s", "30")) * 1000;
+    warmupMs = Long.parseLong(options.getOrDefault("warmup-s", "5")) * 1000;
+    coins = List.of(options.getOrDefault("coins", "BTC,ETH,XRP,SOL,DOGE").split(","));
+    proxyUrl = options.get("proxy-url");
+    conditional = Boolean.parseBoolean(options.getOrDefault("conditional", "false"));
+
+    List<String> selected = new ArrayList<>(List.of(options.getOrDefault("endpoints", "all,coin,proxy").split(",")));
+    if (proxyUrl == null && selected.remove("proxy")) {
+      System.out.println("--proxy-url이 없어 /api/proxy는 호출하지 않습니다.");
+    }
+    if (selected.isEmpty()) {
+      throw new IllegalArgumentException("호출할 엔드포인트가 없습니다.");
+    }
+    endpoints = selected;
+  }
+
+  public static void main(String[] args) throws Exception {
+    new LoadHarness(ExchangeSimulator.parseOptions(args)).run();
+  }
+
+  void run() throws InterruptedException {
+    System.out.println("부하 테스트: " + target + ", 클라이언트 " + clients + "개, " + endpoints
+        + ", 워밍업 " + warmupMs / 1000 + "s + 측정 " + durationMs / 1000 + "s");
+
+    long startedAt = System.nanoTime();
+    long measureFrom = startedAt + warmupMs * 1_000_000;
+    long measureUntil = measureFrom + durationMs * 1_000_000;
+
+    List<Client> workers = new ArrayList<>();
+    CountDownLatch done = new CountDownLatch(clients);
+    for (int i = 0; i < clients; i++) {
+      Client client = new Client(i, measureFrom, measureUntil, done);
+      workers.add(client);
+      Thread thread = new Thread(client, "load-client-" + i);
+      thread.setDaemon(true);
+      thread.start();
+    }
+    done.await();
+
+    // 엔드포인트별 결과 합치기
+    Map<String, Recorder> totals = new LinkedHashMap<>();
+    for (String endpoint : endpoints) {
+      Recorder total = new Recorder();
+      for (Client client : workers) {
+        total.merge(client.recorders.get(endpoint));
+      }
+      totals.put(endpoint, total);
+    }
+    report(totals, durationMs / 1000.0);
+  }
+
+  private void report(Map<String, Recorder> totals, double seconds) {
+    System.out.printf("%n%-8s %9s %8s %10s %9s %9s %9s %9s%n",
+        "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+    Recorder all = new Recorder();
+    for (Map.Entry<String, Recorder> entry : totals.entrySet()) {
+      print(entry.getKey(), entry.getValue(), seconds);
+      all.merge(entry.getValue());
+    }
+    print("total", all, seconds);
+  }
+
+  private static void print(String name, Recorder recorder, double seconds) {
+    long[] sorted = Arrays.copyOf(recorder.latencies, recorder.count);
+    Arrays.sort(sorted);
+    System.out.printf("%-8s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+        name, recorder.count, recorder.errors, recorder.count / seconds,
+        percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+        sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0);
+  }
+
+  private static double percentile(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+  }
+
+  // 클라이언트 하나 (자기 연결을 쓰고, 응답을 받으면 바로 다음 요청)
+  private final class Client implements Runnable {
+    private final int id;
+    private final long measureFrom;
+    private final long measureUntil;
+    private final CountDownLatch done;
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private String etag;
+
+    Client(int id, long measureFrom, long measureUntil, CountDownLatch done) {
+      this.id = id;
+      this.measureFrom = measureFrom;
+      this.measureUntil = measureUntil;
+      this.done = done;
+      for (String endpoint : endpoints) {
+        recorders.put(endpoint, new Recorder());
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        for (int i = id; System.nanoTime() < measureUntil; i++) {
+          String endpoint = endpoints.get(i % endpoints.size());
+          long startedAt = System.nanoTime();
+          boolean ok = call(endpoint);
+          long endedAt = System.nanoTime();
+          if (startedAt >= measureFrom && endedAt <= measureUntil) {
+            recorders.get(endpoint).record(endedAt - startedAt, ok);
+          }
+        }
+      } finally {
+        done.countDown();
+      }
+    }
+
+    private boolean call(String endpoint) {
+      try {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(endpoint))
+            .timeout(Duration.ofSeconds(30))
+            .header("Accept-Encoding", "gzip");
+        if (conditional && endpoint.equals("all") && etag != null) {
+          request.header("If-None-Match", etag);
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (endpoint.equals("all")) {
+          etag = response.headers().firstValue("ETag").orElse(etag);
+        }
+        return response.statusCode() < 400;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } catch (Exception e) {
+        return false;
+      }
+    }
+
+    private URI uri(String endpoint) {
+      switch (endpoint) {
+        case "all":
+          return URI.create(target + "/api/premium/all");
+        case "coin":
+          return URI.create(target + "/api/premium/" + coins.get(ThreadLocalRandom.current().nextInt(coins.size())));
+        case "proxy":
+          return URI.create(target + "/api/proxy?url=" + URLEncoder.encode(proxyUrl, StandardCharsets.UTF_8));
+        default:
+          throw new IllegalArgumentException("알 수 없는 엔드포인트입니다: " + endpoint);
+      }
+    }
+  }
+
+  // 지연 시간(ns) 기록 (클라이언트 스레드 하나에서만 쓰고, 끝난 뒤 합침)
+  private static final class Recorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos, boolean ok) {
+      if (count == latencies.length) {
+        latencies = Arrays.copyOf(latencies, count * 2);
+      }
+      latencies[count++] = nanos;
+      if (!ok) {
+        errors++;
+      }
+    }
+
+    void merge(Recorder other) {
+      for (int i = 0; i < other.count; i++) {
+        if (count == latencies.length) {
+          latencies = Arrays.copyOf(latencies, Math.max(count * 2, count + other.count));
+        }
+        latencies[count++] = other.latencies[i];
+      }
+      errors += other.errors;
+    }
+  }
+}
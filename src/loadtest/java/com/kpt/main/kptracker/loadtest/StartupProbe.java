@@ -0,0 +1,130 @@
+package com.kpt.main.kptracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 시작 시간 측정: 앱 jar를 runs번 새로 띄우고 실행 시점부터
+// /api/premium/all이 처음 200을 돌려줄 때까지(serve)와 복원 스냅샷이 아닌 첫 갱신 결과가 나올 때까지(live) 시간을 잰다
+// 옵션:
+//   --jar=build/libs/kp-tracker-0.0.1-SNAPSHOT.jar --runs=3 --port=18081 --timeout-s=60
+//   --jvm-args="-XX:SharedArchiveFile=build/app/kp-tracker.jsa" (공백으로 구분)
+//   --app-args="--spring.profiles.active=simulator" (공백으로 구분)
+public final class StartupProbe {
+
+  private static final long POLL_INTERVAL_MS = 10;
+
+  private final String jar;
+  private final int runs;
+  private final int port;
+  private final long timeoutMs;
+  private final List<String> jvmArgs;
+  private final List<String> appArgs;
+  private final HttpClient http = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofMillis(500))
+      .build();
+
+  StartupProbe(Map<String, String> options) {
+    jar = options.get("jar");
+    if (jar == null) {
+      throw new IllegalArgumentException("--jar가 필요합니다.");
+    }
+    runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+    port = Integer.parseInt(options.getOrDefault("port", "18081"));
+    timeoutMs = Long.parseLong(options.getOrDefault("timeout-s", "60")) * 1000;
+    jvmArgs = split(options.get("jvm-args"));
+    appArgs = split(options.get("app-args"));
+  }
+
+  public static void main(String[] args) throws Exception {
+    new StartupProbe(ExchangeSimulator.parseOptions(args)).run();
+  }
+
+  void run() throws Exception {
+    System.out.println("시작 시간 측정: " + jar + " " + jvmArgs + ", " + runs + "회");
+    long[] serveMs = new long[runs];
+    long[] liveMs = new long[runs];
+    for (int run = 0; run < runs; run++) {
+      long[] result = measure();
+      serveMs[run] = result[0];
+      liveMs[run] = result[1];
+      System.out.printf("run %d: serve %d ms, live %d ms%n", run + 1, serveMs[run], liveMs[run]);
+    }
+    Arrays.sort(serveMs);
+    Arrays.sort(liveMs);
+    System.out.printf("median: serve %d ms, live %d ms%n", serveMs[runs / 2], liveMs[runs / 2]);
+  }
+
+  // 한 번 실행해 {serve, live} 시간(ms) 측정 (제한 시간 안에 안 되면 -1)
+  private long[] measure() throws Exception {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArgs);
+    command.add("-jar");
+    command.add(jar);
+    command.add("--server.port=" + port);
+    command.addAll(appArgs);
+
+    long startedAt = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start();
+    try {
+      long serve = -1;
+      long live = -1;
+      long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+      while (live < 0 && System.nanoTime() < deadline && process.isAlive()) {
+        if (serve < 0 && get("/api/premium/all") != null) {
+          serve = elapsedMs(startedAt);
+        }
+        if (serve >= 0) {
+          String status = get("/api/premium/status");
+          if (status != null && status.contains("\"restored\":false")) {
+            live = elapsedMs(startedAt);
+          }
+        }
+        Thread.sleep(POLL_INTERVAL_MS);
+      }
+      return new long[] {serve, live};
+    } finally {
+      process.destroy();
+      if (!process.waitFor(10, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  // 200이면 본문, 아니거나 아직 연결할 수 없으면 null
+  private String get(String path) {
+    try {
+      HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+          .timeout(Duration.ofSeconds(5))
+          .build();
+      HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+      return response.statusCode() == 200 ? response.body() : null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  private static long elapsedMs(long startedAt) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+  }
+
+  private static List<String> split(String value) {
+    return value == null || value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+  }
+}
@@ -2,12 +2,18 @@ package com.kpt.main.kptracker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class KpTrackerApplication {
 
   public static void main(String[] args) {
-    SpringApplication.run(KpTrackerApplication.class, args);
+    SpringApplication application = new SpringApplication(KpTrackerApplication.class);
+    // 시작 단계별 소요 시간 기록 (/actuator/startup)
+    application.setApplicationStartup(new BufferingApplicationStartup(4096));
+    application.run(args);
   }
 
 }
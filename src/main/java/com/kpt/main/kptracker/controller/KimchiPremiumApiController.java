@@ -1,9 +1,31 @@
 package com.kpt.main.kptracker.controller;
 
 import com.kpt.main.kptracker.service.KimchiPremiumService;
+import com.kpt.main.kptracker.service.MarketMetadataRegistry;
+import com.kpt.main.kptracker.service.MarketStreamService;
+import com.kpt.main.kptracker.service.OrderBookService;
+import com.kpt.main.kptracker.service.PremiumAlertEngine;
+import com.kpt.main.kptracker.service.PremiumAlertRule;
+import com.kpt.main.kptracker.service.PremiumHistoryStore;
+import com.kpt.main.kptracker.service.PremiumPayload;
+import com.kpt.main.kptracker.service.PremiumPushService;
+import com.kpt.main.kptracker.service.PremiumQuery;
+import com.kpt.main.kptracker.service.PremiumSnapshot;
+import com.kpt.main.kptracker.service.PremiumSnapshotService;
+import com.kpt.main.kptracker.service.PremiumSnapshotStore;
+import com.kpt.main.kptracker.service.PremiumStatsEngine;
+import com.kpt.main.kptracker.service.ProxyResponseCache;
+import com.kpt.main.kptracker.service.RateLimitTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.List;
 
@@ -15,32 +37,237 @@ public class KimchiPremiumApiController {
     @Autowired
     private KimchiPremiumService kimchiPremiumService;
     
-    // 전체 김프 데이터 조회
+    @Autowired
+    private PremiumSnapshotService premiumSnapshotService;
+    
+    @Autowired
+    private MarketMetadataRegistry marketMetadataRegistry;
+    
+    @Autowired
+    private MarketStreamService marketStreamService;
+    
+    @Autowired
+    private PremiumPushService premiumPushService;
+    
+    @Autowired
+    private ProxyResponseCache proxyResponseCache;
+    
+    @Autowired
+    private PremiumHistoryStore premiumHistoryStore;
+    
+    @Autowired
+    private PremiumStatsEngine premiumStatsEngine;
+    
+    @Autowired
+    private PremiumAlertEngine premiumAlertEngine;
+    
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+    
+    @Autowired
+    private OrderBookService orderBookService;
+    
+    @Autowired
+    private PremiumSnapshotStore premiumSnapshotStore;
+    
+    // 전체 김프 데이터 조회 (백그라운드에서 갱신된 스냅샷 반환)
+    // If-None-Match가 현재 버전의 ETag와 같으면 304, since가 있으면 해당 버전 이후 바뀐 코인만 반환
+    // sort/order/minVolume/exchange/search/limit/offset이 있으면 스냅샷의 항목별 정렬 색인으로 고른 코인 목록 반환
+    // 응답 본문(JSON, gzip)은 스냅샷 버전별로 한 번만 만들어 재사용
     @GetMapping("/premium/all")
-    public ResponseEntity<Map<String, Map<String, Object>>> getAllPremium() {
-        Map<String, Map<String, Object>> data = kimchiPremiumService.getAllPremiumData();
-        return ResponseEntity.ok(data);
+    public ResponseEntity<byte[]> getAllPremium(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Double minVolume,
+            @RequestParam(required = false) String exchange,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer offset,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // 정렬/필터/페이지 조건이 하나라도 있으면 목록 형식 ({"total": .., "coins": [...]})
+        PremiumQuery query = null;
+        if (sort != null || order != null || minVolume != null || exchange != null || search != null || limit != null || offset != null) {
+            if (since != null) {
+                return badRequestText("since와 정렬/필터 조건은 함께 사용할 수 없습니다.");
+            }
+            try {
+                query = PremiumQuery.parse(sort, order, minVolume, exchange, search, limit, offset);
+            } catch (IllegalArgumentException e) {
+                return badRequestText(e.getMessage());
+            }
+        }
+        
+        PremiumSnapshot snapshot = premiumSnapshotService.getSnapshot();
+        String etag = snapshot.getETag();
+        String version = String.valueOf(snapshot.getVersion());
+        
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header("X-Premium-Version", version)
+                    .build();
+        }
+        
+        // 보관 중이 아닌 버전이면 전체를 변경분 형식(full=true)으로 반환
+        PremiumPayload payload;
+        if (query != null) {
+            payload = snapshot.getViewPayload(query);
+        } else if (since != null) {
+            payload = snapshot.getDeltaPayload(premiumSnapshotService.getSnapshot(since));
+        } else {
+            payload = snapshot.getPayload();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header("X-Premium-Version", version)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (payload.isCompressible() && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
     }
     
-    // 특정 코인 김프 조회
-    @GetMapping("/premium/{coin}")
-    public ResponseEntity<Map<String, Object>> getCoinPremium(@PathVariable String coin) {
-        List<String> coins = List.of(coin.toUpperCase());
-        
-        Map<String, Double> upbitPrices = kimchiPremiumService.getUpbitPrices(coins);
-        Map<String, Double> bithumbPrices = kimchiPremiumService.getBithumbPrices();
-        Map<String, Double> binancePrices = kimchiPremiumService.getBinancePrices(coins);
-        double exchangeRate = kimchiPremiumService.getExchangeRate();
+    // 김프 실시간 스트림 (SSE, 연결 시 전체 스냅샷 후 변경된 코인만 전송)
+    @GetMapping(value = "/premium/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPremium() {
+        return premiumPushService.subscribe();
+    }
+    
+    // 스냅샷 상태 조회 (버전, 생성 시각, 소스별 조회 상태, 요청 한도, 갱신 주기, 마켓 목록 상태)
+    @GetMapping("/premium/status")
+    public ResponseEntity<Map<String, Object>> getPremiumStatus() {
+        PremiumSnapshot snapshot = premiumSnapshotService.getSnapshot();
         
-        Map<String, Object> result = Map.of(
-            "coin", coin.toUpperCase(),
-            "upbit", upbitPrices.get(coin.toUpperCase()),
-            "bithumb", bithumbPrices.get(coin.toUpperCase()),
-            "binance", binancePrices.get(coin.toUpperCase()),
-            "exchangeRate", exchangeRate
-        );
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("version", snapshot.getVersion());
+        status.put("createdAt", snapshot.getCreatedAt());
+        status.put("coinCount", snapshot.getTable().size());
+        status.put("partial", snapshot.isPartial());
+        status.put("restored", snapshot.isRestored());
+        status.put("sources", snapshot.getSources());
+        status.put("circuits", kimchiPremiumService.getCircuitStatus());
+        status.put("rateLimits", rateLimitTracker.getStatus());
+        status.put("markets", marketMetadataRegistry.getStatus());
+        status.put("streamClients", premiumPushService.getClientCount());
+        status.put("proxyCache", proxyResponseCache.getStats());
+        status.put("history", premiumHistoryStore.getStatus());
+        status.put("alerts", premiumAlertEngine.getStatus());
+        status.put("orderBooks", orderBookService.getStatus());
+        status.put("snapshotStore", premiumSnapshotStore.getStatus());
+        if (marketStreamService.isEnabled()) {
+            status.put("streams", marketStreamService.getStatus());
+        } else {
+            status.put("refresh", premiumSnapshotService.getRefreshStatus());
+        }
+        return ResponseEntity.ok(status);
+    }
+    
+    // 전체 코인 김프 이동 통계 (거래소별 5m/1h/24h 평균, 표준편차, z-score, 최소/최대)
+    @GetMapping("/premium/stats")
+    public ResponseEntity<Map<String, Object>> getAllPremiumStats() {
+        return ResponseEntity.ok(premiumStatsEngine.getAllStats());
+    }
+    
+    // 코인 실제 체결 김프 (krw 금액만큼 호가창을 따라 체결했을 때, 기본 1천만 원)
+    @GetMapping("/premium/{coin}/executable")
+    public ResponseEntity<Map<String, Object>> getExecutablePremium(
+            @PathVariable String coin,
+            @RequestParam(defaultValue = "10000000") double krw) {
+        try {
+            Map<String, Object> result = orderBookService.getExecutablePremium(coin, krw);
+            if (result == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // 코인 김프 이동 통계
+    @GetMapping("/premium/{coin}/stats")
+    public ResponseEntity<Map<String, Object>> getCoinPremiumStats(@PathVariable String coin) {
+        Map<String, Object> stats = premiumStatsEngine.getStats(coin);
+        if (stats == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stats);
+    }
+    
+    // 코인 김프 이력 조회 (from~to를 step 간격으로 다운샘플링한 min/max/avg, 기본: 최근 1시간 1분 간격)
+    @GetMapping("/premium/{coin}/history")
+    public ResponseEntity<Map<String, Object>> getCoinHistory(
+            @PathVariable String coin,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Long step) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 3_600_000L;
+        long interval = step != null ? step : 60_000L;
         
-        return ResponseEntity.ok(result);
+        try {
+            return ResponseEntity.ok(premiumHistoryStore.getHistory(coin, start, end, interval));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // 특정 코인 김프 조회 (현재 스냅샷에서 바로 찾고, 스냅샷에 없는 상장 코인만 해당 코인을 개별 조회)
+    @GetMapping("/premium/{coin}")
+    public ResponseEntity<Map<String, Object>> getCoinPremium(@PathVariable String coin) {
+        Map<String, Object> result = premiumSnapshotService.getCoinPremium(coin);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header("X-Premium-Version", String.valueOf(result.get("version")))
+                .body(result);
+    }
+    
+    // 알림 규칙 목록
+    @GetMapping("/alerts")
+    public ResponseEntity<List<Map<String, Object>>> getAlertRules() {
+        return ResponseEntity.ok(premiumAlertEngine.getRules());
+    }
+    
+    // 알림 규칙 등록 (형식 오류는 400)
+    @PostMapping("/alerts")
+    public ResponseEntity<Map<String, Object>> createAlertRule(@RequestBody Map<String, Object> request) {
+        try {
+            PremiumAlertRule rule = premiumAlertEngine.register(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(rule.toMap());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // 알림 규칙 삭제
+    @DeleteMapping("/alerts/{id}")
+    public ResponseEntity<Void> deleteAlertRule(@PathVariable int id) {
+        if (!premiumAlertEngine.remove(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    // 최근 알림 이벤트 (최신순)
+    @GetMapping("/alerts/events")
+    public ResponseEntity<List<Map<String, Object>>> getAlertEvents() {
+        return ResponseEntity.ok(premiumAlertEngine.getRecentEvents());
+    }
+    
+    // 알림 스트림 (SSE, triggered / resolved 이벤트)
+    @GetMapping(value = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        return premiumAlertEngine.subscribe();
     }
     
     // 환율 조회
@@ -70,4 +297,40 @@ public class KimchiPremiumApiController {
         Map<String, Double> prices = kimchiPremiumService.getBinancePrices(symbols);
         return ResponseEntity.ok(prices);
     }
+    
+    // If-None-Match 비교 (약한 비교: W/ 접두어 무시, 여러 값 또는 * 허용)
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(opaque) || value.equals("W/" + opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // 바이트 응답 엔드포인트의 400 (오류 메시지는 텍스트)
+    private ResponseEntity<byte[]> badRequestText(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(message.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Accept-Encoding에 gzip이 있는지 확인 (q=0으로 거부한 경우 제외)
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.kpt.main.kptracker.controller;
 
+import com.kpt.main.kptracker.service.ProxyResponseCache;
+import com.kpt.main.kptracker.service.RateLimitTracker;
+import com.kpt.main.kptracker.service.UpstreamEndpoints;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
@@ -7,13 +11,25 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 
 @Controller
 public class KimchiPremiumController {
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    // 공용 HTTP 전송 계층 (HttpTransportConfig)
+    @Autowired
+    private RestTemplate restTemplate;
+    
+    @Autowired
+    private ProxyResponseCache proxyResponseCache;
+    
+    @Autowired
+    private UpstreamEndpoints upstreamEndpoints;
+    
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
     
     // 메인 페이지
     @GetMapping("/")
@@ -40,8 +56,9 @@ public class KimchiPremiumController {
                 return ResponseEntity.badRequest().body("허용되지 않은 도메인입니다.");
             }
             
-            // 외부 API 호출
-            String response = restTemplate.getForObject(decodedUrl, String.class);
+            // 외부 API 호출 (짧은 시간 캐시, 같은 URL 동시 요청은 한 번만 호출)
+            String response = proxyResponseCache.get(decodedUrl,
+                    target -> restTemplate.getForObject(target, String.class));
             
             // 응답 헤더 설정
             HttpHeaders headers = new HttpHeaders();
@@ -55,17 +72,30 @@ public class KimchiPremiumController {
         } catch (HttpClientErrorException e) {
             return ResponseEntity.status(e.getStatusCode())
                     .body("API 호출 실패: " + e.getMessage());
+        } catch (ResourceAccessException e) {
+            // 거래소 요청 한도 대기 중이라 보내지 않은 요청 (캐시에 없을 때만 해당)
+            String decodedUrl = URLDecoder.decode(url, StandardCharsets.UTF_8);
+            long blockedForMs = rateLimitTracker.getBlockedForMs(
+                    RateLimitTracker.budgetKey(upstreamEndpoints.exchangeOf(decodedUrl), decodedUrl), System.currentTimeMillis());
+            if (blockedForMs > 0) {
+                return ResponseEntity.status(429)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf((blockedForMs + 999) / 1000))
+                        .body("요청 한도 대기 중입니다.");
+            }
+            return ResponseEntity.internalServerError()
+                    .body("서버 오류: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body("서버 오류: " + e.getMessage());
         }
     }
     
-    // 허용된 도메인 체크
+    // 허용된 도메인 체크 (kp.upstream.*으로 바꾼 주소 포함)
     private boolean isAllowedDomain(String url) {
         return url.contains("api.upbit.com") ||
                url.contains("api.bithumb.com") ||
                url.contains("api.binance.com") ||
-               url.contains("api.exchangerate-api.com");
+               url.contains("api.exchangerate-api.com") ||
+               upstreamEndpoints.isUpstreamUrl(url);
     }
 }
\ No newline at end of file
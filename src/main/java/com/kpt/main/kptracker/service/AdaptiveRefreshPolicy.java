@@ -0,0 +1,101 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// REST 조회 주기 조절
+// 거래소 티커 API는 요청 한 번에 모든 코인을 돌려주므로 코인별로 주기를 나누지 않고 전체 주기 하나를 조절한다
+// 직전 갱신 대비 김프 변화량을 거래대금으로 가중 평균해(거래가 많은 코인의 움직임 위주, 거래가 적은 코인의 잡음은 작게)
+// 시장이 움직일수록 minMs 쪽으로 줄이고, 요청 한도 사용률이 높거나 거래소가 대기 중이면 maxMs 쪽으로 늘린다
+final class AdaptiveRefreshPolicy {
+    
+    // 변화량 지수 이동 평균 가중치 (최근 갱신 비중)
+    private static final double ACTIVITY_SMOOTHING = 0.3;
+    
+    // 이 사용률을 넘으면 주기를 늘리기 시작 (1.0이면 기본 주기의 3배)
+    private static final double PRESSURE_THRESHOLD = 0.5;
+    
+    private final long baseMs;
+    private final long minMs;
+    private final long maxMs;
+    private final double activeMovePct;
+    
+    private double activity;
+    private long lastDelayMs;
+    private double lastPressure;
+    
+    AdaptiveRefreshPolicy(long baseMs, long minMs, long maxMs, double activeMovePct) {
+        this.minMs = Math.max(1, Math.min(minMs, baseMs));
+        this.maxMs = Math.max(baseMs, maxMs);
+        this.baseMs = baseMs;
+        this.activeMovePct = activeMovePct > 0 ? activeMovePct : Double.MIN_VALUE;
+        this.lastDelayMs = baseMs;
+    }
+    
+    // 새 테이블 반영 (업비트/빗썸 김프의 |변화량|을 합계 거래대금으로 가중 평균, 이전 테이블에 없는 코인은 제외)
+    synchronized void observe(PremiumTable previous, PremiumTable current) {
+        if (previous == null || previous.isEmpty() || current.isEmpty()) {
+            return;
+        }
+        double weightedMove = 0;
+        double totalWeight = 0;
+        for (int row = 0; row < current.size(); row++) {
+            int previousRow = previous.indexOf(current.symbol(row));
+            if (previousRow < 0) {
+                continue;
+            }
+            double move = maxMove(previous, previousRow, current, row);
+            if (Double.isNaN(move)) {
+                continue;
+            }
+            double weight = current.totalVolume24h(row);
+            if (Double.isNaN(weight)) {
+                continue;
+            }
+            weightedMove += move * weight;
+            totalWeight += weight;
+        }
+        if (totalWeight > 0) {
+            activity += ACTIVITY_SMOOTHING * (weightedMove / totalWeight - activity);
+        }
+    }
+    
+    // 다음 갱신까지 대기 시간 (pressure: 요청 한도 사용률 0~1, blockedForMs: 거래소 대기 남은 시간)
+    synchronized long nextDelay(double pressure, long blockedForMs) {
+        double interval = baseMs - (baseMs - minMs) * Math.min(1, activity / activeMovePct);
+        if (pressure > PRESSURE_THRESHOLD) {
+            interval *= 1 + (pressure - PRESSURE_THRESHOLD) * 4;
+        }
+        interval = Math.max(interval, Math.min(blockedForMs, maxMs));
+        lastDelayMs = Math.max(minMs, Math.min(maxMs, Math.round(interval)));
+        lastPressure = pressure;
+        return lastDelayMs;
+    }
+    
+    synchronized long getLastDelayMs() {
+        return lastDelayMs;
+    }
+    
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("intervalMs", lastDelayMs);
+        map.put("baseMs", baseMs);
+        map.put("minMs", minMs);
+        map.put("maxMs", maxMs);
+        map.put("activityPct", activity);
+        map.put("pressure", lastPressure);
+        return map;
+    }
+    
+    // 한 코인의 업비트/빗썸 김프 변화량 중 큰 값 (양쪽 모두 비교할 값이 없으면 NaN)
+    private static double maxMove(PremiumTable previous, int previousRow, PremiumTable current, int row) {
+        double move = Double.NaN;
+        for (PremiumField field : new PremiumField[] {PremiumField.UPBIT_PREMIUM, PremiumField.BITHUMB_PREMIUM}) {
+            double delta = Math.abs(current.value(row, field) - previous.value(previousRow, field));
+            if (!Double.isNaN(delta) && (Double.isNaN(move) || delta > move)) {
+                move = delta;
+            }
+        }
+        return move;
+    }
+}
@@ -0,0 +1,44 @@
+package com.kpt.main.kptracker.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// 읽은 바이트 수를 세는 입력 스트림 (응답 본문 크기 측정용)
+final class CountingInputStream extends FilterInputStream {
+    
+    private long count;
+    
+    CountingInputStream(InputStream in) {
+        super(in);
+    }
+    
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count++;
+        }
+        return b;
+    }
+    
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            count += n;
+        }
+        return n;
+    }
+    
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count += skipped;
+        return skipped;
+    }
+    
+    long getCount() {
+        return count;
+    }
+}
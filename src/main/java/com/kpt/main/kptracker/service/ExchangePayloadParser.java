@@ -0,0 +1,740 @@
+package com.kpt.main.kptracker.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// 거래소 응답 파서
+// 큰 응답(빗썸 ALL_KRW, 바이낸스 exchangeInfo/ticker, 업비트 ticker)과 호가창은 JsonParser로 스트림에서 바로 읽고
+// 필요 없는 하위 트리(filters, rateLimits 등)는 건너뛴다. *Tree 메서드는 비교용 트리 기반 구현
+public final class ExchangePayloadParser {
+    
+    // 정확히 표현 가능한 10의 거듭제곱 (빠른 숫자 변환용)
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_FAST_DIGITS = 15;
+    
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    // 빗썸 ticker/ALL_KRW 파싱 (심볼 -> 현재가/거래대금)
+    public Map<String, TickerQuote> parseBithumbTicker(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            Map<String, TickerQuote> tickerData = new HashMap<>();
+            String status = null;
+            
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("빗썸 응답 형식 오류");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("status".equals(field)) {
+                    status = parser.getText();
+                } else if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    readBithumbCoins(parser, tickerData);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            
+            // 점검/오류 응답은 실패로 처리해 서킷 브레이커와 마지막 성공 값을 사용하게 함
+            if (!"0000".equals(status)) {
+                throw new IOException("빗썸 응답 상태 오류: " + status);
+            }
+            return tickerData;
+        }
+    }
+    
+    private void readBithumbCoins(JsonParser parser, Map<String, TickerQuote> tickerData) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String symbol = parser.currentName();
+            
+            // "date" 등 코인이 아닌 값은 건너뜀
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            
+            double closingPrice = Double.NaN;
+            double unitsTraded = Double.NaN;
+            boolean hasUnitsTraded = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("closing_price".equals(field)) {
+                    closingPrice = readDouble(parser);
+                } else if ("units_traded_24H".equals(field)) {
+                    hasUnitsTraded = true;
+                    unitsTraded = readDouble(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            
+            // 변환 실패한 값이 있으면 해당 코인 무시
+            if (Double.isNaN(closingPrice) || (hasUnitsTraded && Double.isNaN(unitsTraded))) {
+                continue;
+            }
+            
+            // 24시간 거래대금 = 거래량 * 가격
+            double volume24h = hasUnitsTraded ? unitsTraded * closingPrice : Double.NaN;
+            tickerData.put(symbol, new TickerQuote(closingPrice, volume24h));
+        }
+    }
+    
+    // 업비트 ticker 파싱 (심볼 -> 현재가/거래대금)
+    public Map<String, TickerQuote> parseUpbitTicker(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            Map<String, TickerQuote> tickerData = new HashMap<>();
+            
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return tickerData;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                
+                String market = null;
+                double tradePrice = Double.NaN;
+                double accTradePrice24h = Double.NaN;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("market".equals(field)) {
+                        market = parser.getText();
+                    } else if ("trade_price".equals(field)) {
+                        tradePrice = readDouble(parser);
+                    } else if ("acc_trade_price_24h".equals(field)) {
+                        accTradePrice24h = readDouble(parser);  // 24시간 거래대금
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                
+                if (market != null && !Double.isNaN(tradePrice)) {
+                    tickerData.put(market.replace("KRW-", ""), new TickerQuote(tradePrice, accTradePrice24h));
+                }
+            }
+            
+            return tickerData;
+        }
+    }
+    
+    // 업비트/빗썸 market/all 파싱 (KRW 마켓만, 심볼 -> 상장 정보)
+    public Map<String, MarketListing> parseKrwMarketListings(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            Map<String, MarketListing> listings = new LinkedHashMap<>();
+            
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return listings;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                
+                String market = null;
+                String koreanName = null;
+                String englishName = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("market".equals(field)) {
+                        market = parser.getText();
+                    } else if ("korean_name".equals(field)) {
+                        koreanName = parser.getText();
+                    } else if ("english_name".equals(field)) {
+                        englishName = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                
+                if (market != null && market.startsWith("KRW-")) {
+                    String symbol = market.substring("KRW-".length());
+                    listings.put(symbol, new MarketListing(symbol, koreanName, englishName));
+                }
+            }
+            
+            return listings;
+        }
+    }
+    
+    // 바이낸스 exchangeInfo 파싱 (거래 중인 심볼만, filters/rateLimits 등은 건너뜀)
+    public Set<String> parseBinanceTradingSymbols(InputStream in) throws IOException {
+        return parseBinanceTradingSymbols(in, null);
+    }
+    
+    // 바이낸스 exchangeInfo 파싱 (allSymbols가 있으면 상태와 관계없이 모든 심볼을 함께 수집)
+    public Set<String> parseBinanceTradingSymbols(InputStream in, Set<String> allSymbols) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            Set<String> symbols = new HashSet<>();
+            
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return symbols;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"symbols".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    
+                    String symbol = null;
+                    boolean trading = false;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String symbolField = parser.currentName();
+                        parser.nextToken();
+                        if ("symbol".equals(symbolField)) {
+                            symbol = parser.getText();
+                        } else if ("status".equals(symbolField)) {
+                            trading = "TRADING".equals(parser.getText());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    
+                    if (symbol != null && allSymbols != null) {
+                        allSymbols.add(symbol);
+                    }
+                    if (symbol != null && trading) {
+                        symbols.add(symbol);
+                    }
+                }
+            }
+            
+            return symbols;
+        }
+    }
+    
+    // 바이낸스 전체 ticker/price 파싱 (USDT 마켓 중 거래 중인 심볼만, 기준 심볼 -> 가격)
+    public Map<String, Double> parseBinanceUsdtPrices(InputStream in, Set<String> tradingSymbols) throws IOException {
+        return parseBinanceUsdtPrices(in, tradingSymbols, null);
+    }
+    
+    // 바이낸스 전체 ticker/price 파싱 (untrackedPairs가 있으면 거래 중 목록에 없는 USDT 마켓을 함께 수집)
+    public Map<String, Double> parseBinanceUsdtPrices(InputStream in, Set<String> tradingSymbols,
+                                                      Set<String> untrackedPairs) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            Map<String, Double> prices = new HashMap<>();
+            
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return prices;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                
+                String tradingPair = null;
+                double price = Double.NaN;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("symbol".equals(field)) {
+                        tradingPair = parser.getText();
+                    } else if ("price".equals(field)) {
+                        price = readDouble(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                
+                if (tradingPair == null || Double.isNaN(price)) {
+                    continue;
+                }
+                if (isUsdtTradingPair(tradingPair, tradingSymbols)) {
+                    prices.put(tradingPair.substring(0, tradingPair.length() - "USDT".length()), price);
+                } else if (untrackedPairs != null && tradingPair.endsWith("USDT")) {
+                    untrackedPairs.add(tradingPair);
+                }
+            }
+            
+            return prices;
+        }
+    }
+    
+    // 호가창 수신 콜백 (심볼, 작업용 호가창 - 콜백이 끝나면 다음 코인으로 다시 채워짐)
+    interface BookHandler {
+        void onBook(String symbol, OrderBook book);
+    }
+    
+    // 업비트 orderbook 파싱 ([{"market":"KRW-BTC","orderbook_units":[{"ask_price":..,"bid_price":..,"ask_size":..,"bid_size":..}]}])
+    void parseUpbitOrderbook(InputStream in, OrderBook scratch, BookHandler handler) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                
+                String market = null;
+                scratch.clear();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("market".equals(field)) {
+                        market = parser.getText();
+                    } else if ("orderbook_units".equals(field) && value == JsonToken.START_ARRAY) {
+                        readUpbitUnits(parser, scratch);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                
+                if (market != null && !scratch.isEmpty()) {
+                    handler.onBook(market.replace("KRW-", ""), scratch);
+                }
+            }
+        }
+    }
+    
+    private void readUpbitUnits(JsonParser parser, OrderBook scratch) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            double askPrice = Double.NaN;
+            double askSize = Double.NaN;
+            double bidPrice = Double.NaN;
+            double bidSize = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("ask_price".equals(field)) {
+                    askPrice = readDouble(parser);
+                } else if ("ask_size".equals(field)) {
+                    askSize = readDouble(parser);
+                } else if ("bid_price".equals(field)) {
+                    bidPrice = readDouble(parser);
+                } else if ("bid_size".equals(field)) {
+                    bidSize = readDouble(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            // NaN은 addAsk/addBid에서 걸러짐
+            scratch.addAsk(askPrice, askSize);
+            scratch.addBid(bidPrice, bidSize);
+        }
+    }
+    
+    // 빗썸 orderbook/{COIN}_KRW 파싱 ({"status":"0000","data":{"bids":[{"price":"..","quantity":".."}],"asks":[..]}})
+    // 성공 응답이고 호가가 있으면 true
+    boolean parseBithumbOrderbook(InputStream in, OrderBook scratch) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            scratch.clear();
+            String status = null;
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("status".equals(field)) {
+                    status = parser.getText();
+                } else if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String side = parser.currentName();
+                        JsonToken sideValue = parser.nextToken();
+                        if (("bids".equals(side) || "asks".equals(side)) && sideValue == JsonToken.START_ARRAY) {
+                            readBithumbLevels(parser, scratch, "bids".equals(side));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return "0000".equals(status) && !scratch.isEmpty();
+        }
+    }
+    
+    private void readBithumbLevels(JsonParser parser, OrderBook scratch, boolean bids) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            double price = Double.NaN;
+            double quantity = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("price".equals(field)) {
+                    price = readDouble(parser);
+                } else if ("quantity".equals(field)) {
+                    quantity = readDouble(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (bids) {
+                scratch.addBid(price, quantity);
+            } else {
+                scratch.addAsk(price, quantity);
+            }
+        }
+    }
+    
+    // 바이낸스 depth 파싱 ({"lastUpdateId":..,"bids":[["가격","수량"],..],"asks":[..]}), 호가가 있으면 true
+    boolean parseBinanceDepth(InputStream in, OrderBook scratch) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            scratch.clear();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (("bids".equals(field) || "asks".equals(field)) && value == JsonToken.START_ARRAY) {
+                    readBinanceLevels(parser, scratch, "bids".equals(field));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return !scratch.isEmpty();
+        }
+    }
+    
+    private void readBinanceLevels(JsonParser parser, OrderBook scratch, boolean bids) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            double price = Double.NaN;
+            double quantity = Double.NaN;
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                price = readDouble(parser);
+                if (parser.nextToken() != JsonToken.END_ARRAY) {
+                    quantity = readDouble(parser);
+                    // 남은 값이 있으면 건너뜀
+                    while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            if (bids) {
+                scratch.addBid(price, quantity);
+            } else {
+                scratch.addAsk(price, quantity);
+            }
+        }
+    }
+    
+    // 실시간 시세 수신 콜백 (심볼, 현재가, 24시간 거래대금 - 없으면 NaN)
+    public interface TickHandler {
+        void onTick(String symbol, double price, double volume24h);
+    }
+    
+    // 업비트 WebSocket ticker 메시지 파싱 ({"type":"ticker","code":"KRW-BTC","trade_price":...})
+    public void parseUpbitTick(String message, TickHandler handler) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            
+            String type = null;
+            String code = null;
+            double tradePrice = Double.NaN;
+            double accTradePrice24h = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("type".equals(field)) {
+                    type = parser.getText();
+                } else if ("code".equals(field)) {
+                    code = parser.getText();
+                } else if ("trade_price".equals(field)) {
+                    tradePrice = readDouble(parser);
+                } else if ("acc_trade_price_24h".equals(field)) {
+                    accTradePrice24h = readDouble(parser);  // 24시간 거래대금
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            
+            // 상태 메시지({"status":"UP"}) 등은 무시
+            if ("ticker".equals(type) && code != null && code.startsWith("KRW-") && !Double.isNaN(tradePrice)) {
+                handler.onTick(code.substring("KRW-".length()), tradePrice, accTradePrice24h);
+            }
+        }
+    }
+    
+    // 빗썸 WebSocket ticker 메시지 파싱 ({"type":"ticker","content":{"symbol":"BTC_KRW","closePrice":...}})
+    public void parseBithumbTick(String message, TickHandler handler) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            
+            String type = null;
+            String symbol = null;
+            double closePrice = Double.NaN;
+            double value24h = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("type".equals(field)) {
+                    type = parser.getText();
+                } else if ("content".equals(field) && token == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String contentField = parser.currentName();
+                        parser.nextToken();
+                        if ("symbol".equals(contentField)) {
+                            symbol = parser.getText();
+                        } else if ("closePrice".equals(contentField)) {
+                            closePrice = readDouble(parser);
+                        } else if ("value".equals(contentField)) {
+                            value24h = readDouble(parser);  // 누적 거래금액 (tickType 24H)
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            
+            // 연결/구독 응답({"status":"0000",...})은 무시
+            if ("ticker".equals(type) && symbol != null && symbol.endsWith("_KRW") && !Double.isNaN(closePrice)) {
+                handler.onTick(symbol.substring(0, symbol.length() - "_KRW".length()), closePrice, value24h);
+            }
+        }
+    }
+    
+    // 바이낸스 miniTicker 메시지 파싱 (!miniTicker@arr 배열 또는 단일 객체, USDT 마켓 중 거래 중인 심볼만)
+    public void parseBinanceMiniTickers(String message, Set<String> tradingSymbols, TickHandler handler)
+            throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                readBinanceMiniTicker(parser, tradingSymbols, handler);
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                return;
+            }
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                readBinanceMiniTicker(parser, tradingSymbols, handler);
+            }
+        }
+    }
+    
+    private void readBinanceMiniTicker(JsonParser parser, Set<String> tradingSymbols, TickHandler handler)
+            throws IOException {
+        String tradingPair = null;
+        double closePrice = Double.NaN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("s".equals(field)) {
+                tradingPair = parser.getText();
+            } else if ("c".equals(field)) {
+                closePrice = readDouble(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        
+        if (tradingPair != null && !Double.isNaN(closePrice) && isUsdtTradingPair(tradingPair, tradingSymbols)) {
+            handler.onTick(tradingPair.substring(0, tradingPair.length() - "USDT".length()), closePrice, Double.NaN);
+        }
+    }
+    
+    // 빗썸 ticker/ALL_KRW 트리 기반 파싱 (비교용)
+    public Map<String, TickerQuote> parseBithumbTickerTree(String json) throws IOException {
+        Map<String, TickerQuote> tickerData = new HashMap<>();
+        JsonNode root = objectMapper.readTree(json);
+        
+        String status = root.path("status").asText(null);
+        if (!"0000".equals(status)) {
+            throw new IOException("빗썸 응답 상태 오류: " + status);
+        }
+        JsonNode data = root.get("data");
+        
+        data.fieldNames().forEachRemaining(symbol -> {
+            if (!"date".equals(symbol)) {
+                JsonNode coinData = data.get(symbol);
+                if (coinData != null && coinData.has("closing_price")) {
+                    try {
+                        double price = Double.parseDouble(coinData.get("closing_price").asText());
+                        double volume24h = Double.NaN;
+                        
+                        // 24시간 거래대금 계산 (거래량 * 가격)
+                        if (coinData.has("units_traded_24H")) {
+                            volume24h = Double.parseDouble(coinData.get("units_traded_24H").asText()) * price;
+                        }
+                        
+                        tickerData.put(symbol, new TickerQuote(price, volume24h));
+                    } catch (NumberFormatException e) {
+                        // 변환 실패 시 무시
+                    }
+                }
+            }
+        });
+        
+        return tickerData;
+    }
+    
+    // 업비트 ticker 트리 기반 파싱 (비교용)
+    public Map<String, TickerQuote> parseUpbitTickerTree(String json) throws IOException {
+        Map<String, TickerQuote> tickerData = new HashMap<>();
+        JsonNode root = objectMapper.readTree(json);
+        
+        for (JsonNode node : root) {
+            String market = node.get("market").asText();
+            String symbol = market.replace("KRW-", "");
+            tickerData.put(symbol, new TickerQuote(
+                node.get("trade_price").asDouble(),
+                node.get("acc_trade_price_24h").asDouble()));  // 24시간 거래대금
+        }
+        
+        return tickerData;
+    }
+    
+    // 바이낸스 exchangeInfo 트리 기반 파싱 (비교용)
+    public Set<String> parseBinanceTradingSymbolsTree(String json) throws IOException {
+        Set<String> symbols = new HashSet<>();
+        JsonNode root = objectMapper.readTree(json);
+        
+        for (JsonNode symbolNode : root.get("symbols")) {
+            String symbol = symbolNode.get("symbol").asText();
+            String status = symbolNode.get("status").asText();
+            if ("TRADING".equals(status)) {
+                symbols.add(symbol);
+            }
+        }
+        
+        return symbols;
+    }
+    
+    // 바이낸스 전체 ticker/price 트리 기반 파싱 (비교용)
+    public Map<String, Double> parseBinanceUsdtPricesTree(String json, Set<String> tradingSymbols) throws IOException {
+        Map<String, Double> prices = new HashMap<>();
+        JsonNode root = objectMapper.readTree(json);
+        
+        for (JsonNode node : root) {
+            String tradingPair = node.get("symbol").asText();
+            if (isUsdtTradingPair(tradingPair, tradingSymbols)) {
+                prices.put(tradingPair.substring(0, tradingPair.length() - "USDT".length()),
+                           node.get("price").asDouble());
+            }
+        }
+        
+        return prices;
+    }
+    
+    private static boolean isUsdtTradingPair(String tradingPair, Set<String> tradingSymbols) {
+        return tradingPair.endsWith("USDT") && tradingSymbols.contains(tradingPair);
+    }
+    
+    // 현재 토큰을 double로 읽기 (숫자 문자열 포함, 변환 불가 시 NaN)
+    private static double readDouble(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parseDouble(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        parser.skipChildren();
+        return Double.NaN;
+    }
+    
+    // 문자열 생성 없이 숫자 변환
+    // 유효 숫자 15자리 이하, 소수점 이하 22자리 이하인 일반 소수는 한 번의 나눗셈으로 정확히 변환되고
+    // 지수 표기 등 그 외 형식은 Double.parseDouble로 처리한다 (변환 불가 시 NaN)
+    static double parseDouble(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDigit = false;
+        boolean seenDot = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (seenDot) {
+                    fractionDigits++;
+                }
+                // 앞자리 0은 유효 숫자에 포함하지 않음
+                if (digits == 0 && c == '0') {
+                    continue;
+                }
+                if (++digits > MAX_FAST_DIGITS) {
+                    return parseDoubleSlow(chars, offset, length);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                return parseDoubleSlow(chars, offset, length);
+            }
+        }
+        
+        if (!seenDigit || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDoubleSlow(chars, offset, length);
+        }
+        
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+    
+    private static double parseDoubleSlow(char[] chars, int offset, int length) {
+        try {
+            return Double.parseDouble(new String(chars, offset, length));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
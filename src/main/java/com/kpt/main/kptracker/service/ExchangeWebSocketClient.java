@@ -0,0 +1,263 @@
+package com.kpt.main.kptracker.service;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// 거래소 시세 WebSocket 클라이언트 (JDK HttpClient 기반)
+// 분할된 텍스트/바이너리 프레임을 메시지 단위로 모아 전달하고, 연결이 끊기거나 일정 시간 메시지가 없으면
+// 지수 백오프로 재연결한다. 연결될 때마다 구독 메시지를 다시 보내고 onConnected(REST 보정 등)를 실행
+public class ExchangeWebSocketClient {
+    
+    private final String name;
+    private final URI uri;
+    private final Supplier<String> subscribeMessage;
+    private final Consumer<String> messageHandler;
+    private final Runnable onConnected;
+    private final long reconnectMinMs;
+    private final long reconnectMaxMs;
+    private final long idleTimeoutMs;
+    
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean reconnectPending = new AtomicBoolean();
+    
+    private volatile boolean running;
+    private volatile WebSocket webSocket;
+    private volatile boolean connected;
+    private volatile long lastMessageAt;
+    private volatile String lastError;
+    private long reconnectDelayMs;
+    
+    private final AtomicLong messageCount = new AtomicLong();
+    private final AtomicLong connectCount = new AtomicLong();
+    
+    // subscribeMessage가 null이면 구독 메시지 없이 URL만으로 구독 (예: 바이낸스 스트림)
+    public ExchangeWebSocketClient(String name, URI uri, Supplier<String> subscribeMessage,
+                                   Consumer<String> messageHandler, Runnable onConnected,
+                                   long reconnectMinMs, long reconnectMaxMs, long idleTimeoutMs) {
+        this.name = name;
+        this.uri = uri;
+        this.subscribeMessage = subscribeMessage;
+        this.messageHandler = messageHandler;
+        this.onConnected = onConnected;
+        this.reconnectMinMs = reconnectMinMs;
+        this.reconnectMaxMs = reconnectMaxMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.reconnectDelayMs = reconnectMinMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kp-ws-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public void start() {
+        running = true;
+        connect();
+        
+        // 메시지가 끊긴 연결(응답 없는 소켓) 감시
+        if (idleTimeoutMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::checkIdle, idleTimeoutMs, idleTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    public void stop() {
+        running = false;
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            socket.abort();
+        }
+        connected = false;
+        scheduler.shutdownNow();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public boolean isConnected() {
+        return connected;
+    }
+    
+    public long getMessageCount() {
+        return messageCount.get();
+    }
+    
+    public long getConnectCount() {
+        return connectCount.get();
+    }
+    
+    public long getLastMessageAt() {
+        return lastMessageAt;
+    }
+    
+    // 연결 상태 (연결 여부, 수신 메시지 수, 연결 횟수, 마지막 수신 시각, 마지막 오류)
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("connected", connected);
+        status.put("messages", messageCount.get());
+        status.put("connects", connectCount.get());
+        status.put("lastMessageAt", lastMessageAt);
+        status.put("lastError", lastError);
+        return status;
+    }
+    
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        
+        httpClient.newWebSocketBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .buildAsync(uri, new Listener())
+            .whenComplete((socket, error) -> {
+                if (error != null) {
+                    lastError = error.getMessage();
+                    System.err.println(name + " WebSocket 연결 실패: " + error.getMessage());
+                    scheduleReconnect();
+                }
+            });
+    }
+    
+    // 재연결 예약 (중복 예약 방지, 대기 시간은 실패할수록 최대값까지 2배씩 증가)
+    private void scheduleReconnect() {
+        connected = false;
+        if (!running || !reconnectPending.compareAndSet(false, true)) {
+            return;
+        }
+        
+        long delayMs;
+        synchronized (this) {
+            delayMs = reconnectDelayMs;
+            reconnectDelayMs = Math.min(reconnectDelayMs * 2, reconnectMaxMs);
+        }
+        
+        try {
+            scheduler.schedule(() -> {
+                reconnectPending.set(false);
+                connect();
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 종료 중이면 무시
+            reconnectPending.set(false);
+        }
+    }
+    
+    private void checkIdle() {
+        WebSocket socket = webSocket;
+        if (connected && socket != null && System.currentTimeMillis() - lastMessageAt > idleTimeoutMs) {
+            System.err.println(name + " WebSocket 수신 없음 (" + idleTimeoutMs + "ms) - 재연결");
+            socket.abort();
+            scheduleReconnect();
+        }
+    }
+    
+    private void onOpened(WebSocket socket) {
+        webSocket = socket;
+        connected = true;
+        lastMessageAt = System.currentTimeMillis();
+        connectCount.incrementAndGet();
+        synchronized (this) {
+            reconnectDelayMs = reconnectMinMs;
+        }
+        
+        String message = subscribeMessage != null ? subscribeMessage.get() : null;
+        if (message != null) {
+            socket.sendText(message, true);
+        }
+        socket.request(1);
+        
+        // 연결이 끊긴 동안 놓친 시세 보정 (수신 스레드를 막지 않도록 별도 실행)
+        if (onConnected != null) {
+            scheduler.execute(() -> {
+                try {
+                    onConnected.run();
+                } catch (Exception e) {
+                    System.err.println(name + " 연결 후 처리 실패: " + e.getMessage());
+                }
+            });
+        }
+    }
+    
+    private void deliver(String message) {
+        lastMessageAt = System.currentTimeMillis();
+        try {
+            messageHandler.accept(message);
+        } catch (Exception e) {
+            System.err.println(name + " 메시지 처리 실패: " + e.getMessage());
+        }
+        messageCount.incrementAndGet();
+    }
+    
+    // 연결 1회분 수신 처리 (이전 연결의 늦은 이벤트는 무시)
+    private class Listener implements WebSocket.Listener {
+        
+        private final StringBuilder text = new StringBuilder();
+        private final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        
+        @Override
+        public void onOpen(WebSocket socket) {
+            onOpened(socket);
+        }
+        
+        @Override
+        public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+            text.append(data);
+            if (last) {
+                String message = text.toString();
+                text.setLength(0);
+                deliver(message);
+            }
+            socket.request(1);
+            return null;
+        }
+        
+        // 업비트는 JSON을 바이너리 프레임으로 전송
+        @Override
+        public CompletionStage<?> onBinary(WebSocket socket, ByteBuffer data, boolean last) {
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            binary.write(bytes, 0, bytes.length);
+            if (last) {
+                String message = binary.toString(StandardCharsets.UTF_8);
+                binary.reset();
+                deliver(message);
+            }
+            socket.request(1);
+            return null;
+        }
+        
+        @Override
+        public CompletionStage<?> onClose(WebSocket socket, int statusCode, String reason) {
+            if (socket == webSocket) {
+                lastError = "closed: " + statusCode + (reason == null || reason.isEmpty() ? "" : " " + reason);
+                scheduleReconnect();
+            }
+            return null;
+        }
+        
+        @Override
+        public void onError(WebSocket socket, Throwable error) {
+            if (socket == webSocket) {
+                lastError = error.getMessage();
+                System.err.println(name + " WebSocket 오류: " + error.getMessage());
+                scheduleReconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.kpt.main.kptracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+// 거래소/환율 API 호출용 공용 HTTP 전송 계층
+// JDK HttpClient 하나를 공유해 호스트별 연결(HTTP/2 다중화, keep-alive)을 재사용하고 TLS 핸드셰이크를 줄인다
+@Configuration
+public class HttpTransportConfig {
+    
+    @Value("${kp.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+    
+    @Value("${kp.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+    
+    // 연결 풀은 HttpClient가 호스트별로 관리 (HTTP/2를 지원하지 않는 호스트는 HTTP/1.1 keep-alive)
+    @Bean
+    public HttpClient exchangeHttpClient() {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+    
+    @Bean
+    public RestTemplate exchangeRestTemplate(HttpClient exchangeHttpClient, RateLimitTracker rateLimitTracker,
+                                             UpstreamEndpoints upstreamEndpoints) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(exchangeHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(rateLimitInterceptor(rateLimitTracker, upstreamEndpoints));
+        restTemplate.getInterceptors().add(gzipInterceptor());
+        return restTemplate;
+    }
+    
+    // 거래소 요청 한도 확인 (대기 중이면 보내지 않고, 응답 헤더/상태 코드는 RateLimitTracker에 반영)
+    static ClientHttpRequestInterceptor rateLimitInterceptor(RateLimitTracker tracker, UpstreamEndpoints endpoints) {
+        return (request, body, execution) -> {
+            String url = request.getURI().toString();
+            String exchange = endpoints.exchangeOf(url);
+            if (exchange == null) {
+                return execution.execute(request, body);
+            }
+            // 업비트는 요청 그룹별 한도 (주문서 한도가 ticker 조회를 막지 않음)
+            exchange = RateLimitTracker.budgetKey(exchange, url);
+            long blockedForMs = tracker.getBlockedForMs(exchange, System.currentTimeMillis());
+            if (blockedForMs > 0) {
+                throw new IOException(exchange + " 요청 한도 대기 중 (" + blockedForMs + "ms 남음)");
+            }
+            ClientHttpResponse response = execution.execute(request, body);
+            tracker.observe(exchange, response.getStatusCode().value(), response.getHeaders(), System.currentTimeMillis());
+            return response;
+        };
+    }
+    
+    // gzip 응답 요청 및 해제 (JDK HttpClient는 압축을 자동으로 처리하지 않음)
+    static ClientHttpRequestInterceptor gzipInterceptor() {
+        return (request, body, execution) -> {
+            if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            ClientHttpResponse response = execution.execute(request, body);
+            String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            return encoding != null && encoding.trim().equalsIgnoreCase("gzip")
+                ? new GzipClientHttpResponse(response)
+                : response;
+        };
+    }
+    
+    // 압축을 풀어서 읽는 응답 (Content-Encoding/Content-Length 헤더는 제거)
+    private static class GzipClientHttpResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers = new HttpHeaders();
+        private InputStream body;
+        
+        GzipClientHttpResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            this.headers.putAll(delegate.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+        
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+        
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+        
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                // 본문이 비어 있으면 gzip 헤더도 없으므로 그대로 빈 스트림
+                PushbackInputStream raw = new PushbackInputStream(delegate.getBody(), 1);
+                int first = raw.read();
+                if (first == -1) {
+                    body = InputStream.nullInputStream();
+                } else {
+                    raw.unread(first);
+                    body = new GZIPInputStream(raw);
+                }
+            }
+            return body;
+        }
+        
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -1,21 +1,90 @@
 package com.kpt.main.kptracker.service;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class KimchiPremiumService {
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    // 김프 계산에 사용하는 데이터 소스 (상태 표시 순서)
+    public static final String SOURCE_EXCHANGE_RATE = "exchangeRate";
+    public static final String SOURCE_UPBIT_TICKER = "upbitTicker";
+    public static final String SOURCE_BITHUMB_TICKER = "bithumbTicker";
+    public static final String SOURCE_BINANCE_TICKER = "binanceTicker";
+    private static final List<String> SOURCES = List.of(
+        SOURCE_EXCHANGE_RATE, SOURCE_UPBIT_TICKER, SOURCE_BITHUMB_TICKER, SOURCE_BINANCE_TICKER);
+    
+    // 소스별 요청 한도 확인 대상 (RateLimitTracker.budgetKey, 업비트는 요청 그룹별)
+    private static final Map<String, String> SOURCE_EXCHANGES = Map.of(
+        SOURCE_EXCHANGE_RATE, UpstreamEndpoints.EXCHANGE_RATE,
+        SOURCE_UPBIT_TICKER, RateLimitTracker.budgetKey(MarketMetadataRegistry.UPBIT, "/v1/ticker"),
+        SOURCE_BITHUMB_TICKER, MarketMetadataRegistry.BITHUMB,
+        SOURCE_BINANCE_TICKER, MarketMetadataRegistry.BINANCE);
+    
+    // 코인 하나 조회용 서킷 브레이커 접미사 (없는 코인 조회 실패가 전체 ticker 조회를 막지 않도록 따로 셈)
+    private static final String COIN_LOOKUP_BREAKER_SUFFIX = ".coin";
+    
+    private static final double DEFAULT_EXCHANGE_RATE = 1390.0;
+    
+    // 공용 HTTP 전송 계층 (HttpTransportConfig)
+    @Autowired
+    private RestTemplate restTemplate;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExchangePayloadParser payloadParser = new ExchangePayloadParser();
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private MarketMetadataRegistry marketRegistry;
+    
+    @Autowired
+    private PremiumStatsEngine premiumStatsEngine;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private UpstreamEndpoints upstreamEndpoints;
+    
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+    
+    // 거래소 조회 병렬 실행용 스레드 풀
+    private final ExecutorService fetchExecutor = Executors.newCachedThreadPool(new FetchThreadFactory());
+    
+    // 소스별 서킷 브레이커, 마지막 성공 값, 마지막 조회 상태
+    private final Map<String, SourceCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, LastGood> lastGoodValues = new ConcurrentHashMap<>();
+    private final Map<String, SourceStatus> lastStatuses = new ConcurrentHashMap<>();
+    
+    // 마지막으로 출력한 계산 코인 수 (-1: 아직 출력 안 함)
+    private final AtomicInteger loggedCoinCount = new AtomicInteger(-1);
     
     // 김치 프리미엄 계산
     public double calculatePremium(double krwPrice, double usdPrice, double exchangeRate) {
@@ -30,401 +99,540 @@ public class KimchiPremiumService {
     // 업비트 가격 가져오기
     public Map<String, Double> getUpbitPrices(List<String> symbols) {
         Map<String, Double> prices = new HashMap<>();
-        
-        try {
-            String markets = String.join(",", symbols.stream()
-                .map(s -> "KRW-" + s.toUpperCase())
-                .toArray(String[]::new));
-            
-            String url = "https://api.upbit.com/v1/ticker?markets=" + markets;
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            for (JsonNode node : root) {
-                String market = node.get("market").asText();
-                String symbol = market.replace("KRW-", "");
-                double price = node.get("trade_price").asDouble();
-                prices.put(symbol, price);
-            }
-        } catch (Exception e) {
-            System.err.println("업비트 가격 조회 실패: " + e.getMessage());
-        }
-        
+        getUpbitTickerData(symbols).forEach((symbol, quote) -> prices.put(symbol, quote.getPrice()));
         return prices;
     }
     
-    // 업비트 가격 및 거래대금 가져오기 (ticker 상세 정보)
-    public Map<String, Map<String, Double>> getUpbitTickerData(List<String> symbols) {
-        Map<String, Map<String, Double>> tickerData = new HashMap<>();
+    // 업비트 가격 및 거래대금 가져오기 (ticker 상세 정보, 실패하거나 서킷이 열려 있으면 빈 맵)
+    public Map<String, TickerQuote> getUpbitTickerData(List<String> symbols) {
+        return fetchNow(SOURCE_UPBIT_TICKER, () -> fetchUpbitTickerData(symbols), Map.of(), false);
+    }
+    
+    private Map<String, TickerQuote> fetchUpbitTickerData(List<String> symbols) throws Exception {
+        String markets = String.join(",", symbols.stream()
+            .map(s -> "KRW-" + s.toUpperCase())
+            .toArray(String[]::new));
         
-        try {
-            String markets = String.join(",", symbols.stream()
-                .map(s -> "KRW-" + s.toUpperCase())
-                .toArray(String[]::new));
-            
-            String url = "https://api.upbit.com/v1/ticker?markets=" + markets;
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            for (JsonNode node : root) {
-                String market = node.get("market").asText();
-                String symbol = market.replace("KRW-", "");
-                
-                Map<String, Double> data = new HashMap<>();
-                data.put("price", node.get("trade_price").asDouble());
-                data.put("volume24h", node.get("acc_trade_price_24h").asDouble());  // 24시간 거래대금
-                
-                tickerData.put(symbol, data);
-            }
-        } catch (Exception e) {
-            System.err.println("업비트 ticker 조회 실패: " + e.getMessage());
-        }
+        String url = upstreamEndpoints.upbit("/v1/ticker?markets=" + markets);
+        return getPayload(SOURCE_UPBIT_TICKER, url, payloadParser::parseUpbitTicker);
+    }
+    
+    // 빗썸 가격 가져오기 (실패하면 마지막 성공 값)
+    public Map<String, Double> getBithumbPrices() {
+        Map<String, Double> prices = new HashMap<>();
+        fetchNow(SOURCE_BITHUMB_TICKER, this::fetchBithumbTickerData, Map.<String, TickerQuote>of(), true)
+            .forEach((symbol, quote) -> prices.put(symbol, quote.getPrice()));
+        return prices;
+    }
+    
+    // 빗썸 가격 및 거래대금 가져오기 (ticker 상세 정보, 실시간 보정용이므로 실패하면 이전 값 대신 빈 맵)
+    public Map<String, TickerQuote> getBithumbTickerData() {
+        return fetchNow(SOURCE_BITHUMB_TICKER, this::fetchBithumbTickerData, Map.of(), false);
+    }
+    
+    private Map<String, TickerQuote> fetchBithumbTickerData() throws Exception {
+        // 응답이 크므로 트리로 만들지 않고 스트림에서 바로 파싱
+        String url = upstreamEndpoints.bithumb("/public/ticker/ALL_KRW");
+        Map<String, TickerQuote> tickerData = getPayload(SOURCE_BITHUMB_TICKER, url, payloadParser::parseBithumbTicker);
         
+        // 목록에 없는 코인이 있으면 빗썸 마켓 정보 갱신 요청
+        marketRegistry.reportBithumbSymbols(tickerData.keySet());
         return tickerData;
     }
     
-    // 빗썸 가격 가져오기
-    public Map<String, Double> getBithumbPrices() {
+    // 바이낸스 가격 가져오기 (전체 ticker 한 번 조회 후 필요한 코인만 추출)
+    public Map<String, Double> getBinancePrices(List<String> symbols) {
         Map<String, Double> prices = new HashMap<>();
+        Map<String, Double> allPrices =
+            fetchNow(SOURCE_BINANCE_TICKER, this::fetchAllBinancePrices, Map.<String, Double>of(), true);
         
-        try {
-            String url = "https://api.bithumb.com/public/ticker/ALL_KRW";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
+        for (String symbol : symbols) {
+            String upperSymbol = symbol.toUpperCase();
             
-            if ("0000".equals(root.get("status").asText())) {
-                JsonNode data = root.get("data");
-                
-                data.fieldNames().forEachRemaining(symbol -> {
-                    if (!"date".equals(symbol)) {
-                        JsonNode coinData = data.get(symbol);
-                        if (coinData != null && coinData.has("closing_price")) {
-                            String priceStr = coinData.get("closing_price").asText();
-                            try {
-                                double price = Double.parseDouble(priceStr);
-                                prices.put(symbol, price);
-                            } catch (NumberFormatException e) {
-                                // 가격 변환 실패 시 무시
-                            }
-                        }
-                    }
-                });
+            // USDT는 스테이블코인이므로 1달러로 고정
+            if (upperSymbol.equals("USDT")) {
+                prices.put("USDT", 1.0);
+                continue;
+            }
+            
+            Double price = allPrices.get(upperSymbol);
+            if (price != null) {
+                prices.put(upperSymbol, price);
             }
-        } catch (Exception e) {
-            System.err.println("빗썸 가격 조회 실패: " + e.getMessage());
         }
         
         return prices;
     }
     
-    // 빗썸 가격 및 거래대금 가져오기 (ticker 상세 정보)
-    public Map<String, Map<String, Double>> getBithumbTickerData() {
-        Map<String, Map<String, Double>> tickerData = new HashMap<>();
+    // 바이낸스 전체 USDT 마켓 가격 가져오기 (심볼 -> 가격, 거래 중인 마켓만, 실시간 보정용이므로 실패하면 빈 맵)
+    public Map<String, Double> getAllBinancePrices() {
+        return fetchNow(SOURCE_BINANCE_TICKER, this::fetchAllBinancePrices, Map.of(), false);
+    }
+    
+    private Map<String, Double> fetchAllBinancePrices() throws Exception {
+        Set<String> tradingSymbols = marketRegistry.getBinanceTradingPairs();
+        Set<String> untrackedPairs = new HashSet<>();
         
-        try {
-            String url = "https://api.bithumb.com/public/ticker/ALL_KRW";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            if ("0000".equals(root.get("status").asText())) {
-                JsonNode data = root.get("data");
-                
-                data.fieldNames().forEachRemaining(symbol -> {
-                    if (!"date".equals(symbol)) {
-                        JsonNode coinData = data.get(symbol);
-                        if (coinData != null && coinData.has("closing_price")) {
-                            try {
-                                Map<String, Double> coinTickerData = new HashMap<>();
-                                coinTickerData.put("price", Double.parseDouble(coinData.get("closing_price").asText()));
-                                
-                                // 24시간 거래대금 계산 (거래량 * 가격)
-                                if (coinData.has("units_traded_24H") && coinData.has("closing_price")) {
-                                    double volume = Double.parseDouble(coinData.get("units_traded_24H").asText());
-                                    double price = Double.parseDouble(coinData.get("closing_price").asText());
-                                    coinTickerData.put("volume24h", volume * price);
-                                }
-                                
-                                tickerData.put(symbol, coinTickerData);
-                            } catch (NumberFormatException e) {
-                                // 변환 실패 시 무시
-                            }
-                        }
-                    }
-                });
+        // 심볼 파라미터 없이 호출하면 전체 마켓 가격을 한 번에 반환
+        String url = upstreamEndpoints.binance("/api/v3/ticker/price");
+        Map<String, Double> prices = getPayload(SOURCE_BINANCE_TICKER, url,
+            body -> payloadParser.parseBinanceUsdtPrices(body, tradingSymbols, untrackedPairs));
+        
+        // 처음 보는 마켓이 있으면 심볼 목록 갱신 요청
+        marketRegistry.reportBinancePairs(untrackedPairs);
+        
+        // USDT는 스테이블코인이므로 1달러로 고정
+        prices.put("USDT", 1.0);
+        return prices;
+    }
+    
+    // 환율 가져오기 (실패하면 마지막 성공 값, 한 번도 성공하지 못했으면 기본값)
+    public double getExchangeRate() {
+        return fetchNow(SOURCE_EXCHANGE_RATE, this::fetchExchangeRate, DEFAULT_EXCHANGE_RATE, true);
+    }
+    
+    // 소스의 마지막 조회 상태 (조회한 적 없으면 null)
+    public SourceStatus getLastStatus(String source) {
+        return lastStatuses.get(source);
+    }
+    
+    // 소스별 서킷 브레이커 상태 (/api/premium/status용)
+    public Map<String, Map<String, Object>> getCircuitStatus() {
+        Map<String, Map<String, Object>> status = new LinkedHashMap<>();
+        for (String source : SOURCES) {
+            SourceCircuitBreaker breaker = breakers.get(source);
+            if (breaker != null) {
+                status.put(source, breaker.toMap());
+            }
+        }
+        // 코인 하나 조회용 서킷 브레이커
+        for (String source : SOURCES) {
+            SourceCircuitBreaker breaker = breakers.get(source + COIN_LOOKUP_BREAKER_SUFFIX);
+            if (breaker != null) {
+                status.put(source + COIN_LOOKUP_BREAKER_SUFFIX, breaker.toMap());
             }
-        } catch (Exception e) {
-            System.err.println("빗썸 ticker 조회 실패: " + e.getMessage());
         }
+        return status;
+    }
+    
+    private double fetchExchangeRate() throws Exception {
+        String url = upstreamEndpoints.exchangeRate("/v4/latest/USD");
+        JsonNode root = getPayload(SOURCE_EXCHANGE_RATE, url, objectMapper::readTree);
         
-        return tickerData;
+        return root.get("rates").get("KRW").asDouble();
     }
     
-    // 바이낸스 가격 가져오기
-    public Map<String, Double> getBinancePrices(List<String> symbols) {
-        Map<String, Double> prices = new HashMap<>();
+    // 코인 하나의 김프 계산 (전체 ticker 대신 해당 코인만 거래소별로 조회, 계산할 수 없으면 빈 테이블)
+    // 서킷 브레이커는 코인 조회용을 따로 쓰고, 이동 통계에는 반영하지 않음 (정기 갱신 결과만 통계에 넣음)
+    public PremiumTable fetchCoinPremium(String symbol, double exchangeRate) {
+        String coin = symbol.toUpperCase();
+        Map<String, SourceStatus> statuses = new ConcurrentHashMap<>();
         
-        // 먼저 바이낸스의 모든 심볼 가져오기
-        Set<String> binanceSymbols = getBinanceSymbols();
+        // 상장되지 않은 거래소는 조회하지 않음 (없는 마켓 응답이 코인 조회용 서킷 브레이커 실패로 쌓이지 않도록)
+        CompletableFuture<Map<String, TickerQuote>> upbitTickerFuture =
+            marketRegistry.getUpbitListings().containsKey(coin)
+                ? fetchCoinSource(SOURCE_UPBIT_TICKER, () -> fetchUpbitTickerData(List.of(coin)), statuses)
+                : CompletableFuture.completedFuture(Map.of());
+        CompletableFuture<Map<String, TickerQuote>> bithumbTickerFuture =
+            marketRegistry.getBithumbListings().containsKey(coin)
+                ? fetchCoinSource(SOURCE_BITHUMB_TICKER, () -> fetchBithumbTickerData(coin), statuses)
+                : CompletableFuture.completedFuture(Map.of());
+        CompletableFuture<Map<String, Double>> binancePriceFuture =
+            fetchCoinSource(SOURCE_BINANCE_TICKER, () -> fetchBinancePrice(coin), statuses);
         
-        for (String symbol : symbols) {
-            try {
-                // USDT는 스테이블코인이므로 1달러로 고정
-                if (symbol.equalsIgnoreCase("USDT")) {
-                    prices.put("USDT", 1.0);
-                    continue;
-                }
-                
-                // 바이낸스에 해당 심볼이 있는지 확인
-                String tradingPair = symbol.toUpperCase() + "USDT";
-                if (!binanceSymbols.contains(tradingPair)) {
-                    continue;
-                }
-                
-                String url = "https://api.binance.com/api/v3/ticker/price?symbol=" + tradingPair;
-                String response = restTemplate.getForObject(url, String.class);
-                JsonNode root = objectMapper.readTree(response);
-                
-                double price = root.get("price").asDouble();
-                prices.put(symbol.toUpperCase(), price);
-            } catch (Exception e) {
-                // 개별 코인 조회 실패 시 무시하고 계속
-                System.err.println("바이낸스 " + symbol + " 가격 조회 실패: " + e.getMessage());
-            }
+        Map<String, TickerQuote> bithumbTickerData = bithumbTickerFuture.join();
+        Map<String, TickerQuote> upbitTickerData = upbitTickerFuture.join();
+        Map<String, Double> binancePrices = binancePriceFuture.join();
+        SourceStatus exchangeRateStatus = lastStatuses.get(SOURCE_EXCHANGE_RATE);
+        if (exchangeRateStatus != null) {
+            statuses.put(SOURCE_EXCHANGE_RATE, exchangeRateStatus);
         }
-        
-        return prices;
+        return buildPremiumTable(exchangeRate, List.of(coin), bithumbTickerData, upbitTickerData, binancePrices,
+            statuses, false);
     }
     
-    // 바이낸스 심볼 리스트 가져오기
-    private Set<String> getBinanceSymbols() {
-        Set<String> symbols = new HashSet<>();
-        try {
-            String url = "https://api.binance.com/api/v3/exchangeInfo";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode symbolsNode = root.get("symbols");
-            
-            for (JsonNode symbolNode : symbolsNode) {
-                String symbol = symbolNode.get("symbol").asText();
-                String status = symbolNode.get("status").asText();
-                if ("TRADING".equals(status)) {
-                    symbols.add(symbol);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("바이낸스 심볼 리스트 조회 실패: " + e.getMessage());
-            // 실패 시 주요 코인만 반환
-            return Set.of("BTCUSDT", "ETHUSDT", "SOLUSDT", "XRPUSDT", "ADAUSDT", 
-                         "DOGEUSDT", "AVAXUSDT", "DOTUSDT", "MATICUSDT");
+    private <T> CompletableFuture<Map<String, T>> fetchCoinSource(String source, Callable<Map<String, T>> fetcher,
+                                                                   Map<String, SourceStatus> statuses) {
+        return fetchSource(source, source + COIN_LOOKUP_BREAKER_SUFFIX, fetcher, Map.of(), statuses, false);
+    }
+    
+    // 빗썸 코인 하나의 ticker (현재가 + 거래대금, 없는 코인이면 빈 맵)
+    private Map<String, TickerQuote> fetchBithumbTickerData(String symbol) throws Exception {
+        String url = upstreamEndpoints.bithumb("/public/ticker/" + symbol + "_KRW");
+        JsonNode data = getPayload(SOURCE_BITHUMB_TICKER, url, objectMapper::readTree).path("data");
+        
+        double closingPrice = data.path("closing_price").asDouble(Double.NaN);
+        if (!(closingPrice > 0)) {
+            return Map.of();
         }
-        return symbols;
+        double unitsTraded = data.path("units_traded_24H").asDouble(Double.NaN);
+        return Map.of(symbol, new TickerQuote(closingPrice, unitsTraded * closingPrice));
     }
     
-    // 환율 가져오기
-    public double getExchangeRate() {
-        try {
-            String url = "https://api.exchangerate-api.com/v4/latest/USD";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            return root.get("rates").get("KRW").asDouble();
-        } catch (Exception e) {
-            System.err.println("환율 조회 실패: " + e.getMessage());
-            return 1390.0; // 기본값
+    // 바이낸스 코인 하나의 USDT 마켓 가격 (없는 마켓이면 빈 맵)
+    private Map<String, Double> fetchBinancePrice(String symbol) throws Exception {
+        // USDT는 스테이블코인이므로 1달러로 고정
+        if (symbol.equals("USDT")) {
+            return Map.of("USDT", 1.0);
+        }
+        // 거래 중인 마켓이 아니면 호출하지 않음 (없는 심볼은 400 응답)
+        if (!marketRegistry.getBinanceTradingPairs().contains(symbol + "USDT")) {
+            return Map.of();
         }
+        
+        String url = upstreamEndpoints.binance("/api/v3/ticker/price?symbol=" + symbol + "USDT");
+        double price = getPayload(SOURCE_BINANCE_TICKER, url, objectMapper::readTree).path("price").asDouble(Double.NaN);
+        return price > 0 ? Map.of(symbol, price) : Map.of();
+    }
+    
+    // 외부 GET 호출 후 응답 본문 파싱 (소스별 본문 크기, 읽기+파싱 시간 기록)
+    private <T> T getPayload(String source, String url, PayloadReader<T> reader) {
+        return restTemplate.execute(url, HttpMethod.GET, null, response -> {
+            CountingInputStream body = new CountingInputStream(response.getBody());
+            long startedAt = System.nanoTime();
+            T result = reader.read(body);
+            pipelineMetrics.recordPayload(source, body.getCount(), System.nanoTime() - startedAt);
+            return result;
+        });
+    }
+    
+    @FunctionalInterface
+    private interface PayloadReader<T> {
+        T read(InputStream body) throws IOException;
     }
     
     // 전체 김프 데이터 가져오기
     public Map<String, Map<String, Object>> getAllPremiumData() {
-        Map<String, Map<String, Object>> result = new HashMap<>();
-        
-        // 환율 가져오기
-        double exchangeRate = getExchangeRate();
+        return fetchPremiumData().getTable().toMap();
+    }
+    
+    // 전체 김프 데이터 가져오기 (소스별 조회 상태 포함)
+    // 각 거래소 조회는 병렬로 실행되며, 소스별 제한 시간을 넘기면 해당 소스 없이 부분 결과를 만든다
+    public PremiumFetchResult fetchPremiumData() {
+        Map<String, SourceStatus> statuses = new ConcurrentHashMap<>();
         
-        // 업비트와 빗썸 마켓 정보 가져오기 (한글명 포함)
-        Map<String, Map<String, String>> upbitMarketInfo = getUpbitMarketInfo();
-        Map<String, Map<String, String>> bithumbMarketInfo = getBithumbMarketInfo();
+        CompletableFuture<Double> exchangeRateFuture =
+            fetchSource(SOURCE_EXCHANGE_RATE, this::fetchExchangeRate, DEFAULT_EXCHANGE_RATE, statuses);
         
-        // 각 거래소별 전체 코인 리스트 가져오기
-        List<String> upbitMarkets = getUpbitMarketList();
-        Map<String, Map<String, Double>> bithumbTickerData = getBithumbTickerData();
+        // 업비트 코인 리스트는 마켓 메타데이터에서 조회 (매 갱신마다 market/all을 받지 않음)
+        List<String> upbitMarkets = marketRegistry.getUpbitSymbols();
         
-        // 업비트와 빗썸 코인 합치기 (중복 제거)
-        Set<String> allKoreanCoins = new HashSet<>(upbitMarkets);
-        allKoreanCoins.addAll(bithumbTickerData.keySet());
+        CompletableFuture<Map<String, TickerQuote>> bithumbTickerFuture =
+            fetchSource(SOURCE_BITHUMB_TICKER, this::fetchBithumbTickerData, Map.of(), statuses);
         
         // 업비트 ticker 데이터 가져오기 (가격 + 거래대금)
-        Map<String, Map<String, Double>> upbitTickerData = getUpbitTickerData(upbitMarkets);
+        CompletableFuture<Map<String, TickerQuote>> upbitTickerFuture =
+            fetchSource(SOURCE_UPBIT_TICKER, () -> fetchUpbitTickerData(upbitMarkets), Map.of(), statuses);
+        
+        // 바이낸스 가격 가져오기 (전체 ticker 1회 조회)
+        CompletableFuture<Map<String, Double>> binancePricesFuture =
+            fetchSource(SOURCE_BINANCE_TICKER, this::fetchAllBinancePrices, Map.of(), statuses);
+        
+        double exchangeRate = exchangeRateFuture.join();
+        Map<String, TickerQuote> bithumbTickerData = bithumbTickerFuture.join();
+        Map<String, TickerQuote> upbitTickerData = upbitTickerFuture.join();
+        Map<String, Double> binancePrices = binancePricesFuture.join();
         
-        // 빗썸 가격만 추출 (이전 호환성 유지)
-        Map<String, Double> bithumbPrices = new HashMap<>();
-        bithumbTickerData.forEach((symbol, data) -> {
-            if (data.containsKey("price")) {
-                bithumbPrices.put(symbol, data.get("price"));
+        long computeStartedAt = System.nanoTime();
+        PremiumTable table = buildPremiumTable(
+            exchangeRate,
+            upbitMarkets,
+            bithumbTickerData,
+            upbitTickerData,
+            binancePrices,
+            statuses);
+        pipelineMetrics.recordCompute(System.nanoTime() - computeStartedAt);
+        
+        // 소스 상태를 고정된 순서로 정리
+        Map<String, SourceStatus> orderedStatuses = new LinkedHashMap<>();
+        for (String source : SOURCES) {
+            SourceStatus status = statuses.get(source);
+            if (status != null) {
+                orderedStatuses.put(source, status);
             }
-        });
+        }
         
-        // 업비트 가격만 추출 (이전 호환성 유지)
-        Map<String, Double> upbitPrices = new HashMap<>();
-        upbitTickerData.forEach((symbol, data) -> {
-            if (data.containsKey("price")) {
-                upbitPrices.put(symbol, data.get("price"));
+        // 매 갱신마다 출력하지 않고 코인 수가 바뀔 때만
+        int coinCount = table.size();
+        if (loggedCoinCount.getAndSet(coinCount) != coinCount) {
+            System.out.println("김프 계산 완료: " + coinCount + "개 코인 (업비트/빗썸 + 바이낸스)");
+        }
+        return new PremiumFetchResult(table, orderedStatuses);
+    }
+    
+    private <T> CompletableFuture<T> fetchSource(String source, Callable<T> fetcher, T fallback,
+                                                 Map<String, SourceStatus> statuses) {
+        return fetchSource(source, fetcher, fallback, statuses, true);
+    }
+    
+    private <T> CompletableFuture<T> fetchSource(String source, Callable<T> fetcher, T fallback,
+                                                 Map<String, SourceStatus> statuses, boolean keepLastGood) {
+        return fetchSource(source, source, fetcher, fallback, statuses, keepLastGood);
+    }
+    
+    // 단일 소스 비동기 조회 (상태 기록)
+    // 제한 시간 초과, 실패, 서킷 열림, 요청 한도 대기면 마지막 성공 값을 바로 사용 (keepLastGood이 아니거나 값이 없으면 기본값)
+    // 제한 시간을 넘긴 조회는 취소하지 않고 끝까지 진행해, 성공하면 다음 조회부터 그 값을 사용 (stale-while-revalidate)
+    // keepLastGood: 소스 전체 데이터 조회일 때만 true (일부 코인 조회 결과를 전체 대신 쓰지 않도록)
+    // breakerKey: 실패를 셀 서킷 브레이커 (보통 source와 같음)
+    private <T> CompletableFuture<T> fetchSource(String source, String breakerKey, Callable<T> fetcher, T fallback,
+                                                 Map<String, SourceStatus> statuses, boolean keepLastGood) {
+        // 요청 한도 대기는 거래소 쪽 제한이므로 서킷 브레이커 실패로 세지 않음
+        if (!rateLimitTracker.allows(SOURCE_EXCHANGES.get(source), System.currentTimeMillis())) {
+            pipelineMetrics.recordFetch(source, PipelineMetrics.OUTCOME_RATE_LIMITED, 0);
+            return CompletableFuture.completedFuture(
+                useLastGood(source, SourceStatus.rateLimited(), fallback, statuses, keepLastGood));
+        }
+        
+        SourceCircuitBreaker breaker = getBreaker(breakerKey);
+        if (!breaker.tryAcquire(System.currentTimeMillis())) {
+            pipelineMetrics.recordFetch(source, PipelineMetrics.OUTCOME_CIRCUIT_OPEN, 0);
+            return CompletableFuture.completedFuture(
+                useLastGood(source, SourceStatus.circuitOpen(), fallback, statuses, keepLastGood));
+        }
+        
+        long timeoutMs = getSourceTimeoutMs(source);
+        long startedAt = System.nanoTime();
+        AtomicBoolean failureCounted = new AtomicBoolean();
+        
+        CompletableFuture<T> call = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return fetcher.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, fetchExecutor);
+        call.whenComplete((value, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+                if (keepLastGood) {
+                    lastGoodValues.put(source, new LastGood(value, System.currentTimeMillis()));
+                }
+            } else if (failureCounted.compareAndSet(false, true)) {
+                breaker.onFailure(System.currentTimeMillis());
             }
         });
         
-        // 바이낸스 가격 가져오기 (한국 거래소에 있는 코인들만)
-        Map<String, Double> binancePrices = getBinancePrices(new ArrayList<>(allKoreanCoins));
+        // 제한 시간은 복사본에만 걸어 원래 조회는 계속 진행
+        return call.copy()
+            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+            .handle((value, error) -> {
+                long elapsedNanos = System.nanoTime() - startedAt;
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+                if (error == null) {
+                    pipelineMetrics.recordFetch(source, PipelineMetrics.OUTCOME_OK, elapsedNanos);
+                    record(source, SourceStatus.ok(elapsedMs), statuses);
+                    return value;
+                }
+                
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                if (cause instanceof TimeoutException) {
+                    System.err.println(source + " 조회 제한 시간 초과: " + timeoutMs + "ms");
+                    pipelineMetrics.recordFetch(source, PipelineMetrics.OUTCOME_TIMEOUT, elapsedNanos);
+                    if (failureCounted.compareAndSet(false, true)) {
+                        breaker.onFailure(System.currentTimeMillis());
+                    }
+                    return useLastGood(source, SourceStatus.timeout(elapsedMs), fallback, statuses, keepLastGood);
+                }
+                System.err.println(source + " 조회 실패: " + cause.getMessage());
+                pipelineMetrics.recordFetch(source, PipelineMetrics.OUTCOME_ERROR, elapsedNanos);
+                return useLastGood(source, SourceStatus.error(elapsedMs, cause.getMessage()), fallback, statuses,
+                    keepLastGood);
+            });
+    }
+    
+    // 동기 조회 (fetchSource와 같은 제한 시간, 서킷 브레이커, 마지막 성공 값 적용)
+    private <T> T fetchNow(String source, Callable<T> fetcher, T fallback, boolean keepLastGood) {
+        return fetchSource(source, fetcher, fallback, new ConcurrentHashMap<>(), keepLastGood).join();
+    }
+    
+    // 조회하지 못한 경우 사용할 값 (마지막 성공 값이 있으면 그 값과 조회 시각을 상태에 기록)
+    @SuppressWarnings("unchecked")
+    private <T> T useLastGood(String source, SourceStatus status, T fallback, Map<String, SourceStatus> statuses,
+                              boolean keepLastGood) {
+        LastGood lastGood = keepLastGood ? lastGoodValues.get(source) : null;
+        if (lastGood == null) {
+            record(source, status, statuses);
+            return fallback;
+        }
+        record(source, status.withAsOf(lastGood.fetchedAt), statuses);
+        return (T) lastGood.value;
+    }
+    
+    private void record(String source, SourceStatus status, Map<String, SourceStatus> statuses) {
+        statuses.put(source, status);
+        lastStatuses.put(source, status);
+    }
+    
+    // 소스별 서킷 브레이커 (kp.fetch.breaker.failure-threshold번 연속 실패하면 kp.fetch.breaker.open-ms 동안 차단)
+    private SourceCircuitBreaker getBreaker(String source) {
+        SourceCircuitBreaker breaker = breakers.get(source);
+        if (breaker == null) {
+            breaker = breakers.computeIfAbsent(source, key -> new SourceCircuitBreaker(key,
+                environment.getProperty("kp.fetch.breaker.failure-threshold", Integer.class, 3),
+                environment.getProperty("kp.fetch.breaker.open-ms", Long.class, 30000L)));
+        }
+        return breaker;
+    }
+    
+    // 소스별 제한 시간 (kp.fetch.timeout-ms.<source>, 없으면 kp.fetch.timeout-ms)
+    private long getSourceTimeoutMs(String source) {
+        long defaultTimeoutMs = environment.getProperty("kp.fetch.timeout-ms", Long.class, 5000L);
+        return environment.getProperty("kp.fetch.timeout-ms." + source, Long.class, defaultTimeoutMs);
+    }
+    
+    // 조회된 거래소 데이터로 코인별 김프 테이블 생성 (벤치마크에서도 직접 호출)
+    PremiumTable buildPremiumTable(
+            double exchangeRate,
+            List<String> upbitMarkets,
+            Map<String, TickerQuote> bithumbTickerData,
+            Map<String, TickerQuote> upbitTickerData,
+            Map<String, Double> binancePrices,
+            Map<String, SourceStatus> statuses) {
+        return buildPremiumTable(exchangeRate, upbitMarkets, bithumbTickerData, upbitTickerData, binancePrices,
+            statuses, true);
+    }
+    
+    // recordStats: 이동 통계 반영 여부 (코인 하나 조회는 false)
+    private PremiumTable buildPremiumTable(
+            double exchangeRate,
+            List<String> upbitMarkets,
+            Map<String, TickerQuote> bithumbTickerData,
+            Map<String, TickerQuote> upbitTickerData,
+            Map<String, Double> binancePrices,
+            Map<String, SourceStatus> statuses,
+            boolean recordStats) {
+        // 업비트와 빗썸 코인 합치기 (중복 제거)
+        Set<String> allKoreanCoins = new HashSet<>();
+        for (String coin : upbitMarkets) {
+            allKoreanCoins.add(coin.toUpperCase());
+        }
+        for (String coin : bithumbTickerData.keySet()) {
+            allKoreanCoins.add(coin.toUpperCase());
+        }
+        
+        PremiumTable.Builder table = PremiumTable.builder(exchangeRate, allKoreanCoins.size());
+        long calculatedAt = System.currentTimeMillis();
+        
+        // 소스별 기준 시각과 지연 여부 (조회에 실패해 이전 값을 쓰면 stale)
+        SourceStatus upbitStatus = statuses.get(SOURCE_UPBIT_TICKER);
+        SourceStatus bithumbStatus = statuses.get(SOURCE_BITHUMB_TICKER);
+        SourceStatus binanceStatus = statuses.get(SOURCE_BINANCE_TICKER);
+        SourceStatus exchangeRateStatus = statuses.get(SOURCE_EXCHANGE_RATE);
+        if (exchangeRateStatus != null) {
+            table.exchangeRateFreshness(exchangeRateStatus.getAsOf(), exchangeRateStatus.isStale());
+        }
         
         // 김프 계산 - 바이낸스에 있는 코인만 처리
         for (String coin : allKoreanCoins) {
-            Double binancePrice = binancePrices.get(coin.toUpperCase());
+            Double binancePrice = binancePrices.get(coin);
             
             // 바이낸스에 없는 코인은 제외 (김프 계산 불가)
             if (binancePrice == null || binancePrice == 0) {
                 continue;
             }
             
-            Double upbitPrice = upbitPrices.get(coin.toUpperCase());
-            Double bithumbPrice = bithumbPrices.get(coin.toUpperCase());
+            TickerQuote upbitQuote = upbitTickerData.get(coin);
+            TickerQuote bithumbQuote = bithumbTickerData.get(coin);
+            double upbitPrice = upbitQuote != null ? upbitQuote.getPrice() : Double.NaN;
+            double bithumbPrice = bithumbQuote != null ? bithumbQuote.getPrice() : Double.NaN;
             
             // 업비트와 빗썸 둘 다 없으면 제외
-            if ((upbitPrice == null || upbitPrice == 0) && 
-                (bithumbPrice == null || bithumbPrice == 0)) {
+            if (!(upbitPrice > 0) && !(bithumbPrice > 0)) {
                 continue;
             }
             
-            Map<String, Object> coinData = new HashMap<>();
-            coinData.put("upbit", upbitPrice);
-            coinData.put("bithumb", bithumbPrice);
-            coinData.put("binance", binancePrice);
-            coinData.put("exchangeRate", exchangeRate);
-            
-            // 거래대금 정보 추가
-            double totalVolume24h = 0.0;
-            
-            // 업비트 거래대금
-            if (upbitTickerData.containsKey(coin.toUpperCase())) {
-                Map<String, Double> upbitData = upbitTickerData.get(coin.toUpperCase());
-                if (upbitData.containsKey("volume24h")) {
-                    double upbitVolume = upbitData.get("volume24h");
-                    coinData.put("upbitVolume24h", upbitVolume);
-                    totalVolume24h += upbitVolume;
-                }
-            }
-            
-            // 빗썸 거래대금
-            if (bithumbTickerData.containsKey(coin.toUpperCase())) {
-                Map<String, Double> bithumbData = bithumbTickerData.get(coin.toUpperCase());
-                if (bithumbData.containsKey("volume24h")) {
-                    double bithumbVolume = bithumbData.get("volume24h");
-                    coinData.put("bithumbVolume24h", bithumbVolume);
-                    totalVolume24h += bithumbVolume;
-                }
-            }
+            // 거래대금 (없으면 NaN)
+            double upbitVolume = upbitQuote != null ? upbitQuote.getVolume24h() : Double.NaN;
+            double bithumbVolume = bithumbQuote != null ? bithumbQuote.getVolume24h() : Double.NaN;
             
-            // 합계 거래대금 (시가총액 대용치)
-            if (totalVolume24h > 0) {
-                coinData.put("totalVolume24h", totalVolume24h);
-            }
+            // 거래소별 김프 계산 (해당 거래소에 있는 경우만)
+            double upbitPremium = upbitPrice > 0
+                ? calculatePremium(upbitPrice, binancePrice, exchangeRate) : Double.NaN;
+            double bithumbPremium = bithumbPrice > 0
+                ? calculatePremium(bithumbPrice, binancePrice, exchangeRate) : Double.NaN;
             
-            // 코인 이름 정보 추가 (업비트 우선, 없으면 빗썸)
-            if (upbitMarketInfo.containsKey(coin.toUpperCase())) {
-                Map<String, String> info = upbitMarketInfo.get(coin.toUpperCase());
-                coinData.put("koreanName", info.get("korean_name"));
-                coinData.put("englishName", info.get("english_name"));
-            } else if (bithumbMarketInfo.containsKey(coin.toUpperCase())) {
-                Map<String, String> info = bithumbMarketInfo.get(coin.toUpperCase());
-                coinData.put("koreanName", info.get("korean_name"));
-                coinData.put("englishName", info.get("english_name"));
+            // 이동 통계 반영
+            if (recordStats) {
+                premiumStatsEngine.record(coin, PremiumField.UPBIT_PREMIUM, upbitPremium, calculatedAt);
+                premiumStatsEngine.record(coin, PremiumField.BITHUMB_PREMIUM, bithumbPremium, calculatedAt);
             }
             
-            // 업비트 김프 계산 (업비트에 있는 경우만)
-            if (upbitPrice != null && upbitPrice > 0) {
-                double upbitPremium = calculatePremium(upbitPrice, binancePrice, exchangeRate);
-                coinData.put("upbitPremium", upbitPremium);
-            }
+            // 코인 이름 정보 (업비트 우선, 없으면 빗썸)
+            MarketListing listing = marketRegistry.findListing(coin);
             
-            // 빗썸 김프 계산 (빗썸에 있는 경우만)
-            if (bithumbPrice != null && bithumbPrice > 0) {
-                double bithumbPremium = calculatePremium(bithumbPrice, binancePrice, exchangeRate);
-                coinData.put("bithumbPremium", bithumbPremium);
-            }
-            
-            result.put(coin.toUpperCase(), coinData);
+            table.add(coin, upbitPrice, bithumbPrice, binancePrice, upbitVolume, bithumbVolume,
+                upbitPremium, bithumbPremium,
+                listing != null ? listing.getKoreanName() : null,
+                listing != null ? listing.getEnglishName() : null);
+            table.freshness(asOf(upbitStatus), asOf(bithumbStatus), asOf(binanceStatus),
+                isStale(upbitStatus), isStale(bithumbStatus), isStale(binanceStatus));
         }
         
-        System.out.println("김프 계산 완료: " + result.size() + "개 코인 (업비트/빗썸 + 바이낸스)");
-        return result;
+        return table.build();
+    }
+    
+    private static long asOf(SourceStatus status) {
+        return status != null ? status.getAsOf() : 0;
+    }
+    
+    private static boolean isStale(SourceStatus status) {
+        return status != null && status.isStale();
     }
     
     // 업비트 마켓 리스트 가져오기
     public List<String> getUpbitMarketList() {
-        List<String> markets = new ArrayList<>();
-        try {
-            String url = "https://api.upbit.com/v1/market/all";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            for (JsonNode node : root) {
-                String market = node.get("market").asText();
-                if (market.startsWith("KRW-")) {
-                    String symbol = market.replace("KRW-", "");
-                    markets.add(symbol);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("업비트 마켓 리스트 조회 실패: " + e.getMessage());
-            // 실패 시 기본 코인 목록 반환
-            return List.of("BTC", "ETH", "USDT", "SOL", "XRP", "ADA", "DOGE", "AVAX", "DOT", "MATIC");
-        }
-        return markets;
+        return marketRegistry.getUpbitSymbols();
     }
     
     // 업비트 마켓 정보 가져오기 (한글명 포함)
     public Map<String, Map<String, String>> getUpbitMarketInfo() {
-        Map<String, Map<String, String>> marketInfo = new HashMap<>();
-        try {
-            String url = "https://api.upbit.com/v1/market/all";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            for (JsonNode node : root) {
-                String market = node.get("market").asText();
-                if (market.startsWith("KRW-")) {
-                    String symbol = market.replace("KRW-", "");
-                    Map<String, String> info = new HashMap<>();
-                    info.put("korean_name", node.get("korean_name").asText());
-                    info.put("english_name", node.get("english_name").asText());
-                    marketInfo.put(symbol, info);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("업비트 마켓 정보 조회 실패: " + e.getMessage());
-        }
-        return marketInfo;
+        return toMarketInfo(marketRegistry.getUpbitListings());
     }
     
-// 빗썸 마켓 정보 가져오기 (한글명 포함)
+    // 빗썸 마켓 정보 가져오기 (한글명 포함)
     public Map<String, Map<String, String>> getBithumbMarketInfo() {
+        return toMarketInfo(marketRegistry.getBithumbListings());
+    }
+    
+    // 상장 정보를 기존 응답 형식(korean_name/english_name)으로 변환
+    private Map<String, Map<String, String>> toMarketInfo(Map<String, MarketListing> listings) {
         Map<String, Map<String, String>> marketInfo = new HashMap<>();
-        try {
-            String url = "https://api.bithumb.com/v1/market/all";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            for (JsonNode node : root) {
-                String market = node.get("market").asText();
-                if (market.startsWith("KRW-")) {
-                    String symbol = market.replace("KRW-", "");
-                    Map<String, String> info = new HashMap<>();
-                    info.put("korean_name", node.get("korean_name").asText());
-                    info.put("english_name", node.get("english_name").asText());
-                    marketInfo.put(symbol, info);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("빗썸 마켓 정보 조회 실패: " + e.getMessage());
-        }
+        listings.forEach((symbol, listing) -> {
+            Map<String, String> info = new HashMap<>();
+            info.put("korean_name", listing.getKoreanName());
+            info.put("english_name", listing.getEnglishName());
+            marketInfo.put(symbol, info);
+        });
         return marketInfo;
     }
+    
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+    
+    // 소스의 마지막 성공 값과 조회 시각
+    private static class LastGood {
+        final Object value;
+        final long fetchedAt;
+        
+        LastGood(Object value, long fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+    
+    // 조회 스레드 이름 지정 (데몬 스레드)
+    private static class FetchThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "kp-fetch-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// 거래소별 실시간 현재가 테이블
+// 시세가 들어오면 해당 코인의 김프만 다시 계산하고 변경 버전을 올린다
+// 스냅샷 발행은 PremiumSnapshotService가 짧은 주기로 변경분을 모아서 처리
+public class LiveQuoteBoard {
+    
+    private static final int UPBIT = 0;
+    private static final int BITHUMB = 1;
+    private static final int BINANCE = 2;
+    
+    private final KimchiPremiumService premiumService;
+    private final PremiumStatsEngine statsEngine;
+    private final Map<String, LiveQuote> quotes = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile double exchangeRate = Double.NaN;
+    private volatile long exchangeRateAsOf;
+    private volatile boolean exchangeRateStale;
+    
+    public LiveQuoteBoard(KimchiPremiumService premiumService) {
+        this(premiumService, null);
+    }
+    
+    // statsEngine이 있으면 다시 계산한 김프를 이동 통계에 반영
+    public LiveQuoteBoard(KimchiPremiumService premiumService, PremiumStatsEngine statsEngine) {
+        this.premiumService = premiumService;
+        this.statsEngine = statsEngine;
+        
+        // USDT는 스테이블코인이므로 1달러로 고정
+        update("USDT", BINANCE, 1.0, Double.NaN, Long.MAX_VALUE);
+    }
+    
+    // 마지막 변경 버전 (시세가 반영될 때마다 증가)
+    public long getVersion() {
+        return version.get();
+    }
+    
+    public double getExchangeRate() {
+        return exchangeRate;
+    }
+    
+    public int size() {
+        return quotes.size();
+    }
+    
+    public void updateUpbit(String symbol, double price, double volume24h) {
+        update(symbol, UPBIT, price, volume24h, System.currentTimeMillis());
+    }
+    
+    public void updateBithumb(String symbol, double price, double volume24h) {
+        update(symbol, BITHUMB, price, volume24h, System.currentTimeMillis());
+    }
+    
+    public void updateBinance(String symbol, double price, double volume24h) {
+        update(symbol, BINANCE, price, Double.NaN, System.currentTimeMillis());
+    }
+    
+    public void updateExchangeRate(double rate) {
+        updateExchangeRate(rate, System.currentTimeMillis(), false);
+    }
+    
+    // 환율 변경 시 전체 코인 김프 재계산 (asOf: 환율 조회 시각, stale: 조회에 실패해 이전 값을 받았는지)
+    public void updateExchangeRate(double rate, long asOf, boolean stale) {
+        if (!(rate > 0)) {
+            return;
+        }
+        exchangeRateAsOf = asOf;
+        if (stale != exchangeRateStale) {
+            exchangeRateStale = stale;
+            version.incrementAndGet();
+        }
+        if (rate == exchangeRate) {
+            return;
+        }
+        
+        exchangeRate = rate;
+        long changedVersion = version.incrementAndGet();
+        for (Map.Entry<String, LiveQuote> entry : quotes.entrySet()) {
+            LiveQuote quote = entry.getValue();
+            synchronized (quote) {
+                recalculate(entry.getKey(), quote, rate);
+                quote.version = changedVersion;
+            }
+        }
+    }
+    
+    // REST 조회 결과로 보정 (조회 시작 이후 실시간 시세가 들어온 코인은 유지)
+    public void backfillUpbit(Map<String, TickerQuote> tickerData, long fetchStartedAt) {
+        tickerData.forEach((symbol, quote) ->
+            update(symbol, UPBIT, quote.getPrice(), quote.getVolume24h(), fetchStartedAt));
+    }
+    
+    public void backfillBithumb(Map<String, TickerQuote> tickerData, long fetchStartedAt) {
+        tickerData.forEach((symbol, quote) ->
+            update(symbol, BITHUMB, quote.getPrice(), quote.getVolume24h(), fetchStartedAt));
+    }
+    
+    public void backfillBinance(Map<String, Double> prices, long fetchStartedAt) {
+        prices.forEach((symbol, price) -> update(symbol, BINANCE, price, Double.NaN, fetchStartedAt));
+    }
+    
+    public PremiumTable toTable(Function<String, MarketListing> listings) {
+        return toTable(listings, Set.of());
+    }
+    
+    // 현재 시세로 김프 테이블 생성 (바이낸스 가격과 업비트/빗썸 중 하나 이상이 있는 코인만)
+    // 코인별 asOf는 거래소별 마지막 시세 시각, staleExchanges(연결이 끊긴 거래소)의 시세는 stale로 표시
+    public PremiumTable toTable(Function<String, MarketListing> listings, Set<String> staleExchanges) {
+        double rate = exchangeRate;
+        if (Double.isNaN(rate)) {
+            return PremiumTable.empty();
+        }
+        boolean upbitStale = staleExchanges.contains(MarketMetadataRegistry.UPBIT);
+        boolean bithumbStale = staleExchanges.contains(MarketMetadataRegistry.BITHUMB);
+        boolean binanceStale = staleExchanges.contains(MarketMetadataRegistry.BINANCE);
+        
+        PremiumTable.Builder table = PremiumTable.builder(rate, quotes.size())
+            .exchangeRateFreshness(exchangeRateAsOf, exchangeRateStale);
+        quotes.forEach((symbol, quote) -> {
+            synchronized (quote) {
+                if (!(quote.prices[BINANCE] > 0) || (!(quote.prices[UPBIT] > 0) && !(quote.prices[BITHUMB] > 0))) {
+                    return;
+                }
+                
+                MarketListing listing = listings.apply(symbol);
+                table.add(symbol, quote.prices[UPBIT], quote.prices[BITHUMB], quote.prices[BINANCE],
+                    quote.volumes[UPBIT], quote.volumes[BITHUMB], quote.upbitPremium, quote.bithumbPremium,
+                    listing != null ? listing.getKoreanName() : null,
+                    listing != null ? listing.getEnglishName() : null);
+                table.freshness(quote.updatedAt[UPBIT], quote.updatedAt[BITHUMB], asOf(quote.updatedAt[BINANCE]),
+                    upbitStale, bithumbStale, binanceStale);
+            }
+        });
+        return table.build();
+    }
+    
+    private void update(String symbol, int exchange, double price, double volume24h, long asOf) {
+        LiveQuote quote = quotes.computeIfAbsent(symbol, key -> new LiveQuote());
+        synchronized (quote) {
+            // 더 최근 값이 이미 있으면 무시 (REST 보정이 실시간 시세를 덮어쓰지 않도록)
+            if (asOf < quote.updatedAt[exchange]) {
+                return;
+            }
+            if (quote.prices[exchange] == price && Double.compare(quote.volumes[exchange], volume24h) == 0) {
+                quote.updatedAt[exchange] = asOf;
+                return;
+            }
+            
+            quote.prices[exchange] = price;
+            quote.volumes[exchange] = volume24h;
+            quote.updatedAt[exchange] = asOf;
+            
+            // 해당 코인의 김프만 재계산
+            recalculate(symbol, quote, exchangeRate);
+            quote.version = version.incrementAndGet();
+        }
+    }
+    
+    private void recalculate(String symbol, LiveQuote quote, double rate) {
+        double binancePrice = quote.prices[BINANCE];
+        quote.upbitPremium = calculate(quote.prices[UPBIT], binancePrice, rate);
+        quote.bithumbPremium = calculate(quote.prices[BITHUMB], binancePrice, rate);
+        
+        if (statsEngine != null) {
+            long now = System.currentTimeMillis();
+            statsEngine.record(symbol, PremiumField.UPBIT_PREMIUM, quote.upbitPremium, now);
+            statsEngine.record(symbol, PremiumField.BITHUMB_PREMIUM, quote.bithumbPremium, now);
+        }
+    }
+    
+    // 고정 값(USDT)은 시각 없음
+    private static long asOf(long updatedAt) {
+        return updatedAt == Long.MAX_VALUE ? 0 : updatedAt;
+    }
+    
+    private double calculate(double krwPrice, double usdPrice, double rate) {
+        if (!(krwPrice > 0) || !(usdPrice > 0) || !(rate > 0)) {
+            return Double.NaN;
+        }
+        return premiumService.calculatePremium(krwPrice, usdPrice, rate);
+    }
+    
+    // 코인별 거래소 시세 (인덱스: UPBIT, BITHUMB, BINANCE)
+    private static class LiveQuote {
+        final double[] prices = {Double.NaN, Double.NaN, Double.NaN};
+        final double[] volumes = {Double.NaN, Double.NaN, Double.NaN};
+        final long[] updatedAt = new long[3];
+        double upbitPremium = Double.NaN;
+        double bithumbPremium = Double.NaN;
+        long version;
+    }
+}
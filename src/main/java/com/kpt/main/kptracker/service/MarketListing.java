@@ -0,0 +1,27 @@
+package com.kpt.main.kptracker.service;
+
+// 거래소 KRW 마켓 상장 정보 (심볼 + 한글/영문명)
+public final class MarketListing {
+    
+    private final String symbol;
+    private final String koreanName;
+    private final String englishName;
+    
+    public MarketListing(String symbol, String koreanName, String englishName) {
+        this.symbol = symbol;
+        this.koreanName = koreanName;
+        this.englishName = englishName;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public String getKoreanName() {
+        return koreanName;
+    }
+    
+    public String getEnglishName() {
+        return englishName;
+    }
+}
@@ -0,0 +1,301 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 거래소별 마켓 메타데이터 (상장 심볼, 한글/영문명, 바이낸스 거래 중 심볼)
+// 각 거래소 목록은 한 번만 받아 메모리 인덱스로 제공하고, 긴 주기 또는 모르는 심볼이 나타났을 때만 다시 받는다
+@Service
+public class MarketMetadataRegistry {
+    
+    public static final String UPBIT = "upbit";
+    public static final String BITHUMB = "bithumb";
+    public static final String BINANCE = "binance";
+    
+    private static final List<String> DEFAULT_UPBIT_SYMBOLS =
+        List.of("BTC", "ETH", "USDT", "SOL", "XRP", "ADA", "DOGE", "AVAX", "DOT", "MATIC");
+    private static final Set<String> DEFAULT_BINANCE_PAIRS =
+        Set.of("BTCUSDT", "ETHUSDT", "SOLUSDT", "XRPUSDT", "ADAUSDT",
+               "DOGEUSDT", "AVAXUSDT", "DOTUSDT", "MATICUSDT");
+    
+    // 공용 HTTP 전송 계층 (HttpTransportConfig)
+    @Autowired
+    private RestTemplate restTemplate;
+    
+    @Autowired
+    private UpstreamEndpoints upstreamEndpoints;
+    
+    private final ExchangePayloadParser payloadParser = new ExchangePayloadParser();
+    
+    // 모르는 심볼 발견 시 비동기 갱신용
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kp-market-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Value("${kp.markets.min-refresh-interval-ms:60000}")
+    private long minRefreshIntervalMs;
+    
+    private final ExchangeMarkets upbit = new ExchangeMarkets();
+    private final ExchangeMarkets bithumb = new ExchangeMarkets();
+    private final ExchangeMarkets binance = new ExchangeMarkets();
+    
+    // 바이낸스 거래 중(TRADING) 심볼과 상태와 무관한 전체 심볼
+    private volatile Set<String> binanceTradingPairs;
+    private volatile Set<String> binanceKnownPairs = Set.of();
+    
+    // 빗썸 ticker에만 있고 목록에는 없던 심볼 (이미 갱신을 요청한 심볼은 다시 요청하지 않음)
+    private final Set<String> reportedBithumbSymbols = ConcurrentHashMap.newKeySet();
+    
+    // 업비트 KRW 마켓 심볼 목록
+    public List<String> getUpbitSymbols() {
+        Map<String, MarketListing> listings = getUpbitListings();
+        return listings.isEmpty() ? DEFAULT_UPBIT_SYMBOLS : new ArrayList<>(listings.keySet());
+    }
+    
+    // 업비트 KRW 마켓 상장 정보
+    public Map<String, MarketListing> getUpbitListings() {
+        if (upbit.listings == null) {
+            loadIfAbsent(upbit, this::refreshUpbit);
+        } else if (upbit.refreshedAt == 0) {
+            // 이전 조회 실패 또는 스냅샷 파일에서 복원한 목록이면 백그라운드에서 다시 받음
+            refreshAsync(upbit, this::refreshUpbit);
+        }
+        return upbit.listings;
+    }
+    
+    // 빗썸 KRW 마켓 상장 정보
+    public Map<String, MarketListing> getBithumbListings() {
+        if (bithumb.listings == null) {
+            loadIfAbsent(bithumb, this::refreshBithumb);
+        } else if (bithumb.refreshedAt == 0) {
+            // 이전 조회 실패 또는 스냅샷 파일에서 복원한 목록이면 백그라운드에서 다시 받음
+            refreshAsync(bithumb, this::refreshBithumb);
+        }
+        return bithumb.listings;
+    }
+    
+    // 바이낸스 거래 중 심볼 (예: BTCUSDT)
+    public Set<String> getBinanceTradingPairs() {
+        if (binanceTradingPairs == null) {
+            synchronized (binance) {
+                // 먼저 들어온 요청이 받는 동안 기다렸다가 그 결과 사용
+                if (binanceTradingPairs == null) {
+                    refreshBinance();
+                }
+            }
+        } else if (binance.refreshedAt == 0) {
+            // 기본 목록 또는 스냅샷 파일에서 복원한 목록이면 백그라운드에서 다시 받음
+            refreshAsync(binance, this::refreshBinance);
+        }
+        return binanceTradingPairs;
+    }
+    
+    // 코인 이름 조회 (업비트 우선, 없으면 빗썸)
+    public MarketListing findListing(String symbol) {
+        MarketListing listing = getUpbitListings().get(symbol);
+        return listing != null ? listing : getBithumbListings().get(symbol);
+    }
+    
+    // 빗썸 ticker에 목록에 없는 심볼이 처음 나타나면 빗썸 목록 갱신
+    // 갱신 후에도 목록에 없는 심볼(ticker에만 있는 심볼)로 매번 다시 받지 않도록 요청한 심볼은 기억
+    public void reportBithumbSymbols(Collection<String> symbols) {
+        Map<String, MarketListing> listings = bithumb.listings;
+        if (listings == null) {
+            return;
+        }
+        
+        List<String> unknown = new ArrayList<>();
+        for (String symbol : symbols) {
+            if (!listings.containsKey(symbol) && !reportedBithumbSymbols.contains(symbol)) {
+                unknown.add(symbol);
+            }
+        }
+        if (!unknown.isEmpty() && refreshAsync(bithumb, this::refreshBithumb)) {
+            reportedBithumbSymbols.addAll(unknown);
+        }
+    }
+    
+    // 바이낸스 ticker에 처음 보는 USDT 마켓이 있으면 거래 중 심볼 목록 갱신
+    public void reportBinancePairs(Collection<String> pairs) {
+        if (binanceTradingPairs != null && !binanceKnownPairs.containsAll(pairs)) {
+            refreshAsync(binance, this::refreshBinance);
+        }
+    }
+    
+    // 정기 갱신 (상장/상폐는 자주 일어나지 않으므로 긴 주기)
+    @Scheduled(fixedDelayString = "${kp.markets.refresh-interval-ms:3600000}",
+               initialDelayString = "${kp.markets.refresh-interval-ms:3600000}")
+    public void refreshAll() {
+        refreshUpbit();
+        refreshBithumb();
+        refreshBinance();
+    }
+    
+    // 업비트 마켓 정보 갱신
+    public void refreshUpbit() {
+        refreshListings(upbit, upstreamEndpoints.upbit("/v1/market/all"), "업비트");
+    }
+    
+    // 빗썸 마켓 정보 갱신
+    public void refreshBithumb() {
+        refreshListings(bithumb, upstreamEndpoints.bithumb("/v1/market/all"), "빗썸");
+    }
+    
+    // 바이낸스 심볼 목록 갱신 (exchangeInfo는 수 MB이므로 스트림에서 필요한 필드만 읽음)
+    public void refreshBinance() {
+        synchronized (binance) {
+            binance.lastAttemptAt = System.currentTimeMillis();
+            try {
+                Set<String> allPairs = new HashSet<>();
+                String url = upstreamEndpoints.binance("/api/v3/exchangeInfo");
+                Set<String> tradingPairs = restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> payloadParser.parseBinanceTradingSymbols(response.getBody(), allPairs));
+                
+                binanceTradingPairs = Collections.unmodifiableSet(tradingPairs);
+                binanceKnownPairs = Collections.unmodifiableSet(allPairs);
+                binance.count = tradingPairs.size();
+                binance.refreshedAt = System.currentTimeMillis();
+            } catch (Exception e) {
+                System.err.println("바이낸스 심볼 리스트 조회 실패: " + e.getMessage());
+                // 실패 시 기존 목록 유지, 목록이 없으면 주요 코인만 사용
+                if (binanceTradingPairs == null) {
+                    binanceTradingPairs = DEFAULT_BINANCE_PAIRS;
+                }
+            }
+        }
+    }
+    
+    // 현재 가진 목록 (스냅샷 파일 저장용, 조회를 일으키지 않음, 없으면 빈 맵/집합)
+    public Map<String, MarketListing> getLoadedListings(String exchange) {
+        Map<String, MarketListing> listings = BITHUMB.equals(exchange) ? bithumb.listings : upbit.listings;
+        return listings != null ? listings : Map.of();
+    }
+    
+    // 현재 가진 바이낸스 거래 중 심볼 (기본 목록만 있으면 빈 집합)
+    public Set<String> getLoadedBinanceTradingPairs() {
+        Set<String> pairs = binanceTradingPairs;
+        return pairs != null && pairs != DEFAULT_BINANCE_PAIRS ? pairs : Set.of();
+    }
+    
+    // 스냅샷 파일에 저장된 목록으로 시작 (아직 받은 목록이 없는 거래소만)
+    // 갱신 시각은 0으로 두어 처음 사용할 때 백그라운드에서 거래소 목록을 다시 받음
+    public void restore(Map<String, MarketListing> upbitListings, Map<String, MarketListing> bithumbListings,
+                        Set<String> binancePairs) {
+        restoreListings(upbit, upbitListings);
+        restoreListings(bithumb, bithumbListings);
+        synchronized (binance) {
+            if (binanceTradingPairs == null && !binancePairs.isEmpty()) {
+                binanceTradingPairs = binancePairs;
+                binanceKnownPairs = binancePairs;
+                binance.count = binancePairs.size();
+            }
+        }
+    }
+    
+    // 거래소별 목록 상태 (개수, 마지막 갱신 시각)
+    public Map<String, Map<String, Object>> getStatus() {
+        Map<String, Map<String, Object>> status = new LinkedHashMap<>();
+        status.put(UPBIT, upbit.toStatus());
+        status.put(BITHUMB, bithumb.toStatus());
+        status.put(BINANCE, binance.toStatus());
+        return status;
+    }
+    
+    private void refreshListings(ExchangeMarkets markets, String url, String exchangeName) {
+        synchronized (markets) {
+            markets.lastAttemptAt = System.currentTimeMillis();
+            try {
+                Map<String, MarketListing> listings = restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> payloadParser.parseKrwMarketListings(response.getBody()));
+                
+                markets.listings = Collections.unmodifiableMap(listings);
+                markets.count = listings.size();
+                markets.refreshedAt = System.currentTimeMillis();
+            } catch (Exception e) {
+                System.err.println(exchangeName + " 마켓 정보 조회 실패: " + e.getMessage());
+                // 실패 시 기존 목록 유지
+                if (markets.listings == null) {
+                    markets.listings = Map.of();
+                }
+            }
+        }
+    }
+    
+    private void restoreListings(ExchangeMarkets markets, Map<String, MarketListing> listings) {
+        synchronized (markets) {
+            if (markets.listings == null && !listings.isEmpty()) {
+                markets.listings = listings;
+                markets.count = listings.size();
+            }
+        }
+    }
+    
+    // 목록이 아직 없으면 한 요청만 받고, 동시에 들어온 요청은 기다렸다가 그 결과 사용
+    // (조회에 실패해도 빈 목록이 들어가므로 같은 시점에 여러 번 받지 않음)
+    private void loadIfAbsent(ExchangeMarkets markets, Runnable refresh) {
+        synchronized (markets) {
+            if (markets.listings == null) {
+                refresh.run();
+            }
+        }
+    }
+    
+    // 최소 간격 내 중복 갱신은 무시하고 백그라운드에서 갱신 (갱신을 예약했으면 true)
+    private boolean refreshAsync(ExchangeMarkets markets, Runnable refresh) {
+        if (System.currentTimeMillis() - markets.lastAttemptAt < minRefreshIntervalMs) {
+            return false;
+        }
+        if (!markets.refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        
+        refreshExecutor.execute(() -> {
+            try {
+                refresh.run();
+            } finally {
+                markets.refreshing.set(false);
+            }
+        });
+        return true;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+    
+    // 거래소별 목록과 갱신 상태
+    private static class ExchangeMarkets {
+        volatile Map<String, MarketListing> listings;
+        volatile int count;
+        volatile long refreshedAt;
+        volatile long lastAttemptAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        
+        Map<String, Object> toStatus() {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("count", count);
+            status.put("refreshedAt", refreshedAt);
+            return status;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// 거래소 WebSocket 시세 수집 (kp.stream.enabled=true일 때만 동작, 기본은 REST 주기 조회)
+// 업비트/빗썸/바이낸스 ticker 스트림을 LiveQuoteBoard에 반영하고
+// 연결(재연결) 시와 연결이 끊긴 동안에는 KimchiPremiumService의 REST 조회로 보정한다
+@Service
+public class MarketStreamService {
+    
+    public static final String SOURCE_UPBIT_STREAM = "upbitStream";
+    public static final String SOURCE_BITHUMB_STREAM = "bithumbStream";
+    public static final String SOURCE_BINANCE_STREAM = "binanceStream";
+    
+    @Autowired
+    private KimchiPremiumService kimchiPremiumService;
+    
+    @Autowired
+    private MarketMetadataRegistry marketRegistry;
+    
+    @Autowired
+    private PremiumStatsEngine premiumStatsEngine;
+    
+    @Value("${kp.stream.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${kp.stream.upbit-url:wss://api.upbit.com/websocket/v1}")
+    private String upbitUrl;
+    
+    @Value("${kp.stream.bithumb-url:wss://pubwss.bithumb.com/pub/ws}")
+    private String bithumbUrl;
+    
+    @Value("${kp.stream.binance-url:wss://stream.binance.com:9443/ws/!miniTicker@arr}")
+    private String binanceUrl;
+    
+    @Value("${kp.stream.reconnect-min-ms:1000}")
+    private long reconnectMinMs;
+    
+    @Value("${kp.stream.reconnect-max-ms:30000}")
+    private long reconnectMaxMs;
+    
+    @Value("${kp.stream.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+    
+    private final ExchangePayloadParser payloadParser = new ExchangePayloadParser();
+    private volatile Map<String, ExchangeWebSocketClient> clients = Map.of();
+    private LiveQuoteBoard board;
+    
+    @PostConstruct
+    public void init() {
+        board = new LiveQuoteBoard(kimchiPremiumService, premiumStatsEngine);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public LiveQuoteBoard getBoard() {
+        return board;
+    }
+    
+    // 애플리케이션 시작 후 스트림 연결
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || !clients.isEmpty()) {
+            return;
+        }
+        
+        refreshExchangeRate();
+        
+        Map<String, ExchangeWebSocketClient> streams = new LinkedHashMap<>();
+        streams.put(SOURCE_UPBIT_STREAM, new ExchangeWebSocketClient("upbit", URI.create(upbitUrl),
+            () -> upbitSubscribeMessage(marketRegistry.getUpbitSymbols()),
+            upbitHandler(payloadParser, board),
+            this::backfillUpbit,
+            reconnectMinMs, reconnectMaxMs, idleTimeoutMs));
+        
+        streams.put(SOURCE_BITHUMB_STREAM, new ExchangeWebSocketClient("bithumb", URI.create(bithumbUrl),
+            () -> bithumbSubscribeMessage(getBithumbSymbols()),
+            bithumbHandler(payloadParser, board),
+            this::backfillBithumb,
+            reconnectMinMs, reconnectMaxMs, idleTimeoutMs));
+        
+        // 바이낸스는 스트림 이름이 URL에 포함되어 별도 구독 메시지 없음
+        streams.put(SOURCE_BINANCE_STREAM, new ExchangeWebSocketClient("binance", URI.create(binanceUrl),
+            null,
+            binanceHandler(payloadParser, board, marketRegistry::getBinanceTradingPairs),
+            this::backfillBinance,
+            reconnectMinMs, reconnectMaxMs, idleTimeoutMs));
+        
+        clients = Collections.unmodifiableMap(streams);
+        clients.values().forEach(ExchangeWebSocketClient::start);
+        System.out.println("실시간 시세 스트림 시작: " + clients.keySet());
+    }
+    
+    // 환율 갱신 및 연결이 끊긴 거래소 REST 보정
+    @Scheduled(fixedDelayString = "${kp.stream.rest-sync-interval-ms:60000}",
+               initialDelayString = "${kp.stream.rest-sync-interval-ms:60000}")
+    public void syncFromRest() {
+        Map<String, ExchangeWebSocketClient> streams = clients;
+        if (!enabled || streams.isEmpty()) {
+            return;
+        }
+        
+        refreshExchangeRate();
+        
+        if (!streams.get(SOURCE_UPBIT_STREAM).isConnected()) {
+            backfillUpbit();
+        }
+        if (!streams.get(SOURCE_BITHUMB_STREAM).isConnected()) {
+            backfillBithumb();
+        }
+        if (!streams.get(SOURCE_BINANCE_STREAM).isConnected()) {
+            backfillBinance();
+        }
+    }
+    
+    // 스트림별 상태 (스냅샷 소스 상태로 사용, 연결이 끊긴 스트림은 ERROR)
+    public Map<String, SourceStatus> getSourceStatuses() {
+        Map<String, SourceStatus> statuses = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        clients.forEach((source, client) -> {
+            long ageMs = Math.max(0, now - client.getLastMessageAt());
+            SourceStatus status = client.isConnected()
+                ? SourceStatus.ok(ageMs)
+                : SourceStatus.error(ageMs, "disconnected");
+            statuses.put(source, status.withAsOf(client.getLastMessageAt()));
+        });
+        return statuses;
+    }
+    
+    // 소스의 스트림 연결 (시작 전이거나 없는 소스면 null)
+    ExchangeWebSocketClient getClient(String source) {
+        return clients.get(source);
+    }
+    
+    // 연결이 끊긴 거래소 이름 (해당 거래소 시세는 마지막으로 받은 값)
+    public Set<String> getDisconnectedExchanges() {
+        Set<String> exchanges = new HashSet<>();
+        for (ExchangeWebSocketClient client : clients.values()) {
+            if (!client.isConnected()) {
+                exchanges.add(client.getName());
+            }
+        }
+        return exchanges;
+    }
+    
+    // 스트림별 연결 상태 (/api/premium/status용)
+    public Map<String, Map<String, Object>> getStatus() {
+        Map<String, Map<String, Object>> status = new LinkedHashMap<>();
+        clients.forEach((source, client) -> status.put(source, client.getStatus()));
+        return status;
+    }
+    
+    // 환율 반영 (조회에 실패하면 마지막 성공 값과 그 조회 시각)
+    private void refreshExchangeRate() {
+        double rate = kimchiPremiumService.getExchangeRate();
+        SourceStatus status = kimchiPremiumService.getLastStatus(KimchiPremiumService.SOURCE_EXCHANGE_RATE);
+        board.updateExchangeRate(rate,
+            status != null ? status.getAsOf() : System.currentTimeMillis(),
+            status != null && status.isStale());
+    }
+    
+    private void backfillUpbit() {
+        long startedAt = System.currentTimeMillis();
+        board.backfillUpbit(kimchiPremiumService.getUpbitTickerData(marketRegistry.getUpbitSymbols()), startedAt);
+    }
+    
+    private void backfillBithumb() {
+        long startedAt = System.currentTimeMillis();
+        board.backfillBithumb(kimchiPremiumService.getBithumbTickerData(), startedAt);
+    }
+    
+    private void backfillBinance() {
+        long startedAt = System.currentTimeMillis();
+        board.backfillBinance(kimchiPremiumService.getAllBinancePrices(), startedAt);
+    }
+    
+    // 빗썸 구독 심볼 (빗썸 목록이 없으면 업비트 목록 사용)
+    private Collection<String> getBithumbSymbols() {
+        Map<String, MarketListing> listings = marketRegistry.getBithumbListings();
+        return listings.isEmpty() ? marketRegistry.getUpbitSymbols() : listings.keySet();
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        clients.values().forEach(ExchangeWebSocketClient::stop);
+    }
+    
+    // 업비트 구독 메시지 ([{"ticket":...},{"type":"ticker","codes":["KRW-BTC",...]}], 최초 스냅샷 포함)
+    static String upbitSubscribeMessage(Collection<String> symbols) {
+        List<String> codes = new ArrayList<>();
+        for (String symbol : symbols) {
+            codes.add("KRW-" + symbol.toUpperCase());
+        }
+        return "[{\"ticket\":\"kp-tracker\"},{\"type\":\"ticker\",\"codes\":" + toJsonArray(codes) + "}]";
+    }
+    
+    // 빗썸 구독 메시지 ({"type":"ticker","symbols":["BTC_KRW",...],"tickTypes":["24H"]})
+    static String bithumbSubscribeMessage(Collection<String> symbols) {
+        List<String> markets = new ArrayList<>();
+        for (String symbol : symbols) {
+            markets.add(symbol.toUpperCase() + "_KRW");
+        }
+        return "{\"type\":\"ticker\",\"symbols\":" + toJsonArray(markets) + ",\"tickTypes\":[\"24H\"]}";
+    }
+    
+    static Consumer<String> upbitHandler(ExchangePayloadParser parser, LiveQuoteBoard board) {
+        return message -> parseTick("업비트", () -> parser.parseUpbitTick(message, board::updateUpbit));
+    }
+    
+    static Consumer<String> bithumbHandler(ExchangePayloadParser parser, LiveQuoteBoard board) {
+        return message -> parseTick("빗썸", () -> parser.parseBithumbTick(message, board::updateBithumb));
+    }
+    
+    static Consumer<String> binanceHandler(ExchangePayloadParser parser, LiveQuoteBoard board,
+                                           Supplier<Set<String>> tradingPairs) {
+        return message -> parseTick("바이낸스",
+            () -> parser.parseBinanceMiniTickers(message, tradingPairs.get(), board::updateBinance));
+    }
+    
+    private static void parseTick(String exchangeName, TickParse parse) {
+        try {
+            parse.run();
+        } catch (IOException e) {
+            System.err.println(exchangeName + " 시세 메시지 파싱 실패: " + e.getMessage());
+        }
+    }
+    
+    private static String toJsonArray(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(values.get(i)).append('"');
+        }
+        return json.append(']').toString();
+    }
+    
+    private interface TickParse {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kpt.main.kptracker.service;
+
+// 거래소 한 곳의 코인 호가창 (상위 depth 단계, 최우선 호가부터)
+// 가격/수량을 double 배열에 그대로 두고, 갱신은 파서가 채운 작업용 호가창의 단계만 기존 배열에 복사한다
+// 체결 계산은 배열을 최우선 호가부터 훑기만 하므로 요청마다 호가를 내려받지 않고 마이크로초 단위로 끝난다
+final class OrderBook {
+    
+    private final int depth;
+    private final double[] bidPrices;
+    private final double[] bidSizes;
+    private final double[] askPrices;
+    private final double[] askSizes;
+    private int bidCount;
+    private int askCount;
+    private long updatedAt;
+    
+    OrderBook(int depth) {
+        this.depth = Math.max(1, depth);
+        this.bidPrices = new double[this.depth];
+        this.bidSizes = new double[this.depth];
+        this.askPrices = new double[this.depth];
+        this.askSizes = new double[this.depth];
+    }
+    
+    // 수량이 사실상 무한한 한 단계짜리 호가창 (USDT 1달러 고정용)
+    static OrderBook fixed(double price) {
+        OrderBook book = new OrderBook(1);
+        book.addBid(price, Double.MAX_VALUE);
+        book.addAsk(price, Double.MAX_VALUE);
+        book.updatedAt = Long.MAX_VALUE;
+        return book;
+    }
+    
+    // 작업용 호가창 채우기 (파서에서 호출, 공유 호가창에는 copyFrom으로 반영)
+    void clear() {
+        bidCount = 0;
+        askCount = 0;
+    }
+    
+    void addBid(double price, double size) {
+        if (bidCount < depth && price > 0 && size > 0) {
+            bidPrices[bidCount] = price;
+            bidSizes[bidCount] = size;
+            bidCount++;
+        }
+    }
+    
+    void addAsk(double price, double size) {
+        if (askCount < depth && price > 0 && size > 0) {
+            askPrices[askCount] = price;
+            askSizes[askCount] = size;
+            askCount++;
+        }
+    }
+    
+    boolean isEmpty() {
+        return bidCount == 0 && askCount == 0;
+    }
+    
+    // 작업용 호가창 내용을 반영 (단계 수가 다르면 이 호가창 depth까지만)
+    synchronized void copyFrom(OrderBook source, long timestamp) {
+        bidCount = Math.min(depth, source.bidCount);
+        askCount = Math.min(depth, source.askCount);
+        System.arraycopy(source.bidPrices, 0, bidPrices, 0, bidCount);
+        System.arraycopy(source.bidSizes, 0, bidSizes, 0, bidCount);
+        System.arraycopy(source.askPrices, 0, askPrices, 0, askCount);
+        System.arraycopy(source.askSizes, 0, askSizes, 0, askCount);
+        updatedAt = timestamp;
+    }
+    
+    // 마지막 갱신 시각 (ms, 아직 없으면 0)
+    synchronized long getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    // 최우선 매수/매도 호가 중간값 (한쪽이라도 없으면 NaN)
+    synchronized double mid() {
+        return bidCount > 0 && askCount > 0 ? (bidPrices[0] + askPrices[0]) / 2 : Double.NaN;
+    }
+    
+    // 매도 호가를 따라 quote 금액만큼 매수 (호가창이 모자라면 있는 만큼만)
+    synchronized Fill buyWithQuote(double quote) {
+        double remaining = quote;
+        double quantity = 0;
+        for (int i = 0; i < askCount && remaining > 0; i++) {
+            double levelQuote = askPrices[i] * askSizes[i];
+            if (levelQuote >= remaining) {
+                quantity += remaining / askPrices[i];
+                remaining = 0;
+            } else {
+                quantity += askSizes[i];
+                remaining -= levelQuote;
+            }
+        }
+        return new Fill(quantity, quote - remaining, remaining <= 0);
+    }
+    
+    // 매수 호가를 따라 quantity만큼 매도 (호가창이 모자라면 있는 만큼만)
+    synchronized Fill sellQuantity(double quantity) {
+        double remaining = quantity;
+        double quote = 0;
+        for (int i = 0; i < bidCount && remaining > 0; i++) {
+            double size = Math.min(remaining, bidSizes[i]);
+            quote += size * bidPrices[i];
+            remaining -= size;
+        }
+        return new Fill(quantity - remaining, quote, remaining <= 0);
+    }
+    
+    // 체결 결과 (수량, 금액, 요청량을 모두 채웠는지)
+    static final class Fill {
+        final double quantity;
+        final double quote;
+        final boolean complete;
+        
+        Fill(double quantity, double quote, boolean complete) {
+            this.quantity = quantity;
+            this.quote = quote;
+            this.complete = complete;
+        }
+        
+        double averagePrice() {
+            return quantity > 0 ? quote / quantity : Double.NaN;
+        }
+    }
+}
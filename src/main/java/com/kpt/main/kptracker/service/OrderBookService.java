@@ -0,0 +1,321 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 호가창 기반 실제 체결 김프 (/api/premium/{coin}/executable)
+// 요청된 코인만 업비트/빗썸/바이낸스 상위 호가를 메모리에 유지하고 주기적으로 갱신한다
+// (바이낸스 depth는 코인마다 요청해야 하므로 전체 코인이 아니라 최근 요청된 kp.orderbook.max-coins개만)
+// 요청은 유지 중인 호가창을 훑어 계산만 하고, 처음 요청된 코인만 한 번 동기 조회
+@Service
+public class OrderBookService {
+    
+    public static final String SOURCE_UPBIT_ORDERBOOK = "upbitOrderbook";
+    public static final String SOURCE_BITHUMB_ORDERBOOK = "bithumbOrderbook";
+    public static final String SOURCE_BINANCE_DEPTH = "binanceDepth";
+    
+    // USDT는 스테이블코인이므로 바이낸스 쪽은 1달러 고정
+    private static final OrderBook USDT_BOOK = OrderBook.fixed(1.0);
+    
+    // 공용 HTTP 전송 계층 (HttpTransportConfig)
+    @Autowired
+    private RestTemplate restTemplate;
+    
+    @Autowired
+    private UpstreamEndpoints upstreamEndpoints;
+    
+    @Autowired
+    private MarketMetadataRegistry marketRegistry;
+    
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private PremiumSnapshotService premiumSnapshotService;
+    
+    @Autowired
+    private KimchiPremiumService kimchiPremiumService;
+    
+    // 거래소별 유지할 호가 단계 수 (업비트는 최대 15, 빗썸 30)
+    @Value("${kp.orderbook.depth:15}")
+    private int depth;
+    
+    @Value("${kp.orderbook.max-coins:10}")
+    private int maxCoins;
+    
+    // 이 시간 동안 요청이 없으면 유지 중단
+    @Value("${kp.orderbook.idle-ms:300000}")
+    private long idleMs;
+    
+    private final ExchangePayloadParser payloadParser = new ExchangePayloadParser();
+    private final Map<String, TrackedCoin> trackedCoins = new ConcurrentHashMap<>();
+    
+    // 호가 조회는 거래소 HTTP 호출이므로 공용 스케줄러 스레드(기본 1개)를 막지 않도록 별도 스레드에서 실행
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kp-orderbook-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    
+    // 코인 하나의 실제 체결 김프 (krw: 거래 금액, 상장되지 않은 코인이면 null)
+    // 한국 거래소별 sellKorea(바이낸스 매수 → 한국 매도)와 buyKorea(한국 매수 → 바이낸스 매도) 양방향
+    public Map<String, Object> getExecutablePremium(String symbol, double krw) {
+        String coin = symbol.toUpperCase();
+        if (marketRegistry.findListing(coin) == null) {
+            return null;
+        }
+        if (!(krw > 0)) {
+            throw new IllegalArgumentException("krw는 0보다 커야 합니다.");
+        }
+        
+        TrackedCoin tracked = track(coin);
+        double exchangeRate = getExchangeRate();
+        OrderBook binanceBook = coin.equals("USDT") ? USDT_BOOK : tracked.binance;
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("coin", coin);
+        result.put("krw", krw);
+        result.put("exchangeRate", exchangeRate);
+        putExchange(result, MarketMetadataRegistry.UPBIT, tracked.upbit, binanceBook, krw, exchangeRate);
+        putExchange(result, MarketMetadataRegistry.BITHUMB, tracked.bithumb, binanceBook, krw, exchangeRate);
+        
+        Map<String, Object> asOf = new LinkedHashMap<>();
+        asOf.put(MarketMetadataRegistry.UPBIT, tracked.upbit.getUpdatedAt());
+        asOf.put(MarketMetadataRegistry.BITHUMB, tracked.bithumb.getUpdatedAt());
+        asOf.put(MarketMetadataRegistry.BINANCE, binanceBook == USDT_BOOK ? 0 : binanceBook.getUpdatedAt());
+        result.put("asOf", asOf);
+        return result;
+    }
+    
+    // 유지 중인 호가창 갱신 (오래 요청되지 않은 코인은 제외)
+    // 스케줄러 스레드에서는 갱신 스레드에 넘기기만 하고, 이전 갱신이 아직 진행 중이면 이번 주기는 건너뜀
+    @Scheduled(fixedDelayString = "${kp.orderbook.refresh-interval-ms:3000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        trackedCoins.entrySet().removeIf(entry -> now - entry.getValue().lastRequestedAt > idleMs);
+        if (trackedCoins.isEmpty() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        
+        refreshExecutor.execute(() -> {
+            try {
+                refreshTracked();
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+    
+    private void refreshTracked() {
+        List<String> coins = new ArrayList<>(trackedCoins.keySet());
+        refreshUpbit(coins);
+        for (String coin : coins) {
+            TrackedCoin tracked = trackedCoins.get(coin);
+            if (tracked != null) {
+                refreshBithumb(coin, tracked);
+                refreshBinance(coin, tracked);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+    
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("coins", new ArrayList<>(trackedCoins.keySet()));
+        status.put("maxCoins", maxCoins);
+        status.put("depth", depth);
+        return status;
+    }
+    
+    // 한국 거래소 한 곳의 결과 (호가가 없으면 생략)
+    private static void putExchange(Map<String, Object> result, String exchange, OrderBook korean,
+                                    OrderBook binance, double krw, double exchangeRate) {
+        if (korean.getUpdatedAt() == 0 || binance.getUpdatedAt() == 0) {
+            return;
+        }
+        result.put(exchange, executable(korean, binance, krw, exchangeRate));
+    }
+    
+    // 호가창 두 개로 계산한 양방향 체결 김프 (%)
+    static Map<String, Object> executable(OrderBook korean, OrderBook binance, double krw, double exchangeRate) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("midPremium", premium(korean.mid(), binance.mid(), exchangeRate));
+        
+        // 바이낸스에서 krw 상당 USDT로 매수한 수량을 한국 거래소에 매도
+        OrderBook.Fill binanceBuy = binance.buyWithQuote(krw / exchangeRate);
+        OrderBook.Fill koreanSell = korean.sellQuantity(binanceBuy.quantity);
+        result.put("sellKorea", leg(koreanSell, binanceBuy, binanceBuy.complete && koreanSell.complete, exchangeRate));
+        
+        // 한국 거래소에서 krw로 매수한 수량을 바이낸스에 매도
+        OrderBook.Fill koreanBuy = korean.buyWithQuote(krw);
+        OrderBook.Fill binanceSell = binance.sellQuantity(koreanBuy.quantity);
+        result.put("buyKorea", leg(koreanBuy, binanceSell, koreanBuy.complete && binanceSell.complete, exchangeRate));
+        return result;
+    }
+    
+    // 한 방향 결과 (호가창이 모자라 일부만 체결되면 complete=false, 평균가는 각 거래소에서 체결된 수량 기준)
+    private static Map<String, Object> leg(OrderBook.Fill korean, OrderBook.Fill binance, boolean complete,
+                                           double exchangeRate) {
+        double koreanPrice = korean.averagePrice();
+        double binancePrice = binance.averagePrice();
+        Map<String, Object> leg = new LinkedHashMap<>();
+        leg.put("premium", premium(koreanPrice, binancePrice, exchangeRate));
+        leg.put("quantity", Math.min(korean.quantity, binance.quantity));
+        leg.put("krwPrice", Double.isNaN(koreanPrice) ? null : koreanPrice);
+        leg.put("usdPrice", Double.isNaN(binancePrice) ? null : binancePrice);
+        leg.put("complete", complete);
+        return leg;
+    }
+    
+    private static Double premium(double krwPrice, double usdPrice, double exchangeRate) {
+        if (!(krwPrice > 0) || !(usdPrice > 0) || !(exchangeRate > 0)) {
+            return null;
+        }
+        return (krwPrice / (usdPrice * exchangeRate) - 1) * 100;
+    }
+    
+    // 요청된 코인 유지 시작 (처음이면 한 번 동기 조회, 한도를 넘으면 가장 오래 요청되지 않은 코인 제외)
+    private TrackedCoin track(String coin) {
+        TrackedCoin tracked = trackedCoins.get(coin);
+        if (tracked == null) {
+            while (trackedCoins.size() >= Math.max(1, maxCoins)) {
+                trackedCoins.entrySet().stream()
+                    .min((a, b) -> Long.compare(a.getValue().lastRequestedAt, b.getValue().lastRequestedAt))
+                    .ifPresent(oldest -> trackedCoins.remove(oldest.getKey()));
+            }
+            tracked = trackedCoins.computeIfAbsent(coin, key -> new TrackedCoin(depth));
+        }
+        tracked.lastRequestedAt = System.currentTimeMillis();
+        
+        synchronized (tracked) {
+            if (!tracked.loaded) {
+                refreshUpbit(List.of(coin));
+                refreshBithumb(coin, tracked);
+                refreshBinance(coin, tracked);
+                tracked.loaded = true;
+            }
+        }
+        return tracked;
+    }
+    
+    private double getExchangeRate() {
+        PremiumSnapshot snapshot = premiumSnapshotService.getCurrentSnapshot();
+        double exchangeRate = snapshot != null ? snapshot.getTable().getExchangeRate() : 0;
+        return exchangeRate > 0 ? exchangeRate : kimchiPremiumService.getExchangeRate();
+    }
+    
+    // 업비트는 여러 마켓을 한 번에 조회
+    private void refreshUpbit(List<String> coins) {
+        Map<String, MarketListing> listings = marketRegistry.getUpbitListings();
+        List<String> markets = new ArrayList<>();
+        for (String coin : coins) {
+            if (listings.containsKey(coin)) {
+                markets.add("KRW-" + coin);
+            }
+        }
+        if (markets.isEmpty()) {
+            return;
+        }
+        
+        String url = upstreamEndpoints.upbit("/v1/orderbook?markets=" + String.join(",", markets));
+        if (!rateLimitTracker.allows(RateLimitTracker.budgetKey(MarketMetadataRegistry.UPBIT, url), System.currentTimeMillis())) {
+            return;
+        }
+        fetch(SOURCE_UPBIT_ORDERBOOK, url, (body, scratch) -> {
+            long receivedAt = System.currentTimeMillis();
+            payloadParser.parseUpbitOrderbook(body, scratch, (symbol, book) -> {
+                TrackedCoin tracked = trackedCoins.get(symbol);
+                if (tracked != null) {
+                    tracked.upbit.copyFrom(book, receivedAt);
+                }
+            });
+        });
+    }
+    
+    private void refreshBithumb(String coin, TrackedCoin tracked) {
+        if (!marketRegistry.getBithumbListings().containsKey(coin)
+                || !rateLimitTracker.allows(MarketMetadataRegistry.BITHUMB, System.currentTimeMillis())) {
+            return;
+        }
+        String url = upstreamEndpoints.bithumb("/public/orderbook/" + coin + "_KRW?count=" + depth);
+        fetch(SOURCE_BITHUMB_ORDERBOOK, url, (body, scratch) -> {
+            if (payloadParser.parseBithumbOrderbook(body, scratch)) {
+                tracked.bithumb.copyFrom(scratch, System.currentTimeMillis());
+            }
+        });
+    }
+    
+    private void refreshBinance(String coin, TrackedCoin tracked) {
+        if (coin.equals("USDT") || !marketRegistry.getBinanceTradingPairs().contains(coin + "USDT")
+                || !rateLimitTracker.allows(MarketMetadataRegistry.BINANCE, System.currentTimeMillis())) {
+            return;
+        }
+        String url = upstreamEndpoints.binance("/api/v3/depth?symbol=" + coin + "USDT&limit=" + depth);
+        fetch(SOURCE_BINANCE_DEPTH, url, (body, scratch) -> {
+            if (payloadParser.parseBinanceDepth(body, scratch)) {
+                tracked.binance.copyFrom(scratch, System.currentTimeMillis());
+            }
+        });
+    }
+    
+    // 호가 조회 한 건 (실패하면 기존 호가창 유지, 조회 시각(asOf)으로 오래된 값임을 알 수 있음)
+    private void fetch(String source, String url, BookReader reader) {
+        long startedAt = System.nanoTime();
+        try {
+            restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                CountingInputStream body = new CountingInputStream(response.getBody());
+                long parseStartedAt = System.nanoTime();
+                reader.read(body, new OrderBook(depth));
+                pipelineMetrics.recordPayload(source, body.getCount(), System.nanoTime() - parseStartedAt);
+                return null;
+            });
+            pipelineMetrics.recordFetch(source, PipelineMetrics.OUTCOME_OK, System.nanoTime() - startedAt);
+        } catch (Exception e) {
+            System.err.println(source + " 호가 조회 실패: " + e.getMessage());
+            pipelineMetrics.recordFetch(source, PipelineMetrics.OUTCOME_ERROR, System.nanoTime() - startedAt);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface BookReader {
+        void read(InputStream body, OrderBook scratch) throws IOException;
+    }
+    
+    // 유지 중인 코인의 거래소별 호가창
+    private static final class TrackedCoin {
+        final OrderBook upbit;
+        final OrderBook bithumb;
+        final OrderBook binance;
+        volatile long lastRequestedAt;
+        boolean loaded;
+        
+        TrackedCoin(int depth) {
+            this.upbit = new OrderBook(depth);
+            this.bithumb = new OrderBook(depth);
+            this.binance = new OrderBook(depth);
+        }
+    }
+}
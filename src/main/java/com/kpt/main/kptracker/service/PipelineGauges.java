@@ -0,0 +1,131 @@
+package com.kpt.main.kptracker.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 현재 상태를 수집 시점에 읽는 지표 (스냅샷 나이/코인 수, 프록시 캐시, SSE 구독자, 실시간 스트림)
+// Actuator가 MeterBinder 빈을 레지스트리에 등록하므로 각 서비스는 지표를 따로 갱신하지 않는다
+@Service
+public class PipelineGauges implements MeterBinder {
+    
+    private static final Map<String, Integer> EXCHANGE_SOURCES = Map.of(
+        MarketMetadataRegistry.UPBIT, PremiumTable.SOURCE_UPBIT,
+        MarketMetadataRegistry.BITHUMB, PremiumTable.SOURCE_BITHUMB,
+        MarketMetadataRegistry.BINANCE, PremiumTable.SOURCE_BINANCE);
+    
+    private static final Map<String, String> STREAM_SOURCES = Map.of(
+        MarketMetadataRegistry.UPBIT, MarketStreamService.SOURCE_UPBIT_STREAM,
+        MarketMetadataRegistry.BITHUMB, MarketStreamService.SOURCE_BITHUMB_STREAM,
+        MarketMetadataRegistry.BINANCE, MarketStreamService.SOURCE_BINANCE_STREAM);
+    
+    @Autowired
+    private PremiumSnapshotService premiumSnapshotService;
+    
+    @Autowired
+    private ProxyResponseCache proxyResponseCache;
+    
+    @Autowired
+    private PremiumPushService premiumPushService;
+    
+    @Autowired
+    private MarketStreamService marketStreamService;
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // 스냅샷 (첫 발행 전에는 NaN)
+        TimeGauge.builder("kp.snapshot.age", premiumSnapshotService, TimeUnit.MILLISECONDS,
+                service -> {
+                    PremiumSnapshot snapshot = service.getCurrentSnapshot();
+                    return snapshot != null ? System.currentTimeMillis() - snapshot.getCreatedAt() : Double.NaN;
+                })
+            .description("Time since the current premium snapshot was published")
+            .register(registry);
+        Gauge.builder("kp.snapshot.version", premiumSnapshotService,
+                service -> {
+                    PremiumSnapshot snapshot = service.getCurrentSnapshot();
+                    return snapshot != null ? snapshot.getVersion() : Double.NaN;
+                })
+            .description("Version of the current premium snapshot")
+            .register(registry);
+        // REST 갱신 주기 (실시간 스트림 사용 시에는 의미 없음)
+        if (!marketStreamService.isEnabled()) {
+            TimeGauge.builder("kp.snapshot.refresh.interval", premiumSnapshotService, TimeUnit.MILLISECONDS,
+                    PremiumSnapshotService::getRefreshIntervalMs)
+                .description("Current adaptive REST refresh interval")
+                .register(registry);
+        }
+        Gauge.builder("kp.premium.coins", premiumSnapshotService, service -> coinCount(service, -1))
+            .description("Coins in the current snapshot")
+            .tag("exchange", "all")
+            .register(registry);
+        EXCHANGE_SOURCES.forEach((exchange, source) ->
+            Gauge.builder("kp.premium.coins", premiumSnapshotService, service -> coinCount(service, source))
+                .description("Coins in the current snapshot")
+                .tag("exchange", exchange)
+                .register(registry));
+        
+        // /api/proxy 캐시 (요청 수 = hit + miss + coalesced, 실패는 kp.upstream.errors{source="proxy"})
+        FunctionCounter.builder("kp.proxy.requests", proxyResponseCache, ProxyResponseCache::getHits)
+            .description("Proxy requests by cache result")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("kp.proxy.requests", proxyResponseCache, ProxyResponseCache::getMisses)
+            .description("Proxy requests by cache result")
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("kp.proxy.requests", proxyResponseCache, ProxyResponseCache::getCoalesced)
+            .description("Proxy requests by cache result")
+            .tag("result", "coalesced")
+            .register(registry);
+        
+        Gauge.builder("kp.push.clients", premiumPushService, PremiumPushService::getClientCount)
+            .description("Connected premium SSE clients")
+            .register(registry);
+        
+        // 실시간 스트림 (사용하지 않으면 등록하지 않음)
+        if (marketStreamService.isEnabled()) {
+            STREAM_SOURCES.forEach((exchange, source) -> {
+                Gauge.builder("kp.stream.connected", marketStreamService, service -> {
+                        ExchangeWebSocketClient client = service.getClient(source);
+                        return client != null && client.isConnected() ? 1 : 0;
+                    })
+                    .description("Whether the exchange ticker stream is connected")
+                    .tag("exchange", exchange)
+                    .register(registry);
+                FunctionCounter.builder("kp.stream.messages", marketStreamService, service -> {
+                        ExchangeWebSocketClient client = service.getClient(source);
+                        return client != null ? client.getMessageCount() : 0;
+                    })
+                    .description("Ticker stream messages received")
+                    .tag("exchange", exchange)
+                    .register(registry);
+            });
+        }
+    }
+    
+    // 현재 스냅샷에서 해당 거래소 가격이 있는 코인 수 (source가 -1이면 전체)
+    private static double coinCount(PremiumSnapshotService service, int source) {
+        PremiumSnapshot snapshot = service.getCurrentSnapshot();
+        if (snapshot == null) {
+            return Double.NaN;
+        }
+        PremiumTable table = snapshot.getTable();
+        if (source < 0) {
+            return table.size();
+        }
+        int count = 0;
+        for (int row = 0; row < table.size(); row++) {
+            if (table.hasSource(row, source)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
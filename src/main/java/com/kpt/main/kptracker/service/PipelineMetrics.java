@@ -0,0 +1,78 @@
+package com.kpt.main.kptracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.TimeUnit;
+
+// 조회-계산-발행 파이프라인 측정값 기록 (Actuator /actuator/prometheus로 노출)
+// 이름과 태그를 한곳에 모아 두어 소스별 지표가 같은 형식으로 쌓이도록 한다
+// (스냅샷/스트림/캐시 상태처럼 현재 값을 읽는 지표는 PipelineGauges)
+@Service
+public class PipelineMetrics {
+    
+    // 외부 조회 결과 태그
+    public static final String OUTCOME_OK = "ok";
+    public static final String OUTCOME_TIMEOUT = "timeout";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_CIRCUIT_OPEN = "circuit_open";
+    public static final String OUTCOME_RATE_LIMITED = "rate_limited";
+    
+    @Autowired
+    private MeterRegistry registry;
+    
+    // 외부 조회 한 건 (소스별 지연 시간 히스토그램, 실패는 원인별 오류 카운터에도 기록)
+    public void recordFetch(String source, String outcome, long elapsedNanos) {
+        Timer.builder("kp.upstream.request")
+            .description("Upstream request latency per source")
+            .tag("source", source)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        
+        if (!OUTCOME_OK.equals(outcome)) {
+            Counter.builder("kp.upstream.errors")
+                .description("Failed upstream requests per source")
+                .tag("source", source)
+                .tag("reason", outcome)
+                .register(registry)
+                .increment();
+        }
+    }
+    
+    // 응답 본문 크기(압축 해제 후)와 읽기+파싱 시간 (파싱이 스트리밍이라 본문 수신 시간이 포함됨)
+    public void recordPayload(String source, long bytes, long parseNanos) {
+        DistributionSummary.builder("kp.upstream.payload")
+            .description("Decoded upstream response body size")
+            .baseUnit("bytes")
+            .tag("source", source)
+            .register(registry)
+            .record(bytes);
+        Timer.builder("kp.upstream.parse")
+            .description("Time to read and parse an upstream response body")
+            .tag("source", source)
+            .register(registry)
+            .record(parseNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    // 김프 테이블 계산 시간 (조회 결과 → PremiumTable)
+    public void recordCompute(long elapsedNanos) {
+        Timer.builder("kp.premium.compute")
+            .description("Premium table computation time")
+            .register(registry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    // 스냅샷 발행 시간 (mode: rest 조회 포함 전체 갱신, stream 실시간 시세 반영)
+    public void recordPublish(String mode, long elapsedNanos) {
+        Timer.builder("kp.snapshot.publish")
+            .description("Snapshot refresh time including fetch (rest) or board conversion (stream)")
+            .tag("mode", mode)
+            .register(registry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
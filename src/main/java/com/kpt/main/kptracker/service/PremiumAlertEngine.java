@@ -0,0 +1,365 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 김프 알림 엔진
+// 새 스냅샷이 발행될 때마다(REST 갱신, 실시간 시세 묶음) 바뀐 코인의 바뀐 항목만 색인으로 확인해 알림 규칙을 평가한다
+// 규칙이 만족되면 triggered, 다시 벗어나면 resolved 이벤트를 SSE 구독자와 규칙의 웹훅으로 보낸다
+// 흔들림 방지: 조건별 hysteresis(해제 경계) + 규칙별 cooldownMs(같은 코인 재알림 최소 간격)
+@Service
+public class PremiumAlertEngine {
+    
+    @Autowired
+    private PremiumSnapshotService premiumSnapshotService;
+    
+    // 공용 HTTP 전송 계층 (HttpTransportConfig)
+    @Autowired
+    private RestTemplate restTemplate;
+    
+    @Value("${kp.alert.max-rules:10000}")
+    private int maxRules;
+    
+    @Value("${kp.alert.event-history:200}")
+    private int eventHistory;
+    
+    @Value("${kp.alert.allow-remote-webhooks:false}")
+    private boolean allowRemoteWebhooks;
+    
+    @Value("${kp.alert.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+    
+    private volatile PremiumAlertIndex index = PremiumAlertIndex.EMPTY;
+    private final AtomicInteger ruleIds = new AtomicInteger();
+    private final AtomicInteger conditionIds = new AtomicInteger();
+    
+    // 평가 상태 (synchronized 안에서만 접근)
+    private final Map<String, CoinState> states = new HashMap<>();
+    private final BitSet touchedRules = new BitSet();
+    private PremiumTable lastTable;
+    private volatile long lastVersion;
+    private volatile long lastEvaluatedAt;
+    
+    private final Deque<Map<String, Object>> recentEvents = new ArrayDeque<>();
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong triggeredCount = new AtomicLong();
+    private final AtomicLong webhookFailures = new AtomicLong();
+    
+    // 알림 전송 (웹훅이 느려도 스냅샷 발행을 막지 않도록 별도 스레드)
+    private ExecutorService deliveryExecutor;
+    
+    @PostConstruct
+    public void init() {
+        deliveryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kp-alert");
+            thread.setDaemon(true);
+            return thread;
+        });
+        premiumSnapshotService.addListener(this::evaluate);
+    }
+    
+    // 규칙 등록 (현재 값으로 바로 평가하므로 이미 만족 중이면 triggered 발생)
+    public synchronized PremiumAlertRule register(Map<String, Object> request) {
+        if (index.getRules().size() >= maxRules) {
+            throw new IllegalArgumentException("알림 규칙은 최대 " + maxRules + "개까지 등록할 수 있습니다.");
+        }
+        PremiumAlertRule rule = PremiumAlertRule.parse(
+            ruleIds.incrementAndGet(), conditionIds::getAndIncrement, request, System.currentTimeMillis());
+        if (rule.getWebhook() != null) {
+            validateWebhook(rule.getWebhook());
+        }
+        
+        index = index.with(rule);
+        if (lastTable != null) {
+            for (int row = 0; row < lastTable.size(); row++) {
+                String symbol = lastTable.symbol(row);
+                if (rule.getSymbol() != null && !rule.getSymbol().equals(symbol)) {
+                    continue;
+                }
+                CoinState state = states.computeIfAbsent(symbol, key -> new CoinState());
+                for (PremiumAlertRule.Condition condition : rule.getConditions()) {
+                    state.satisfied.set(condition.getId(),
+                        condition.next(false, lastTable.value(row, condition.getField())));
+                }
+                updateRule(rule, symbol, state, lastTable, row, rule.getCreatedAt());
+            }
+        }
+        return rule;
+    }
+    
+    // 규칙 삭제 (없으면 false)
+    public synchronized boolean remove(int ruleId) {
+        PremiumAlertRule rule = index.getRule(ruleId);
+        if (rule == null) {
+            return false;
+        }
+        index = index.without(ruleId);
+        for (CoinState state : states.values()) {
+            for (PremiumAlertRule.Condition condition : rule.getConditions()) {
+                state.satisfied.clear(condition.getId());
+            }
+            state.active.clear(ruleId);
+            state.notified.clear(ruleId);
+            state.lastTriggeredAt.remove(ruleId);
+        }
+        return true;
+    }
+    
+    public List<Map<String, Object>> getRules() {
+        List<Map<String, Object>> rules = new ArrayList<>();
+        for (PremiumAlertRule rule : index.getRules()) {
+            rules.add(rule.toMap());
+        }
+        return rules;
+    }
+    
+    // 최근 알림 이벤트 (최신순)
+    public List<Map<String, Object>> getRecentEvents() {
+        synchronized (recentEvents) {
+            List<Map<String, Object>> events = new ArrayList<>(recentEvents);
+            Collections.reverse(events);
+            return events;
+        }
+    }
+    
+    // 알림 스트림 구독 (triggered / resolved 이벤트)
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> {
+            subscribers.remove(emitter);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        return emitter;
+    }
+    
+    public Map<String, Object> getStatus() {
+        PremiumAlertIndex current = index;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("rules", current.getRules().size());
+        status.put("conditions", current.getConditionCount());
+        status.put("subscribers", subscribers.size());
+        status.put("triggered", triggeredCount.get());
+        status.put("webhookFailures", webhookFailures.get());
+        status.put("lastVersion", lastVersion);
+        status.put("lastEvaluatedAt", lastEvaluatedAt);
+        return status;
+    }
+    
+    // 새 스냅샷 평가 (발행 스레드에서 호출, 바뀐 코인만 확인)
+    synchronized void evaluate(PremiumSnapshot snapshot) {
+        PremiumTable table = snapshot.getTable();
+        PremiumTable previous = lastTable;
+        PremiumAlertIndex current = index;
+        long now = snapshot.getCreatedAt();
+        
+        if (current.getConditionCount() > 0) {
+            for (int row = 0; row < table.size(); row++) {
+                // 이전 스냅샷과 값이 같은 코인은 건너뜀
+                if (previous != null && snapshot.getRowVersion(row) != snapshot.getVersion()) {
+                    continue;
+                }
+                String symbol = table.symbol(row);
+                evaluateRow(current, symbol, table, row, previous, previous != null ? previous.indexOf(symbol) : -1, now);
+            }
+            
+            // 사라진 코인은 모든 값이 없어진 것으로 평가
+            if (previous != null) {
+                for (int row = 0; row < previous.size(); row++) {
+                    String symbol = previous.symbol(row);
+                    if (table.indexOf(symbol) < 0) {
+                        evaluateRow(current, symbol, null, -1, previous, row, now);
+                        states.remove(symbol);
+                    }
+                }
+            }
+        }
+        
+        lastTable = table;
+        lastVersion = snapshot.getVersion();
+        lastEvaluatedAt = now;
+    }
+    
+    // 코인 하나의 바뀐 항목에 걸린 조건만 다시 계산하고, 영향받은 규칙의 상태 갱신
+    private void evaluateRow(PremiumAlertIndex current, String symbol, PremiumTable table, int row,
+                             PremiumTable previous, int previousRow, long now) {
+        CoinState state = states.get(symbol);
+        if (state == null) {
+            state = new CoinState();
+            states.put(symbol, state);
+        }
+        CoinState coin = state;
+        
+        touchedRules.clear();
+        for (PremiumField field : PremiumField.values()) {
+            double after = row >= 0 ? table.value(row, field) : Double.NaN;
+            double before = previousRow >= 0 ? previous.value(previousRow, field) : Double.NaN;
+            if (Double.compare(before, after) == 0) {
+                continue;
+            }
+            current.forEachCandidate(symbol, field, before, after, condition -> {
+                boolean satisfied = coin.satisfied.get(condition.getId());
+                if (condition.next(satisfied, after) != satisfied) {
+                    coin.satisfied.flip(condition.getId());
+                    touchedRules.set(condition.getRuleId());
+                }
+            });
+        }
+        
+        for (int ruleId = touchedRules.nextSetBit(0); ruleId >= 0; ruleId = touchedRules.nextSetBit(ruleId + 1)) {
+            PremiumAlertRule rule = current.getRule(ruleId);
+            if (rule != null) {
+                updateRule(rule, symbol, coin, table, row, now);
+            }
+        }
+    }
+    
+    // 규칙의 조건이 모두 만족되는지 확인해 상태가 바뀌면 알림
+    private void updateRule(PremiumAlertRule rule, String symbol, CoinState state, PremiumTable table, int row,
+                            long now) {
+        boolean active = true;
+        for (PremiumAlertRule.Condition condition : rule.getConditions()) {
+            if (!state.satisfied.get(condition.getId())) {
+                active = false;
+                break;
+            }
+        }
+        if (active == state.active.get(rule.getId())) {
+            return;
+        }
+        state.active.set(rule.getId(), active);
+        
+        if (active) {
+            // 재알림 간격 안이면 상태만 바꾸고 알리지 않음 (해제 알림도 생략)
+            Long lastTriggered = state.lastTriggeredAt.get(rule.getId());
+            if (lastTriggered != null && now - lastTriggered < rule.getCooldownMs()) {
+                return;
+            }
+            state.lastTriggeredAt.put(rule.getId(), now);
+            state.notified.set(rule.getId());
+            triggeredCount.incrementAndGet();
+            publish(rule, "triggered", symbol, table, row, now);
+        } else if (state.notified.get(rule.getId())) {
+            state.notified.clear(rule.getId());
+            publish(rule, "resolved", symbol, table, row, now);
+        }
+    }
+    
+    private void publish(PremiumAlertRule rule, String type, String symbol, PremiumTable table, int row, long now) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (PremiumAlertRule.Condition condition : rule.getConditions()) {
+            double value = row >= 0 ? table.value(row, condition.getField()) : Double.NaN;
+            values.put(condition.getField().getJsonName(), Double.isNaN(value) ? null : value);
+        }
+        
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("ruleId", rule.getId());
+        event.put("symbol", symbol);
+        event.put("timestamp", now);
+        event.put("values", values);
+        
+        synchronized (recentEvents) {
+            recentEvents.addLast(event);
+            while (recentEvents.size() > Math.max(1, eventHistory)) {
+                recentEvents.removeFirst();
+            }
+        }
+        if (deliveryExecutor != null) {
+            try {
+                deliveryExecutor.execute(() -> deliver(rule, type, event));
+            } catch (Exception e) {
+                System.err.println("알림 전송 예약 실패: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void deliver(PremiumAlertRule rule, String type, Map<String, Object> event) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(type).data(event, MediaType.APPLICATION_JSON));
+            } catch (Exception e) {
+                // 연결이 끊긴 구독자
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+        
+        if (rule.getWebhook() != null) {
+            try {
+                restTemplate.postForEntity(rule.getWebhook(), event, String.class);
+            } catch (Exception e) {
+                webhookFailures.incrementAndGet();
+                System.err.println("알림 웹훅 전송 실패 (" + rule.getWebhook() + "): " + e.getMessage());
+            }
+        }
+    }
+    
+    // 웹훅 주소 확인 (기본은 이 서버와 같은 호스트의 주소만 허용)
+    private void validateWebhook(String webhook) {
+        URI uri;
+        try {
+            uri = URI.create(webhook);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("웹훅 주소 형식이 잘못되었습니다: " + webhook);
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())
+                || uri.getHost() == null) {
+            throw new IllegalArgumentException("웹훅은 http(s) 주소여야 합니다: " + webhook);
+        }
+        if (allowRemoteWebhooks) {
+            return;
+        }
+        try {
+            if (!InetAddress.getByName(uri.getHost()).isLoopbackAddress()) {
+                throw new IllegalArgumentException("로컬 웹훅만 허용됩니다 (kp.alert.allow-remote-webhooks): " + webhook);
+            }
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("웹훅 호스트를 찾을 수 없습니다: " + uri.getHost());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (SseEmitter emitter : subscribers) {
+            emitter.complete();
+        }
+        if (deliveryExecutor != null) {
+            deliveryExecutor.shutdownNow();
+        }
+    }
+    
+    // 코인 하나의 평가 상태 (조건 만족 여부는 조건 id, 나머지는 규칙 id 위치)
+    private static final class CoinState {
+        final BitSet satisfied = new BitSet();
+        final BitSet active = new BitSet();
+        final BitSet notified = new BitSet();
+        final Map<Integer, Long> lastTriggeredAt = new HashMap<>();
+    }
+}
@@ -0,0 +1,166 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+// 알림 조건 색인 (불변, 규칙이 추가/삭제될 때마다 새로 만듦)
+// 코인별/전체 코인용으로 나누고 항목마다 경계값(임계값, 해제 경계)을 정렬해 두어
+// 값이 바뀌면 이전 값과 새 값 사이에 경계가 있는 조건만 이진 탐색으로 찾는다
+final class PremiumAlertIndex {
+    
+    static final PremiumAlertIndex EMPTY = new PremiumAlertIndex(List.of());
+    
+    private final Map<Integer, PremiumAlertRule> rules;
+    private final int conditionCount;
+    
+    // 항목(PremiumField 순서)별 색인 (조건이 없는 항목은 null)
+    private final FieldIndex[] anyCoin;
+    private final Map<String, FieldIndex[]> bySymbol;
+    
+    private PremiumAlertIndex(Collection<PremiumAlertRule> rules) {
+        Map<Integer, PremiumAlertRule> byId = new TreeMap<>();
+        List<List<PremiumAlertRule.Condition>> anyCoinConditions = newFieldLists();
+        Map<String, List<List<PremiumAlertRule.Condition>>> symbolConditions = new HashMap<>();
+        
+        int conditions = 0;
+        for (PremiumAlertRule rule : rules) {
+            byId.put(rule.getId(), rule);
+            List<List<PremiumAlertRule.Condition>> target = rule.getSymbol() == null
+                ? anyCoinConditions
+                : symbolConditions.computeIfAbsent(rule.getSymbol(), key -> newFieldLists());
+            for (PremiumAlertRule.Condition condition : rule.getConditions()) {
+                target.get(condition.getField().ordinal()).add(condition);
+                conditions++;
+            }
+        }
+        
+        this.rules = Collections.unmodifiableMap(byId);
+        this.conditionCount = conditions;
+        this.anyCoin = build(anyCoinConditions);
+        this.bySymbol = new HashMap<>();
+        for (Map.Entry<String, List<List<PremiumAlertRule.Condition>>> entry : symbolConditions.entrySet()) {
+            bySymbol.put(entry.getKey(), build(entry.getValue()));
+        }
+    }
+    
+    PremiumAlertIndex with(PremiumAlertRule rule) {
+        List<PremiumAlertRule> next = new ArrayList<>(rules.values());
+        next.add(rule);
+        return new PremiumAlertIndex(next);
+    }
+    
+    PremiumAlertIndex without(int ruleId) {
+        List<PremiumAlertRule> next = new ArrayList<>(rules.values());
+        next.removeIf(rule -> rule.getId() == ruleId);
+        return new PremiumAlertIndex(next);
+    }
+    
+    PremiumAlertRule getRule(int ruleId) {
+        return rules.get(ruleId);
+    }
+    
+    // 규칙 id순
+    Collection<PremiumAlertRule> getRules() {
+        return rules.values();
+    }
+    
+    int getConditionCount() {
+        return conditionCount;
+    }
+    
+    // 값이 before에서 after로 바뀔 때 상태가 바뀔 수 있는 조건 전달
+    // (둘 중 하나가 NaN이면 값이 생기거나 사라진 것이므로 해당 항목의 조건 전체)
+    void forEachCandidate(String symbol, PremiumField field, double before, double after,
+                          Consumer<PremiumAlertRule.Condition> action) {
+        FieldIndex common = anyCoin[field.ordinal()];
+        if (common != null) {
+            common.forEach(before, after, action);
+        }
+        FieldIndex[] symbolIndex = bySymbol.get(symbol);
+        if (symbolIndex != null && symbolIndex[field.ordinal()] != null) {
+            symbolIndex[field.ordinal()].forEach(before, after, action);
+        }
+    }
+    
+    private static List<List<PremiumAlertRule.Condition>> newFieldLists() {
+        List<List<PremiumAlertRule.Condition>> lists = new ArrayList<>();
+        for (int i = 0; i < PremiumField.values().length; i++) {
+            lists.add(new ArrayList<>());
+        }
+        return lists;
+    }
+    
+    private static FieldIndex[] build(List<List<PremiumAlertRule.Condition>> fieldConditions) {
+        FieldIndex[] indexes = new FieldIndex[fieldConditions.size()];
+        for (int field = 0; field < indexes.length; field++) {
+            if (!fieldConditions.get(field).isEmpty()) {
+                indexes[field] = new FieldIndex(fieldConditions.get(field));
+            }
+        }
+        return indexes;
+    }
+    
+    // 항목 하나의 정렬된 경계값 배열 (조건마다 임계값, hysteresis가 있으면 해제 경계도 추가)
+    private static final class FieldIndex {
+        private final double[] bounds;
+        private final PremiumAlertRule.Condition[] conditions;
+        
+        FieldIndex(List<PremiumAlertRule.Condition> fieldConditions) {
+            List<Double> entryBounds = new ArrayList<>();
+            List<PremiumAlertRule.Condition> entryConditions = new ArrayList<>();
+            for (PremiumAlertRule.Condition condition : fieldConditions) {
+                entryBounds.add(condition.getThreshold());
+                entryConditions.add(condition);
+                if (condition.getReleaseBound() != condition.getThreshold()) {
+                    entryBounds.add(condition.getReleaseBound());
+                    entryConditions.add(condition);
+                }
+            }
+            
+            Integer[] order = new Integer[entryBounds.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(entryBounds.get(a), entryBounds.get(b)));
+            
+            bounds = new double[order.length];
+            conditions = new PremiumAlertRule.Condition[order.length];
+            for (int i = 0; i < order.length; i++) {
+                bounds[i] = entryBounds.get(order[i]);
+                conditions[i] = entryConditions.get(order[i]);
+            }
+        }
+        
+        void forEach(double before, double after, Consumer<PremiumAlertRule.Condition> action) {
+            int from = 0;
+            int to = bounds.length;
+            if (!Double.isNaN(before) && !Double.isNaN(after)) {
+                // [min, max] 구간의 경계만 (양 끝 포함)
+                from = lowerBound(Math.min(before, after));
+                to = lowerBound(Math.nextUp(Math.max(before, after)));
+            }
+            for (int i = from; i < to; i++) {
+                action.accept(conditions[i]);
+            }
+        }
+        
+        // value 이상인 첫 위치
+        private int lowerBound(double value) {
+            int index = Arrays.binarySearch(bounds, value);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && bounds[index - 1] == value) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+// 김프 알림 규칙 (불변)
+// 조건은 모두 만족해야 하며(AND), 코인을 지정하지 않으면 모든 코인에 각각 적용된다
+// 예: {"symbol": "BTC", "conditions": [{"field": "upbitPremium", "op": ">", "threshold": 3}]}
+//     {"conditions": [{"field": "totalVolume24h", "op": ">", "threshold": 1e10},
+//                     {"field": "bithumbPremium", "op": "<", "threshold": -2, "hysteresis": 0.2}]}
+public final class PremiumAlertRule {
+    
+    private final int id;
+    private final String symbol;
+    private final List<Condition> conditions;
+    private final long cooldownMs;
+    private final String webhook;
+    private final long createdAt;
+    
+    private PremiumAlertRule(int id, String symbol, List<Condition> conditions, long cooldownMs, String webhook,
+                             long createdAt) {
+        this.id = id;
+        this.symbol = symbol;
+        this.conditions = Collections.unmodifiableList(conditions);
+        this.cooldownMs = cooldownMs;
+        this.webhook = webhook;
+        this.createdAt = createdAt;
+    }
+    
+    // 요청 본문으로 규칙 생성 (형식이 잘못되면 IllegalArgumentException)
+    static PremiumAlertRule parse(int id, IntSupplier conditionIds, Map<String, Object> request, long now) {
+        if (request == null) {
+            throw new IllegalArgumentException("규칙 본문이 없습니다.");
+        }
+        
+        Object symbolValue = request.get("symbol");
+        String symbol = symbolValue == null || "*".equals(symbolValue) || symbolValue.toString().isBlank()
+            ? null
+            : symbolValue.toString().trim().toUpperCase();
+        
+        if (!(request.get("conditions") instanceof List<?> rawConditions) || rawConditions.isEmpty()) {
+            throw new IllegalArgumentException("conditions에 조건을 하나 이상 지정해야 합니다.");
+        }
+        List<Condition> conditions = new ArrayList<>();
+        for (Object raw : rawConditions) {
+            if (!(raw instanceof Map<?, ?> condition)) {
+                throw new IllegalArgumentException("조건 형식이 잘못되었습니다: " + raw);
+            }
+            conditions.add(parseCondition(conditionIds.getAsInt(), id, condition));
+        }
+        
+        long cooldownMs = number(request.get("cooldownMs"), 60_000L, "cooldownMs").longValue();
+        if (cooldownMs < 0) {
+            throw new IllegalArgumentException("cooldownMs는 0 이상이어야 합니다.");
+        }
+        Object webhook = request.get("webhook");
+        return new PremiumAlertRule(id, symbol, conditions, cooldownMs,
+            webhook != null && !webhook.toString().isBlank() ? webhook.toString().trim() : null, now);
+    }
+    
+    private static Condition parseCondition(int id, int ruleId, Map<?, ?> condition) {
+        Object fieldName = condition.get("field");
+        PremiumField field = fieldName != null ? PremiumField.fromJsonName(fieldName.toString()) : null;
+        if (field == null) {
+            throw new IllegalArgumentException("알 수 없는 항목입니다: " + fieldName);
+        }
+        
+        Object op = condition.get("op");
+        boolean above;
+        if (">".equals(op) || "above".equals(op)) {
+            above = true;
+        } else if ("<".equals(op) || "below".equals(op)) {
+            above = false;
+        } else {
+            throw new IllegalArgumentException("op는 > 또는 < 이어야 합니다: " + op);
+        }
+        
+        double threshold = number(condition.get("threshold"), null, "threshold").doubleValue();
+        double hysteresis = number(condition.get("hysteresis"), 0, "hysteresis").doubleValue();
+        if (Double.isNaN(threshold) || Double.isInfinite(threshold) || !(hysteresis >= 0) || Double.isInfinite(hysteresis)) {
+            throw new IllegalArgumentException("threshold는 유한한 값, hysteresis는 0 이상이어야 합니다.");
+        }
+        return new Condition(id, ruleId, field, above, threshold, hysteresis);
+    }
+    
+    private static Number number(Object value, Number defaultValue, String name) {
+        if (value == null) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException(name + " 값이 필요합니다.");
+            }
+            return defaultValue;
+        }
+        if (value instanceof Number number) {
+            return number;
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " 값이 숫자가 아닙니다: " + value);
+        }
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    // 대상 코인 (null이면 모든 코인)
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+    
+    // 같은 코인에 대해 다시 알림을 보내기까지의 최소 간격
+    public long getCooldownMs() {
+        return cooldownMs;
+    }
+    
+    public String getWebhook() {
+        return webhook;
+    }
+    
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> conditionMaps = new ArrayList<>();
+        for (Condition condition : conditions) {
+            conditionMaps.add(condition.toMap());
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("symbol", symbol != null ? symbol : "*");
+        result.put("conditions", conditionMaps);
+        result.put("cooldownMs", cooldownMs);
+        result.put("webhook", webhook);
+        result.put("createdAt", createdAt);
+        return result;
+    }
+    
+    // 조건 하나 (임계값을 넘으면 만족, hysteresis만큼 되돌아와야 해제)
+    public static final class Condition {
+        private final int id;
+        private final int ruleId;
+        private final PremiumField field;
+        private final boolean above;
+        private final double threshold;
+        private final double hysteresis;
+        
+        Condition(int id, int ruleId, PremiumField field, boolean above, double threshold, double hysteresis) {
+            this.id = id;
+            this.ruleId = ruleId;
+            this.field = field;
+            this.above = above;
+            this.threshold = threshold;
+            this.hysteresis = hysteresis;
+        }
+        
+        // 코인별 만족 여부 저장 위치 (규칙이 추가/삭제되어도 바뀌지 않음)
+        int getId() {
+            return id;
+        }
+        
+        int getRuleId() {
+            return ruleId;
+        }
+        
+        public PremiumField getField() {
+            return field;
+        }
+        
+        double getThreshold() {
+            return threshold;
+        }
+        
+        // 해제 경계 (hysteresis가 0이면 임계값과 같음)
+        double getReleaseBound() {
+            return above ? threshold - hysteresis : threshold + hysteresis;
+        }
+        
+        // 현재 만족 여부와 새 값으로 다음 만족 여부 계산 (값이 없으면 해제)
+        boolean next(boolean satisfied, double value) {
+            if (Double.isNaN(value)) {
+                return false;
+            }
+            if (above) {
+                return satisfied ? value > getReleaseBound() : value > threshold;
+            }
+            return satisfied ? value < getReleaseBound() : value < threshold;
+        }
+        
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("field", field.getJsonName());
+            result.put("op", above ? ">" : "<");
+            result.put("threshold", threshold);
+            result.put("hysteresis", hysteresis);
+            return result;
+        }
+    }
+}
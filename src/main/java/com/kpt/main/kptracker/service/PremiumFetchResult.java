@@ -0,0 +1,28 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.Map;
+
+// 김프 데이터 조회 결과 (코인별 데이터 + 소스별 조회 상태)
+public final class PremiumFetchResult {
+    
+    private final PremiumTable table;
+    private final Map<String, SourceStatus> sources;
+    
+    public PremiumFetchResult(PremiumTable table, Map<String, SourceStatus> sources) {
+        this.table = table;
+        this.sources = sources;
+    }
+    
+    public PremiumTable getTable() {
+        return table;
+    }
+    
+    public Map<String, SourceStatus> getSources() {
+        return sources;
+    }
+    
+    // 모든 소스가 정상 조회되었는지 여부
+    public boolean isComplete() {
+        return sources.values().stream().allMatch(status -> status.getState() == SourceStatus.State.OK);
+    }
+}
@@ -0,0 +1,34 @@
+package com.kpt.main.kptracker.service;
+
+// 코인별 김프 데이터 숫자 항목 (JSON 필드명과 동일)
+public enum PremiumField {
+    
+    UPBIT("upbit"),
+    BITHUMB("bithumb"),
+    BINANCE("binance"),
+    UPBIT_VOLUME_24H("upbitVolume24h"),
+    BITHUMB_VOLUME_24H("bithumbVolume24h"),
+    TOTAL_VOLUME_24H("totalVolume24h"),
+    UPBIT_PREMIUM("upbitPremium"),
+    BITHUMB_PREMIUM("bithumbPremium");
+    
+    private final String jsonName;
+    
+    PremiumField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+    
+    public String getJsonName() {
+        return jsonName;
+    }
+    
+    // JSON 필드명으로 항목 찾기 (없으면 null)
+    public static PremiumField fromJsonName(String jsonName) {
+        for (PremiumField field : values()) {
+            if (field.jsonName.equalsIgnoreCase(jsonName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
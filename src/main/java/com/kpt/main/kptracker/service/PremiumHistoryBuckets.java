@@ -0,0 +1,88 @@
+package com.kpt.main.kptracker.service;
+
+// 이력 다운샘플링 구간 (step 간격 구간별 필드 min/max/합계/개수)
+// 구간 시작은 step의 배수로 맞추므로 step이 1분의 배수면 분 집계와 경계가 일치한다
+final class PremiumHistoryBuckets {
+    
+    private final long from;
+    private final long step;
+    private final int bucketCount;
+    private final double[][] minimums;
+    private final double[][] maximums;
+    private final double[][] sums;
+    private final int[][] counts;
+    
+    PremiumHistoryBuckets(long from, long to, long step, int fieldCount) {
+        this.from = Math.floorDiv(from, step) * step;
+        this.step = step;
+        this.bucketCount = (int) ((to - this.from) / step) + 1;
+        this.minimums = new double[fieldCount][bucketCount];
+        this.maximums = new double[fieldCount][bucketCount];
+        this.sums = new double[fieldCount][bucketCount];
+        this.counts = new int[fieldCount][bucketCount];
+    }
+    
+    // 구간 개수 계산 (생성 전 요청 크기 확인용)
+    static long bucketCount(long from, long to, long step) {
+        return (to - Math.floorDiv(from, step) * step) / step + 1;
+    }
+    
+    long getFrom() {
+        return from;
+    }
+    
+    int getBucketCount() {
+        return bucketCount;
+    }
+    
+    long bucketStart(int bucket) {
+        return from + bucket * step;
+    }
+    
+    // 원본 값 하나 추가 (NaN은 무시)
+    void add(long timestamp, int field, double value) {
+        if (!Double.isNaN(value)) {
+            merge(timestamp, field, value, value, value, 1);
+        }
+    }
+    
+    // 미리 집계된 값 합치기
+    void merge(long timestamp, int field, double min, double max, double sum, int count) {
+        int bucket = (int) Math.floorDiv(timestamp - from, step);
+        if (count == 0 || bucket < 0 || bucket >= bucketCount) {
+            return;
+        }
+        if (counts[field][bucket] == 0) {
+            minimums[field][bucket] = min;
+            maximums[field][bucket] = max;
+        } else {
+            minimums[field][bucket] = Math.min(minimums[field][bucket], min);
+            maximums[field][bucket] = Math.max(maximums[field][bucket], max);
+        }
+        sums[field][bucket] += sum;
+        counts[field][bucket] += count;
+    }
+    
+    // 구간에 값이 하나라도 있는지
+    boolean hasData(int bucket) {
+        for (int[] fieldCounts : counts) {
+            if (fieldCounts[bucket] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // 값이 없으면 null
+    Double min(int field, int bucket) {
+        return counts[field][bucket] > 0 ? minimums[field][bucket] : null;
+    }
+    
+    Double max(int field, int bucket) {
+        return counts[field][bucket] > 0 ? maximums[field][bucket] : null;
+    }
+    
+    Double avg(int field, int bucket) {
+        return counts[field][bucket] > 0 ? sums[field][bucket] / counts[field][bucket] : null;
+    }
+}
@@ -0,0 +1,303 @@
+package com.kpt.main.kptracker.service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// 김프 이력 세그먼트 색인 (코인별 1분 집계 + 코인별 레코드 번호)
+// 기록 중인 세그먼트는 메모리에 쌓고, 세그먼트를 닫을 때 세그먼트 옆에 색인 파일(.idx)로 저장한다
+// 디스크 이력 조회는 원본 레코드를 모두 훑지 않고 분 집계나 해당 코인 레코드만 읽는다
+//
+// 헤더: magic(int) | format(int) | fieldCount(int) | 코인 수(int)
+// 목록: 심볼(16바이트 ASCII, 0으로 채움) | 분 집계 수(int) | 레코드 수(int) | 코인 영역 위치(long)
+// 코인 영역: 분 집계(분 시작 시각(long) | 필드별 min/max/합계(double) 개수(int)) | 레코드 번호(int)
+final class PremiumHistoryIndex {
+    
+    static final int MAGIC = 0x4B504849;  // "KPHI"
+    static final int FORMAT_VERSION = 1;
+    
+    private static final int FIELD_COUNT = PremiumHistoryStore.FIELD_COUNT;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = PremiumHistorySegment.SYMBOL_BYTES + 4 + 4 + 8;
+    private static final int MINUTE_SIZE = 8 + FIELD_COUNT * (3 * 8 + 4);
+    
+    private final Map<String, CoinIndex> coins = new HashMap<>();
+    
+    // 레코드 하나 반영 (기록 스레드에서 시간순으로 호출)
+    synchronized void add(String symbol, int record, long timestamp, double[] values) {
+        coins.computeIfAbsent(symbol, key -> new CoinIndex()).add(record, timestamp, values);
+    }
+    
+    // 코인 색인 복사본 (기록 중에도 조회할 수 있도록, 없으면 null)
+    synchronized CoinIndex get(String symbol) {
+        CoinIndex coin = coins.get(symbol);
+        return coin != null ? coin.copy() : null;
+    }
+    
+    // 색인 파일 저장 (임시 파일에 쓴 뒤 이름을 바꿔 교체)
+    synchronized void write(Path path) throws IOException {
+        long size = HEADER_SIZE + (long) coins.size() * ENTRY_SIZE;
+        for (CoinIndex coin : coins.values()) {
+            size += coin.sectionSize();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size));
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(FIELD_COUNT).putInt(coins.size());
+        
+        long offset = HEADER_SIZE + (long) coins.size() * ENTRY_SIZE;
+        for (Map.Entry<String, CoinIndex> entry : coins.entrySet()) {
+            CoinIndex coin = entry.getValue();
+            buffer.put(PremiumHistorySegment.encodeSymbol(entry.getKey()));
+            buffer.putInt(coin.minuteCount).putInt(coin.recordCount).putLong(offset);
+            offset += coin.sectionSize();
+        }
+        for (CoinIndex coin : coins.values()) {
+            coin.writeTo(buffer);
+        }
+        
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    // 색인 파일의 코인 목록 읽기 (없거나 형식이 다르거나 잘린 파일이면 null)
+    static Stored open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (PremiumHistorySegment.readFully(channel, header, 0) < HEADER_SIZE
+                    || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION
+                    || header.getInt(8) != FIELD_COUNT) {
+                return null;
+            }
+            int coinCount = header.getInt(12);
+            if (coinCount < 0 || HEADER_SIZE + (long) coinCount * ENTRY_SIZE > channel.size()) {
+                return null;
+            }
+            
+            ByteBuffer list = ByteBuffer.allocate(coinCount * ENTRY_SIZE);
+            PremiumHistorySegment.readFully(channel, list, HEADER_SIZE);
+            list.flip();
+            Map<String, Entry> entries = new HashMap<>(coinCount * 2);
+            byte[] symbol = new byte[PremiumHistorySegment.SYMBOL_BYTES];
+            for (int i = 0; i < coinCount; i++) {
+                list.get(symbol);
+                Entry entry = new Entry(list.getInt(), list.getInt(), list.getLong());
+                if (entry.minuteCount < 0 || entry.recordCount < 0
+                        || entry.offset + entry.sectionSize() > channel.size()) {
+                    return null;
+                }
+                entries.put(decodeSymbol(symbol), entry);
+            }
+            return new Stored(path, entries);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+    
+    static String decodeSymbol(byte[] symbol) {
+        int length = 0;
+        while (length < symbol.length && symbol[length] != 0) {
+            length++;
+        }
+        return new String(symbol, 0, length, StandardCharsets.US_ASCII);
+    }
+    
+    // 저장된 색인 파일 (코인 목록만 메모리에 두고 코인 영역은 조회할 때 읽음)
+    static final class Stored {
+        private final Path path;
+        private final Map<String, Entry> entries;
+        
+        private Stored(Path path, Map<String, Entry> entries) {
+            this.path = path;
+            this.entries = entries;
+        }
+        
+        // 코인 하나의 색인 (없는 코인이거나 읽지 못하면 null)
+        CoinIndex read(String symbol) throws IOException {
+            Entry entry = entries.get(symbol);
+            if (entry == null) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer section = ByteBuffer.allocate(Math.toIntExact(entry.sectionSize()));
+                if (PremiumHistorySegment.readFully(channel, section, entry.offset) < section.limit()) {
+                    return null;
+                }
+                section.flip();
+                return CoinIndex.readFrom(section, entry.minuteCount, entry.recordCount);
+            } catch (BufferUnderflowException e) {
+                return null;
+            }
+        }
+    }
+    
+    private static final class Entry {
+        final int minuteCount;
+        final int recordCount;
+        final long offset;
+        
+        Entry(int minuteCount, int recordCount, long offset) {
+            this.minuteCount = minuteCount;
+            this.recordCount = recordCount;
+            this.offset = offset;
+        }
+        
+        long sectionSize() {
+            return (long) minuteCount * MINUTE_SIZE + (long) recordCount * 4;
+        }
+    }
+    
+    // 코인 하나의 분 집계와 레코드 번호 (시간순)
+    static final class CoinIndex {
+        private long[] minutes;
+        // [분 * FIELD_COUNT + 필드]
+        private double[] minimums;
+        private double[] maximums;
+        private double[] sums;
+        private int[] counts;
+        private int minuteCount;
+        private int[] records;
+        private int recordCount;
+        
+        CoinIndex() {
+            this(8, 64);
+        }
+        
+        private CoinIndex(int minuteCapacity, int recordCapacity) {
+            minutes = new long[minuteCapacity];
+            minimums = new double[minuteCapacity * FIELD_COUNT];
+            maximums = new double[minuteCapacity * FIELD_COUNT];
+            sums = new double[minuteCapacity * FIELD_COUNT];
+            counts = new int[minuteCapacity * FIELD_COUNT];
+            records = new int[recordCapacity];
+        }
+        
+        int getRecordCount() {
+            return recordCount;
+        }
+        
+        int getRecord(int index) {
+            return records[index];
+        }
+        
+        // 분 집계를 구간별로 합침 (구간 크기가 1분의 배수일 때만 정확)
+        void aggregateRollups(long from, long to, PremiumHistoryBuckets buckets) {
+            for (int minute = 0; minute < minuteCount; minute++) {
+                if (minutes[minute] < from) {
+                    continue;
+                }
+                if (minutes[minute] > to) {
+                    break;
+                }
+                int base = minute * FIELD_COUNT;
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    buckets.merge(minutes[minute], field, minimums[base + field], maximums[base + field],
+                        sums[base + field], counts[base + field]);
+                }
+            }
+        }
+        
+        private void add(int record, long timestamp, double[] values) {
+            if (recordCount == records.length) {
+                records = Arrays.copyOf(records, recordCount * 2);
+            }
+            records[recordCount++] = record;
+            
+            long minute = Math.floorDiv(timestamp, PremiumSeries.ROLLUP_MS) * PremiumSeries.ROLLUP_MS;
+            if (minuteCount == 0 || minutes[minuteCount - 1] != minute) {
+                if (minuteCount == minutes.length) {
+                    growMinutes(minuteCount * 2);
+                }
+                minutes[minuteCount++] = minute;
+            }
+            
+            int base = (minuteCount - 1) * FIELD_COUNT;
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                double value = values[field];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                int index = base + field;
+                if (counts[index] == 0) {
+                    minimums[index] = value;
+                    maximums[index] = value;
+                } else {
+                    minimums[index] = Math.min(minimums[index], value);
+                    maximums[index] = Math.max(maximums[index], value);
+                }
+                sums[index] += value;
+                counts[index]++;
+            }
+        }
+        
+        private void growMinutes(int capacity) {
+            minutes = Arrays.copyOf(minutes, capacity);
+            minimums = Arrays.copyOf(minimums, capacity * FIELD_COUNT);
+            maximums = Arrays.copyOf(maximums, capacity * FIELD_COUNT);
+            sums = Arrays.copyOf(sums, capacity * FIELD_COUNT);
+            counts = Arrays.copyOf(counts, capacity * FIELD_COUNT);
+        }
+        
+        private CoinIndex copy() {
+            CoinIndex copy = new CoinIndex(Math.max(1, minuteCount), Math.max(1, recordCount));
+            System.arraycopy(minutes, 0, copy.minutes, 0, minuteCount);
+            System.arraycopy(minimums, 0, copy.minimums, 0, minuteCount * FIELD_COUNT);
+            System.arraycopy(maximums, 0, copy.maximums, 0, minuteCount * FIELD_COUNT);
+            System.arraycopy(sums, 0, copy.sums, 0, minuteCount * FIELD_COUNT);
+            System.arraycopy(counts, 0, copy.counts, 0, minuteCount * FIELD_COUNT);
+            System.arraycopy(records, 0, copy.records, 0, recordCount);
+            copy.minuteCount = minuteCount;
+            copy.recordCount = recordCount;
+            return copy;
+        }
+        
+        private long sectionSize() {
+            return (long) minuteCount * MINUTE_SIZE + (long) recordCount * 4;
+        }
+        
+        private void writeTo(ByteBuffer buffer) {
+            for (int minute = 0; minute < minuteCount; minute++) {
+                buffer.putLong(minutes[minute]);
+                int base = minute * FIELD_COUNT;
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    buffer.putDouble(minimums[base + field]);
+                    buffer.putDouble(maximums[base + field]);
+                    buffer.putDouble(sums[base + field]);
+                    buffer.putInt(counts[base + field]);
+                }
+            }
+            for (int i = 0; i < recordCount; i++) {
+                buffer.putInt(records[i]);
+            }
+        }
+        
+        private static CoinIndex readFrom(ByteBuffer buffer, int minuteCount, int recordCount) {
+            CoinIndex coin = new CoinIndex(Math.max(1, minuteCount), Math.max(1, recordCount));
+            for (int minute = 0; minute < minuteCount; minute++) {
+                coin.minutes[minute] = buffer.getLong();
+                int base = minute * FIELD_COUNT;
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    coin.minimums[base + field] = buffer.getDouble();
+                    coin.maximums[base + field] = buffer.getDouble();
+                    coin.sums[base + field] = buffer.getDouble();
+                    coin.counts[base + field] = buffer.getInt();
+                }
+            }
+            for (int i = 0; i < recordCount; i++) {
+                coin.records[i] = buffer.getInt();
+            }
+            coin.minuteCount = minuteCount;
+            coin.recordCount = recordCount;
+            return coin;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.kpt.main.kptracker.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// 김프 이력 세그먼트 파일 (고정 길이 레코드를 시간순으로 추가만 함)
+// 헤더(32바이트) 뒤에 레코드가 쌓이며, 기록 중인 세그먼트만 메모리 매핑하고 닫힌 세그먼트는 파일에서 읽는다
+// 조회는 코인별 색인(PremiumHistoryIndex, 닫힌 세그먼트는 옆의 .idx 파일)으로 해당 코인의 분 집계나 레코드만 읽는다
+//
+// 헤더: magic(int) | format(int) | recordSize(int) | capacity(int) | startTime(long) | count(int) | 예약(int)
+// 레코드: timestamp(long) | symbol(16바이트 ASCII, 0으로 채움) | 값 PremiumHistoryStore.FIELD_COUNT개(double)
+final class PremiumHistorySegment {
+    
+    static final int MAGIC = 0x4B504853;  // "KPHS"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int SYMBOL_BYTES = 16;
+    static final int RECORD_SIZE = 8 + SYMBOL_BYTES + PremiumHistoryStore.FIELD_COUNT * 8;
+    
+    private static final int COUNT_OFFSET = 24;
+    private static final int READ_CHUNK_RECORDS = 1024;
+    
+    // 레코드 조회 콜백 (values 배열은 재사용되므로 호출 안에서만 사용)
+    interface RecordVisitor {
+        void visit(long timestamp, double[] values);
+    }
+    
+    private final Path path;
+    private final long startTime;
+    private final int capacity;
+    
+    // 기록 중일 때만 매핑 (닫히면 null)
+    private volatile MappedByteBuffer buffer;
+    private volatile int count;
+    private volatile long lastTimestamp;
+    
+    // 기록 중이거나 색인 파일 저장에 실패한 세그먼트의 메모리 색인 (그 외에는 null)
+    private volatile PremiumHistoryIndex index;
+    // 색인 파일 코인 목록 (처음 조회할 때 읽음)
+    private PremiumHistoryIndex.Stored storedIndex;
+    
+    private PremiumHistorySegment(Path path, long startTime, int capacity, int count, long lastTimestamp,
+                                  MappedByteBuffer buffer, PremiumHistoryIndex index) {
+        this.path = path;
+        this.startTime = startTime;
+        this.capacity = capacity;
+        this.count = count;
+        this.lastTimestamp = lastTimestamp;
+        this.buffer = buffer;
+        this.index = index;
+    }
+    
+    // 새 세그먼트 생성 (파일 전체를 미리 매핑)
+    static PremiumHistorySegment create(Path directory, long startTime, int capacity) throws IOException {
+        Path path = directory.resolve(String.format("premium-%013d.seg", startTime));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putInt(8, RECORD_SIZE);
+            buffer.putInt(12, capacity);
+            buffer.putLong(16, startTime);
+            buffer.putInt(COUNT_OFFSET, 0);
+            return new PremiumHistorySegment(path, startTime, capacity, 0, startTime, buffer, new PremiumHistoryIndex());
+        }
+    }
+    
+    // 기존 세그먼트 열기 (읽기 전용, 형식이 다르면 null)
+    static PremiumHistorySegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (readFully(channel, header, 0) < HEADER_SIZE) {
+                return null;
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION || header.getInt(8) != RECORD_SIZE) {
+                return null;
+            }
+            
+            int capacity = header.getInt(12);
+            long startTime = header.getLong(16);
+            // 기록 도중 종료된 경우를 대비해 파일 크기로도 제한
+            long stored = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+            int count = (int) Math.max(0, Math.min(header.getInt(COUNT_OFFSET), Math.min(stored, capacity)));
+            
+            long lastTimestamp = startTime;
+            if (count > 0) {
+                ByteBuffer last = ByteBuffer.allocate(8);
+                readFully(channel, last, HEADER_SIZE + (long) (count - 1) * RECORD_SIZE);
+                lastTimestamp = last.getLong(0);
+            }
+            return new PremiumHistorySegment(path, startTime, capacity, count, lastTimestamp, null, null);
+        }
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    long getStartTime() {
+        return startTime;
+    }
+    
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+    
+    int getCount() {
+        return count;
+    }
+    
+    boolean isFull() {
+        return count >= capacity;
+    }
+    
+    boolean overlaps(long from, long to) {
+        return count > 0 && startTime <= to && lastTimestamp >= from;
+    }
+    
+    // 레코드 추가 (기록 스레드 하나에서만 호출, encoded는 encodeSymbol 결과)
+    void append(long timestamp, String symbol, byte[] encoded, double[] values) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null || isFull()) {
+            throw new IllegalStateException("세그먼트에 기록할 수 없음: " + path.getFileName());
+        }
+        
+        int offset = HEADER_SIZE + count * RECORD_SIZE;
+        mapped.putLong(offset, timestamp);
+        mapped.put(offset + 8, encoded, 0, Math.min(encoded.length, SYMBOL_BYTES));
+        for (int field = 0; field < values.length; field++) {
+            mapped.putDouble(offset + 8 + SYMBOL_BYTES + field * 8, values[field]);
+        }
+        
+        // 레코드를 다 쓴 뒤에 개수를 올려야 읽는 쪽에서 반쯤 쓴 레코드를 보지 않음
+        lastTimestamp = timestamp;
+        mapped.putInt(COUNT_OFFSET, count + 1);
+        count = count + 1;
+        // 색인은 개수를 올린 뒤에 반영 (색인에 있는 레코드는 항상 다 쓴 레코드)
+        index.add(symbol, count - 1, timestamp, values);
+    }
+    
+    // 기록 종료 (디스크에 반영하고 매핑 해제, 색인은 파일로 저장)
+    void close() {
+        MappedByteBuffer mapped = buffer;
+        if (mapped != null) {
+            mapped.force();
+            buffer = null;
+        }
+        
+        PremiumHistoryIndex written = index;
+        if (written != null) {
+            try {
+                written.write(indexPath());
+                index = null;
+            } catch (IOException e) {
+                // 저장에 실패하면 메모리 색인을 계속 사용
+                System.err.println("김프 이력 색인 저장 실패 (" + path.getFileName() + "): " + e.getMessage());
+            }
+        }
+    }
+    
+    // symbol의 [from, to] 구간 분 집계를 buckets에 합침 (구간 크기가 1분의 배수일 때만 정확)
+    void aggregateRollups(String symbol, long from, long to, PremiumHistoryBuckets buckets) throws IOException {
+        PremiumHistoryIndex.CoinIndex coin = coinIndex(symbol);
+        if (coin != null) {
+            coin.aggregateRollups(from, to, buckets);
+        }
+    }
+    
+    // symbol의 [from, to] 구간 레코드를 시간순으로 전달 (색인의 레코드 번호로 해당 코인 레코드만 읽음)
+    void scan(String symbol, long from, long to, RecordVisitor visitor) throws IOException {
+        PremiumHistoryIndex.CoinIndex coin = coinIndex(symbol);
+        if (coin == null) {
+            return;
+        }
+        double[] values = new double[PremiumHistoryStore.FIELD_COUNT];
+        
+        MappedByteBuffer mapped = buffer;
+        if (mapped != null) {
+            for (int i = 0; i < coin.getRecordCount(); i++) {
+                if (!visit(mapped, HEADER_SIZE + coin.getRecord(i) * RECORD_SIZE, from, to, values, visitor)) {
+                    return;
+                }
+            }
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            for (int i = 0; i < coin.getRecordCount(); i++) {
+                record.clear();
+                if (readFully(channel, record, HEADER_SIZE + (long) coin.getRecord(i) * RECORD_SIZE) < RECORD_SIZE) {
+                    return;
+                }
+                if (!visit(record, 0, from, to, values, visitor)) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(indexPath());
+    }
+    
+    // 코인 색인 (기록 중이면 메모리, 닫힌 세그먼트면 색인 파일에서 해당 코인만 읽음)
+    private PremiumHistoryIndex.CoinIndex coinIndex(String symbol) throws IOException {
+        PremiumHistoryIndex memory = index;
+        if (memory != null) {
+            return memory.get(symbol);
+        }
+        return loadStoredIndex().read(symbol);
+    }
+    
+    // 색인 파일 열기 (이전 버전에서 만들었거나 기록 도중 종료되어 없으면 레코드를 한 번 훑어 새로 만듦)
+    private synchronized PremiumHistoryIndex.Stored loadStoredIndex() throws IOException {
+        if (storedIndex == null) {
+            storedIndex = PremiumHistoryIndex.open(indexPath());
+        }
+        if (storedIndex == null) {
+            rebuildIndex().write(indexPath());
+            storedIndex = PremiumHistoryIndex.open(indexPath());
+            if (storedIndex == null) {
+                throw new IOException("색인 파일을 읽을 수 없음: " + indexPath().getFileName());
+            }
+        }
+        return storedIndex;
+    }
+    
+    private PremiumHistoryIndex rebuildIndex() throws IOException {
+        PremiumHistoryIndex rebuilt = new PremiumHistoryIndex();
+        int records = count;
+        byte[] symbol = new byte[SYMBOL_BYTES];
+        double[] values = new double[PremiumHistoryStore.FIELD_COUNT];
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK_RECORDS * RECORD_SIZE);
+            for (int first = 0; first < records; first += READ_CHUNK_RECORDS) {
+                int chunkRecords = Math.min(READ_CHUNK_RECORDS, records - first);
+                chunk.clear().limit(chunkRecords * RECORD_SIZE);
+                if (readFully(channel, chunk, HEADER_SIZE + (long) first * RECORD_SIZE) < chunk.limit()) {
+                    break;
+                }
+                for (int i = 0; i < chunkRecords; i++) {
+                    int offset = i * RECORD_SIZE;
+                    chunk.get(offset + 8, symbol);
+                    for (int field = 0; field < values.length; field++) {
+                        values[field] = chunk.getDouble(offset + 8 + SYMBOL_BYTES + field * 8);
+                    }
+                    rebuilt.add(PremiumHistoryIndex.decodeSymbol(symbol), first + i, chunk.getLong(offset), values);
+                }
+            }
+        }
+        return rebuilt;
+    }
+    
+    private Path indexPath() {
+        String name = path.getFileName().toString();
+        return path.resolveSibling(name.substring(0, name.length() - ".seg".length()) + ".idx");
+    }
+    
+    // 심볼을 레코드 형식(16바이트 ASCII)으로 변환 (너무 길면 null)
+    static byte[] encodeSymbol(String symbol) {
+        byte[] bytes = symbol.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > SYMBOL_BYTES) {
+            return null;
+        }
+        byte[] padded = new byte[SYMBOL_BYTES];
+        System.arraycopy(bytes, 0, padded, 0, bytes.length);
+        return padded;
+    }
+    
+    // 레코드 하나 확인 (to 이후 레코드를 만나면 false - 시간순이므로 더 볼 필요 없음)
+    private static boolean visit(ByteBuffer source, int offset, long from, long to, double[] values,
+                                 RecordVisitor visitor) {
+        long timestamp = source.getLong(offset);
+        if (timestamp > to) {
+            return false;
+        }
+        if (timestamp < from) {
+            return true;
+        }
+        for (int field = 0; field < values.length; field++) {
+            values[field] = source.getDouble(offset + 8 + SYMBOL_BYTES + field * 8);
+        }
+        visitor.visit(timestamp, values);
+        return true;
+    }
+    
+    static int readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        int total = 0;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,330 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 김프 이력 저장소
+// 새 스냅샷을 주기적으로 기록: 코인별 메모리 링 버퍼(원본 + 1분 집계)와 디스크 세그먼트 파일(고정 길이 레코드)에 함께 추가
+// 조회는 메모리에 남아 있는 구간이면 집계/원본을, 그보다 오래된 구간이면 해당 기간 세그먼트의 코인별 색인
+// (1분 집계, step이 1분의 배수가 아니면 해당 코인 레코드만)을 읽어서 다운샘플링
+@Service
+public class PremiumHistoryStore {
+    
+    // 기록하는 값 (김프 테이블 필드 + 환율)
+    static final PremiumField[] TABLE_FIELDS = {
+        PremiumField.UPBIT, PremiumField.BITHUMB, PremiumField.BINANCE,
+        PremiumField.UPBIT_PREMIUM, PremiumField.BITHUMB_PREMIUM
+    };
+    static final int EXCHANGE_RATE = TABLE_FIELDS.length;
+    static final int FIELD_COUNT = TABLE_FIELDS.length + 1;
+    
+    @Autowired
+    private PremiumSnapshotService premiumSnapshotService;
+    
+    @Value("${kp.history.enabled:true}")
+    private boolean diskEnabled;
+    
+    @Value("${kp.history.dir:data/history}")
+    private String directory;
+    
+    @Value("${kp.history.segment-records:131072}")
+    private int segmentRecords;
+    
+    @Value("${kp.history.segment-duration-ms:3600000}")
+    private long segmentDurationMs;
+    
+    @Value("${kp.history.retention-ms:86400000}")
+    private long retentionMs;
+    
+    @Value("${kp.history.memory-samples:360}")
+    private int memorySamples;
+    
+    @Value("${kp.history.memory-rollup-minutes:360}")
+    private int memoryRollupMinutes;
+    
+    @Value("${kp.history.max-points:2000}")
+    private int maxPoints;
+    
+    private final Map<String, PremiumSeries> series = new ConcurrentHashMap<>();
+    
+    // 시작 시각순 세그먼트 (마지막이 기록 중인 세그먼트)
+    private final List<PremiumHistorySegment> segments = new CopyOnWriteArrayList<>();
+    
+    // 디스크 기록을 못 하면 null (메모리 이력만 유지)
+    private volatile Path segmentDirectory;
+    
+    // 기록 스레드에서만 접근
+    private PremiumHistorySegment active;
+    private long lastRecordedVersion = -1;
+    private long lastRecordedAt;
+    
+    // 메모리 이력 시작 시각 (이전 구간은 디스크에만 있음)
+    private volatile long memorySince;
+    
+    @PostConstruct
+    public void init() {
+        memorySince = System.currentTimeMillis();
+        if (!diskEnabled) {
+            return;
+        }
+        
+        try {
+            Path path = Paths.get(directory);
+            Files.createDirectories(path);
+            
+            List<PremiumHistorySegment> loaded = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "premium-*.seg")) {
+                for (Path file : files) {
+                    PremiumHistorySegment segment = PremiumHistorySegment.open(file);
+                    if (segment != null) {
+                        loaded.add(segment);
+                    }
+                }
+            }
+            loaded.sort(Comparator.comparingLong(PremiumHistorySegment::getStartTime));
+            segments.addAll(loaded);
+            segmentDirectory = path;
+            
+            removeExpired(System.currentTimeMillis());
+        } catch (IOException e) {
+            System.err.println("김프 이력 저장소 초기화 실패: " + e.getMessage());
+        }
+    }
+    
+    // 새 스냅샷 기록 (버전이 바뀌지 않았거나 재시작 시 복원한 스냅샷이면 건너뜀 - 복원한 값은 이전 실행에서 이미 기록됨)
+    @Scheduled(fixedDelayString = "${kp.history.sample-interval-ms:10000}")
+    public synchronized void record() {
+        PremiumSnapshot snapshot = premiumSnapshotService.getSnapshot();
+        if (snapshot.getVersion() == lastRecordedVersion || snapshot.getTable().isEmpty() || snapshot.isRestored()) {
+            return;
+        }
+        lastRecordedVersion = snapshot.getVersion();
+        append(snapshot);
+    }
+    
+    // 코인 이력 조회 (from~to를 step 간격 구간으로 나눠 필드별 min/max/avg, 값이 있는 구간만)
+    public Map<String, Object> getHistory(String coin, long from, long to, long step) {
+        if (step <= 0 || from > to) {
+            throw new IllegalArgumentException("from은 to 이전이어야 하고 step은 0보다 커야 합니다.");
+        }
+        if (PremiumHistoryBuckets.bucketCount(from, to, step) > maxPoints) {
+            throw new IllegalArgumentException("조회 구간이 너무 많습니다. (최대 " + maxPoints + "개, step을 늘려주세요)");
+        }
+        
+        String symbol = coin.toUpperCase();
+        PremiumHistoryBuckets buckets = new PremiumHistoryBuckets(from, to, step, FIELD_COUNT);
+        String source = aggregate(symbol, buckets.getFrom(), to, step, buckets);
+        
+        Map<String, Object> history = new LinkedHashMap<>();
+        history.put("coin", symbol);
+        history.put("from", buckets.getFrom());
+        history.put("to", to);
+        history.put("step", step);
+        history.put("source", source);
+        
+        List<Long> times = new ArrayList<>();
+        List<Integer> filled = new ArrayList<>();
+        for (int bucket = 0; bucket < buckets.getBucketCount(); bucket++) {
+            if (buckets.hasData(bucket)) {
+                times.add(buckets.bucketStart(bucket));
+                filled.add(bucket);
+            }
+        }
+        history.put("t", times);
+        
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            List<Double> min = new ArrayList<>(filled.size());
+            List<Double> max = new ArrayList<>(filled.size());
+            List<Double> avg = new ArrayList<>(filled.size());
+            for (int bucket : filled) {
+                min.add(buckets.min(field, bucket));
+                max.add(buckets.max(field, bucket));
+                avg.add(buckets.avg(field, bucket));
+            }
+            
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("min", min);
+            values.put("max", max);
+            values.put("avg", avg);
+            history.put(fieldName(field), values);
+        }
+        return history;
+    }
+    
+    // 저장소 상태 (세그먼트 수, 디스크 사용량, 보관 기간)
+    public Map<String, Object> getStatus() {
+        long records = 0;
+        long oldest = 0;
+        for (PremiumHistorySegment segment : segments) {
+            records += segment.getCount();
+            if (oldest == 0 && segment.getCount() > 0) {
+                oldest = segment.getStartTime();
+            }
+        }
+        
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("disk", segmentDirectory != null);
+        status.put("segments", segments.size());
+        status.put("records", records);
+        status.put("diskBytes", segments.size() * (long) PremiumHistorySegment.HEADER_SIZE
+            + records * PremiumHistorySegment.RECORD_SIZE);
+        status.put("oldest", oldest);
+        status.put("retentionMs", retentionMs);
+        status.put("coins", series.size());
+        status.put("memorySince", memorySince);
+        return status;
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (active != null) {
+            active.close();
+        }
+    }
+    
+    // 조회 원본 선택: 분 집계 → 메모리 원본 → 디스크 세그먼트 분 집계 → 디스크 세그먼트 원본 순
+    // 구간에 걸친 세그먼트가 없으면 메모리 원본 (메모리 이력도 없으면 none)
+    private String aggregate(String symbol, long from, long to, long step, PremiumHistoryBuckets buckets) {
+        PremiumSeries coinSeries = series.get(symbol);
+        boolean minuteSteps = step % PremiumSeries.ROLLUP_MS == 0;
+        
+        if (coinSeries != null) {
+            // 메모리 이력 첫 분은 이전 실행 기록과 섞일 수 있으므로 다음 분부터 사용
+            long firstFullMinute = Math.floorDiv(memorySince, PremiumSeries.ROLLUP_MS) * PremiumSeries.ROLLUP_MS
+                + PremiumSeries.ROLLUP_MS;
+            if (minuteSteps && from >= coinSeries.rollupCoverageFrom(firstFullMinute)) {
+                coinSeries.aggregateRollups(from, to, buckets);
+                return "rollup";
+            }
+            if (from >= coinSeries.rawCoverageFrom(memorySince) || segmentDirectory == null) {
+                coinSeries.aggregateRaw(from, to, buckets);
+                return "memory";
+            }
+        }
+        
+        boolean scanned = false;
+        for (PremiumHistorySegment segment : segments) {
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+            scanned = true;
+            try {
+                if (minuteSteps) {
+                    segment.aggregateRollups(symbol, from, to, buckets);
+                } else {
+                    segment.scan(symbol, from, to, (timestamp, values) -> {
+                        for (int field = 0; field < FIELD_COUNT; field++) {
+                            buckets.add(timestamp, field, values[field]);
+                        }
+                    });
+                }
+            } catch (IOException e) {
+                System.err.println("김프 이력 세그먼트 조회 실패 (" + segment.getPath().getFileName() + "): "
+                    + e.getMessage());
+            }
+        }
+        if (!scanned) {
+            if (coinSeries == null) {
+                return "none";
+            }
+            coinSeries.aggregateRaw(from, to, buckets);
+            return "memory";
+        }
+        return minuteSteps ? "diskRollup" : "disk";
+    }
+    
+    private void append(PremiumSnapshot snapshot) {
+        // 시간순 기록 유지 (시스템 시계가 뒤로 가도 이전 기록보다 앞서지 않게)
+        long timestamp = Math.max(snapshot.getCreatedAt(), lastRecordedAt);
+        lastRecordedAt = timestamp;
+        
+        PremiumTable table = snapshot.getTable();
+        PremiumHistorySegment segment = writableSegment(timestamp);
+        double[] sample = new double[FIELD_COUNT];
+        
+        for (int row = 0; row < table.size(); row++) {
+            String symbol = table.symbol(row);
+            for (int field = 0; field < TABLE_FIELDS.length; field++) {
+                sample[field] = table.value(row, TABLE_FIELDS[field]);
+            }
+            sample[EXCHANGE_RATE] = table.getExchangeRate();
+            
+            series.computeIfAbsent(symbol, key -> new PremiumSeries(FIELD_COUNT, memorySamples, memoryRollupMinutes))
+                .add(timestamp, sample);
+            
+            byte[] encoded = PremiumHistorySegment.encodeSymbol(symbol);
+            if (segment == null || encoded == null) {
+                continue;
+            }
+            if (segment.isFull()) {
+                segment = rollover(timestamp);
+                if (segment == null) {
+                    continue;
+                }
+            }
+            segment.append(timestamp, symbol, encoded, sample);
+        }
+    }
+    
+    // 기록할 세그먼트 (없거나 가득 찼거나 기간이 지났으면 새로 생성)
+    private PremiumHistorySegment writableSegment(long timestamp) {
+        if (segmentDirectory == null) {
+            return null;
+        }
+        if (active == null || active.isFull() || timestamp - active.getStartTime() >= segmentDurationMs) {
+            return rollover(timestamp);
+        }
+        return active;
+    }
+    
+    private PremiumHistorySegment rollover(long timestamp) {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+        
+        try {
+            active = PremiumHistorySegment.create(segmentDirectory, timestamp, segmentRecords);
+            segments.add(active);
+        } catch (IOException e) {
+            System.err.println("김프 이력 세그먼트 생성 실패: " + e.getMessage());
+        }
+        removeExpired(timestamp);
+        return active;
+    }
+    
+    // 보관 기간이 지난 세그먼트 삭제 (디스크 사용량 제한)
+    private void removeExpired(long now) {
+        for (PremiumHistorySegment segment : segments) {
+            if (segment == active || segment.getLastTimestamp() >= now - retentionMs) {
+                continue;
+            }
+            try {
+                segment.delete();
+                segments.remove(segment);
+            } catch (IOException e) {
+                System.err.println("김프 이력 세그먼트 삭제 실패: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static String fieldName(int field) {
+        return field == EXCHANGE_RATE ? "exchangeRate" : TABLE_FIELDS[field].getJsonName();
+    }
+}
@@ -0,0 +1,128 @@
+package com.kpt.main.kptracker.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// 직렬화된 김프 응답 (스냅샷 버전별로 한 번만 만들고 요청마다 그대로 재사용)
+public final class PremiumPayload {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    // 이보다 작은 응답은 압축하지 않음
+    private static final int MIN_COMPRESS_SIZE = 1024;
+    
+    private final byte[] json;
+    private volatile byte[] gzip;
+    
+    private PremiumPayload(byte[] json) {
+        this.json = json;
+    }
+    
+    public byte[] getJson() {
+        return json;
+    }
+    
+    public boolean isCompressible() {
+        return json.length >= MIN_COMPRESS_SIZE;
+    }
+    
+    // gzip 압축본 (처음 요청될 때 한 번만 압축)
+    public byte[] getGzip() {
+        byte[] compressed = gzip;
+        if (compressed == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compressed = out.toByteArray();
+            gzip = compressed;
+        }
+        return compressed;
+    }
+    
+    // 전체 데이터 ({"BTC": {...}, ...} - 기존 /api/premium/all 형식)
+    static PremiumPayload full(PremiumSnapshot snapshot) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.getTable().size() * 256);
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+            PremiumTableSerializer.writeTable(snapshot.getTable(), gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PremiumPayload(out.toByteArray());
+    }
+    
+    // 정렬/필터/페이지 결과 ({"version": N, "sort": .., "order": .., "total": 조건에 맞는 코인 수, "offset": .., "count": ..,
+    //                      "coins": [{"coin": "BTC", ...}, ...]})
+    static PremiumPayload view(PremiumSnapshot snapshot, PremiumQuery query) {
+        PremiumTable table = snapshot.getTable();
+        PremiumQuery.Result result = query.select(table);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(256, result.rows.length * 320));
+        
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeNumberField("version", snapshot.getVersion());
+            gen.writeStringField("sort", query.getSort());
+            gen.writeStringField("order", query.getOrder());
+            gen.writeNumberField("total", result.total);
+            gen.writeNumberField("offset", query.getOffset());
+            gen.writeNumberField("count", result.rows.length);
+            gen.writeArrayFieldStart("coins");
+            for (int row : result.rows) {
+                gen.writeStartObject();
+                gen.writeStringField("coin", table.symbol(row));
+                PremiumTableSerializer.writeCoinFields(table, row, gen);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PremiumPayload(out.toByteArray());
+    }
+    
+    // 변경분 ({"version": N, "since": M, "full": false, "updated": {"BTC": {...}}, "removed": ["XYZ"]})
+    // since가 없으면(보관 기간이 지난 버전 등) since=0, full=true로 전체 코인을 updated에 담음
+    static PremiumPayload delta(PremiumSnapshot since, PremiumSnapshot snapshot) {
+        PremiumTable table = snapshot.getTable();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeNumberField("version", snapshot.getVersion());
+            gen.writeNumberField("since", since != null ? since.getVersion() : 0);
+            gen.writeBooleanField("full", since == null);
+            
+            gen.writeObjectFieldStart("updated");
+            for (int row = 0; row < table.size(); row++) {
+                if (since == null || snapshot.getRowVersion(row) > since.getVersion()) {
+                    gen.writeFieldName(table.symbol(row));
+                    PremiumTableSerializer.writeCoin(table, row, gen);
+                }
+            }
+            gen.writeEndObject();
+            
+            // since 이후 없어진 코인
+            gen.writeArrayFieldStart("removed");
+            if (since != null) {
+                PremiumTable previous = since.getTable();
+                for (int row = 0; row < previous.size(); row++) {
+                    if (table.indexOf(previous.symbol(row)) < 0) {
+                        gen.writeString(previous.symbol(row));
+                    }
+                }
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PremiumPayload(out.toByteArray());
+    }
+}
@@ -0,0 +1,163 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 김프 스트림(SSE) 구독자 관리
+// 연결 시 전체 스냅샷(snapshot 이벤트)을 보내고, 이후에는 마지막으로 보낸 버전 이후 바뀐 코인만(delta 이벤트) 보낸다
+// 클라이언트별로 대기열을 두지 않고, 전송 중에 발행된 버전은 전송이 끝난 뒤 최신 버전 하나로 묶어 보낸다
+@Service
+public class PremiumPushService {
+    
+    @Autowired
+    private PremiumSnapshotService premiumSnapshotService;
+    
+    @Value("${kp.push.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+    
+    @Value("${kp.push.threads:4}")
+    private int pushThreads;
+    
+    private final Set<PushClient> clients = ConcurrentHashMap.newKeySet();
+    private ExecutorService pushExecutor;
+    
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        pushExecutor = Executors.newFixedThreadPool(pushThreads, runnable -> {
+            Thread thread = new Thread(runnable, "kp-push-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        premiumSnapshotService.addListener(snapshot -> clients.forEach(PushClient::signal));
+    }
+    
+    // 새 구독 (첫 메시지는 전체 스냅샷)
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        PushClient client = new PushClient(emitter);
+        
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(() -> {
+            client.close();
+            emitter.complete();
+        });
+        emitter.onError(error -> client.close());
+        
+        clients.add(client);
+        client.signal();
+        return emitter;
+    }
+    
+    public int getClientCount() {
+        return clients.size();
+    }
+    
+    // 유휴 연결 유지 및 끊긴 클라이언트 정리 (프록시 타임아웃 방지)
+    @Scheduled(fixedDelayString = "${kp.push.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (PushClient client : clients) {
+            client.heartbeatDue = true;
+            client.signal();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (PushClient client : clients) {
+            client.close();
+            client.emitter.complete();
+        }
+        if (pushExecutor != null) {
+            pushExecutor.shutdownNow();
+        }
+    }
+    
+    // 구독자 한 명 (동시에 한 스레드만 전송)
+    private class PushClient {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean heartbeatDue;
+        volatile boolean closed;
+        
+        // 전송 스레드에서만 접근
+        PremiumSnapshot lastSent;
+        
+        PushClient(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        // 전송 중이 아니면 전송 시작 (전송 중이면 끝난 뒤 최신 버전을 다시 확인하므로 무시)
+        void signal() {
+            if (closed || !sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                pushExecutor.execute(this::drain);
+            } catch (Exception e) {
+                sending.set(false);
+            }
+        }
+        
+        void close() {
+            closed = true;
+            clients.remove(this);
+        }
+        
+        private void drain() {
+            try {
+                while (!closed) {
+                    PremiumSnapshot snapshot = premiumSnapshotService.getSnapshot();
+                    if (lastSent == null || snapshot.getVersion() > lastSent.getVersion()) {
+                        send(snapshot);
+                    } else if (heartbeatDue) {
+                        heartbeatDue = false;
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        sending.set(false);
+                        
+                        // 해제 직후 발행된 버전이 있으면 이어서 전송 (알림 유실 방지)
+                        if (!hasPending() || !sending.compareAndSet(false, true)) {
+                            return;
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // 연결이 끊긴 클라이언트
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+        
+        private void send(PremiumSnapshot snapshot) throws IOException {
+            // 직렬화 결과는 스냅샷에 캐시되므로 구독자 수와 관계없이 버전 구간당 한 번만 직렬화
+            String id = String.valueOf(snapshot.getVersion());
+            if (lastSent == null) {
+                emitter.send(SseEmitter.event().id(id).name("snapshot")
+                    .data(snapshot.getPayload().getJson(), MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send(SseEmitter.event().id(id).name("delta")
+                    .data(snapshot.getDeltaPayload(lastSent).getJson(), MediaType.APPLICATION_JSON));
+            }
+            lastSent = snapshot;
+            heartbeatDue = false;
+        }
+        
+        private boolean hasPending() {
+            return heartbeatDue || premiumSnapshotService.getSnapshot().getVersion() > lastSent.getVersion();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// /api/premium/all 정렬/필터/페이지 조건 (sort, order, minVolume, exchange, search, limit, offset)
+// 테이블의 항목별 정렬 색인(PremiumTable.SortIndex)을 앞이나 뒤에서부터 훑기만 하므로 요청마다 정렬하지 않는다
+// 필터가 없으면 색인 구간 복사, 있으면 조건에 맞는 행만 골라 담음
+public final class PremiumQuery {
+    
+    public static final String SORT_SYMBOL = "symbol";
+    
+    // 상장 거래소 조건 (화면의 거래소 필터와 같은 값)
+    enum ExchangeFilter {
+        ALL("all"), UPBIT("upbit"), BITHUMB("bithumb"), BOTH("both"), UPBIT_ONLY("upbit-only"), BITHUMB_ONLY("bithumb-only");
+        
+        private final String value;
+        
+        ExchangeFilter(String value) {
+            this.value = value;
+        }
+        
+        boolean matches(boolean hasUpbit, boolean hasBithumb) {
+            switch (this) {
+                case UPBIT:
+                    return hasUpbit;
+                case BITHUMB:
+                    return hasBithumb;
+                case BOTH:
+                    return hasUpbit && hasBithumb;
+                case UPBIT_ONLY:
+                    return hasUpbit && !hasBithumb;
+                case BITHUMB_ONLY:
+                    return !hasUpbit && hasBithumb;
+                default:
+                    return true;
+            }
+        }
+    }
+    
+    // 정렬 항목 (null이면 심볼 순)
+    private final PremiumField sortField;
+    private final boolean descending;
+    private final double minVolume;
+    private final ExchangeFilter exchange;
+    // 심볼/한글명/영문명 검색어 (소문자, null이면 조건 없음)
+    private final String search;
+    private final int limit;
+    private final int offset;
+    
+    private PremiumQuery(PremiumField sortField, boolean descending, double minVolume, ExchangeFilter exchange,
+                         String search, int limit, int offset) {
+        this.sortField = sortField;
+        this.descending = descending;
+        this.minVolume = minVolume;
+        this.exchange = exchange;
+        this.search = search;
+        this.limit = limit;
+        this.offset = offset;
+    }
+    
+    // 요청 파라미터 변환 (없는 값은 기본값: 심볼 순, 숫자 항목은 내림차순, 전체 거래소, 전체 개수)
+    // 잘못된 값이면 IllegalArgumentException
+    // 검색어는 앞뒤 공백을 빼고 비어 있으면 조건 없음
+    public static PremiumQuery parse(String sort, String order, Double minVolume, String exchange,
+                                     String search, Integer limit, Integer offset) {
+        PremiumField sortField = null;
+        if (sort != null && !sort.equalsIgnoreCase(SORT_SYMBOL)) {
+            sortField = PremiumField.fromJsonName(sort);
+            if (sortField == null) {
+                throw new IllegalArgumentException("알 수 없는 정렬 항목입니다: " + sort);
+            }
+        }
+        
+        boolean descending = sortField != null;
+        if (order != null) {
+            if (order.equalsIgnoreCase("asc")) {
+                descending = false;
+            } else if (order.equalsIgnoreCase("desc")) {
+                descending = true;
+            } else {
+                throw new IllegalArgumentException("order는 asc 또는 desc여야 합니다.");
+            }
+        }
+        
+        ExchangeFilter exchangeFilter = ExchangeFilter.ALL;
+        if (exchange != null) {
+            exchangeFilter = null;
+            for (ExchangeFilter filter : ExchangeFilter.values()) {
+                if (filter.value.equals(exchange.toLowerCase(Locale.ROOT))) {
+                    exchangeFilter = filter;
+                }
+            }
+            if (exchangeFilter == null) {
+                throw new IllegalArgumentException("알 수 없는 거래소 조건입니다: " + exchange);
+            }
+        }
+        
+        if (minVolume != null && (minVolume.isNaN() || minVolume < 0)) {
+            throw new IllegalArgumentException("minVolume은 0 이상이어야 합니다.");
+        }
+        if ((limit != null && limit < 0) || (offset != null && offset < 0)) {
+            throw new IllegalArgumentException("limit과 offset은 0 이상이어야 합니다.");
+        }
+        String searchTerm = search != null && !search.isBlank() ? search.strip().toLowerCase(Locale.ROOT) : null;
+        return new PremiumQuery(sortField, descending, minVolume != null ? minVolume : Double.NaN, exchangeFilter,
+            searchTerm, limit != null ? limit : Integer.MAX_VALUE, offset != null ? offset : 0);
+    }
+    
+    // 같은 조건이면 같은 값 (스냅샷별 직렬화 결과 캐시 키)
+    String key() {
+        return getSort() + ":" + getOrder() + ":" + minVolume + ":" + exchange.value + ":" + search + ":" + limit + ":" + offset;
+    }
+    
+    public String getSort() {
+        return sortField != null ? sortField.getJsonName() : SORT_SYMBOL;
+    }
+    
+    public String getOrder() {
+        return descending ? "desc" : "asc";
+    }
+    
+    public int getOffset() {
+        return offset;
+    }
+    
+    // 조건에 맞는 행 (offset부터 최대 limit개)과 조건에 맞는 전체 행 수
+    Result select(PremiumTable table) {
+        int size = table.size();
+        int[] index = null;
+        int valued = size;
+        if (sortField != null) {
+            PremiumTable.SortIndex sortIndex = table.sortIndex(sortField);
+            index = sortIndex.rows;
+            valued = sortIndex.valued;
+        }
+        
+        // 필터가 없으면 구간만 복사
+        if (exchange == ExchangeFilter.ALL && Double.isNaN(minVolume) && search == null) {
+            int from = Math.min(offset, size);
+            int to = (int) Math.min(size, (long) from + limit);
+            int[] rows = new int[to - from];
+            for (int i = from; i < to; i++) {
+                rows[i - from] = row(index, valued, i);
+            }
+            return new Result(rows, size);
+        }
+        
+        int[] rows = new int[Math.min(limit, 64)];
+        int count = 0;
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            int row = row(index, valued, i);
+            if (!matches(table, row)) {
+                continue;
+            }
+            if (total >= offset && count < limit) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, (int) Math.min(limit, rows.length * 2L));
+                }
+                rows[count++] = row;
+            }
+            total++;
+        }
+        return new Result(Arrays.copyOf(rows, count), total);
+    }
+    
+    // 정렬 순서상 i번째 행 (내림차순이면 값이 있는 구간만 뒤집고, 값이 없는 행은 항상 뒤에 심볼 순)
+    private int row(int[] index, int valued, int i) {
+        if (index == null) {
+            return descending ? valued - 1 - i : i;
+        }
+        return descending && i < valued ? index[valued - 1 - i] : index[i];
+    }
+    
+    private boolean matches(PremiumTable table, int row) {
+        if (!exchange.matches(table.hasUpbit(row), table.hasBithumb(row))) {
+            return false;
+        }
+        if (search != null && !containsSearch(table.symbol(row)) && !containsSearch(table.koreanName(row))
+                && !containsSearch(table.englishName(row))) {
+            return false;
+        }
+        // 거래대금 정보가 없는 코인은 minVolume 조건을 만족하지 않음
+        return Double.isNaN(minVolume) || table.totalVolume24h(row) >= minVolume;
+    }
+    
+    private boolean containsSearch(String value) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(search);
+    }
+    
+    // 선택 결과 (행 번호, 조건에 맞는 전체 행 수)
+    static final class Result {
+        final int[] rows;
+        final int total;
+        
+        Result(int[] rows, int total) {
+            this.rows = rows;
+            this.total = total;
+        }
+    }
+}
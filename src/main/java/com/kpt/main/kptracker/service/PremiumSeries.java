@@ -0,0 +1,132 @@
+package com.kpt.main.kptracker.service;
+
+// 코인 하나의 최근 김프 이력 (메모리 링 버퍼)
+// 원본 샘플과 1분 단위 집계(min/max/합계/개수)를 따로 보관해서 긴 구간 조회는 집계만 읽는다
+final class PremiumSeries {
+    
+    static final long ROLLUP_MS = 60_000;
+    
+    private final int fieldCount;
+    
+    // 원본 샘플 (시간순 링 버퍼)
+    private final long[] timestamps;
+    private final double[][] values;
+    private int rawHead;
+    private int rawSize;
+    
+    // 1분 집계 (분 시작 시각 기준 링 버퍼)
+    private final long[] minutes;
+    private final double[][] minimums;
+    private final double[][] maximums;
+    private final double[][] sums;
+    private final int[][] counts;
+    private int rollupHead;
+    private int rollupSize;
+    
+    PremiumSeries(int fieldCount, int rawCapacity, int rollupCapacity) {
+        this.fieldCount = fieldCount;
+        this.timestamps = new long[rawCapacity];
+        this.values = new double[fieldCount][rawCapacity];
+        this.minutes = new long[rollupCapacity];
+        this.minimums = new double[fieldCount][rollupCapacity];
+        this.maximums = new double[fieldCount][rollupCapacity];
+        this.sums = new double[fieldCount][rollupCapacity];
+        this.counts = new int[fieldCount][rollupCapacity];
+    }
+    
+    // 샘플 추가 (시간순으로만 들어온다고 가정, 값이 없으면 NaN)
+    synchronized void add(long timestamp, double[] sample) {
+        int rawIndex = (rawHead + rawSize) % timestamps.length;
+        if (rawSize == timestamps.length) {
+            rawHead = (rawHead + 1) % timestamps.length;
+        } else {
+            rawSize++;
+        }
+        timestamps[rawIndex] = timestamp;
+        for (int field = 0; field < fieldCount; field++) {
+            values[field][rawIndex] = sample[field];
+        }
+        
+        long minute = Math.floorDiv(timestamp, ROLLUP_MS) * ROLLUP_MS;
+        int rollupIndex = rollupSize > 0 ? (rollupHead + rollupSize - 1) % minutes.length : -1;
+        if (rollupIndex < 0 || minutes[rollupIndex] != minute) {
+            rollupIndex = (rollupHead + rollupSize) % minutes.length;
+            if (rollupSize == minutes.length) {
+                rollupHead = (rollupHead + 1) % minutes.length;
+            } else {
+                rollupSize++;
+            }
+            minutes[rollupIndex] = minute;
+            for (int field = 0; field < fieldCount; field++) {
+                minimums[field][rollupIndex] = Double.NaN;
+                maximums[field][rollupIndex] = Double.NaN;
+                sums[field][rollupIndex] = 0;
+                counts[field][rollupIndex] = 0;
+            }
+        }
+        
+        for (int field = 0; field < fieldCount; field++) {
+            double value = sample[field];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (counts[field][rollupIndex] == 0) {
+                minimums[field][rollupIndex] = value;
+                maximums[field][rollupIndex] = value;
+            } else {
+                minimums[field][rollupIndex] = Math.min(minimums[field][rollupIndex], value);
+                maximums[field][rollupIndex] = Math.max(maximums[field][rollupIndex], value);
+            }
+            sums[field][rollupIndex] += value;
+            counts[field][rollupIndex]++;
+        }
+    }
+    
+    // 원본 샘플이 빠짐없이 남아 있는 시작 시각 (링이 찼으면 가장 오래된 샘플, 아니면 since)
+    synchronized long rawCoverageFrom(long since) {
+        return rawSize == timestamps.length ? timestamps[rawHead] : since;
+    }
+    
+    // 1분 집계가 빠짐없이 남아 있는 시작 시각
+    synchronized long rollupCoverageFrom(long since) {
+        return rollupSize == minutes.length ? minutes[rollupHead] : since;
+    }
+    
+    synchronized void aggregateRaw(long from, long to, PremiumHistoryBuckets buckets) {
+        for (int i = 0; i < rawSize; i++) {
+            int index = (rawHead + i) % timestamps.length;
+            long timestamp = timestamps[index];
+            if (timestamp < from) {
+                continue;
+            }
+            if (timestamp > to) {
+                break;
+            }
+            for (int field = 0; field < fieldCount; field++) {
+                buckets.add(timestamp, field, values[field][index]);
+            }
+        }
+    }
+    
+    // 분 집계를 구간별로 합침 (구간 크기가 1분의 배수일 때만 정확)
+    synchronized void aggregateRollups(long from, long to, PremiumHistoryBuckets buckets) {
+        for (int i = 0; i < rollupSize; i++) {
+            int index = (rollupHead + i) % minutes.length;
+            long minute = minutes[index];
+            if (minute < from) {
+                continue;
+            }
+            if (minute > to) {
+                break;
+            }
+            for (int field = 0; field < fieldCount; field++) {
+                buckets.merge(minute, field, minimums[field][index], maximums[field][index],
+                    sums[field][index], counts[field][index]);
+            }
+        }
+    }
+    
+    synchronized int size() {
+        return rawSize;
+    }
+}
@@ -0,0 +1,139 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// 특정 시점에 계산된 김프 데이터 (불변, 버전 관리)
+public final class PremiumSnapshot {
+    
+    // 스냅샷별로 직렬화 결과를 보관할 정렬/필터 조건 수 (넘으면 보관하지 않고 매번 직렬화)
+    private static final int MAX_CACHED_VIEWS = 64;
+    
+    private final long version;
+    private final long createdAt;
+    private final PremiumTable table;
+    private final Map<String, SourceStatus> sources;
+    
+    // 코인별 마지막 변경 버전 (행 번호 기준)
+    private final long[] rowVersions;
+    
+    // 직렬화 결과 캐시 (버전당 한 번만 직렬화/압축)
+    private volatile PremiumPayload payload;
+    private final Map<Long, PremiumPayload> deltaPayloads = new ConcurrentHashMap<>();
+    private final Map<String, PremiumPayload> viewPayloads = new ConcurrentHashMap<>();
+    
+    // 스냅샷에 없는 코인의 개별 조회 결과 (버전당 코인별 한 번, 동시 요청은 같은 조회를 기다림)
+    private final Map<String, CompletableFuture<PremiumTable>> coinLookups = new ConcurrentHashMap<>();
+    
+    public PremiumSnapshot(long version, long createdAt, PremiumTable table, Map<String, SourceStatus> sources) {
+        this(version, createdAt, table, sources, null);
+    }
+    
+    // previous가 있으면 값이 바뀌지 않은 코인은 이전 스냅샷의 변경 버전을 이어받음
+    public PremiumSnapshot(long version, long createdAt, PremiumTable table, Map<String, SourceStatus> sources,
+                           PremiumSnapshot previous) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.table = table;
+        this.sources = Collections.unmodifiableMap(new LinkedHashMap<>(sources));
+        this.rowVersions = new long[table.size()];
+        
+        for (int row = 0; row < table.size(); row++) {
+            int previousRow = previous != null ? previous.table.indexOf(table.symbol(row)) : -1;
+            rowVersions[row] = previousRow >= 0 && table.sameRow(row, previous.table, previousRow)
+                ? previous.rowVersions[previousRow]
+                : version;
+        }
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    // 코인별 김프 데이터 (PremiumTable은 불변이므로 복사 없이 공유)
+    public PremiumTable getTable() {
+        return table;
+    }
+    
+    // 코인(행)이 마지막으로 바뀐 스냅샷 버전
+    public long getRowVersion(int row) {
+        return rowVersions[row];
+    }
+    
+    // 버전 기반 ETag (내용이 같으면 압축 여부와 관계없이 같은 값이므로 약한 ETag)
+    public String getETag() {
+        return "W/\"" + version + "\"";
+    }
+    
+    // 전체 데이터 직렬화 결과
+    public PremiumPayload getPayload() {
+        PremiumPayload cached = payload;
+        if (cached == null) {
+            cached = PremiumPayload.full(this);
+            payload = cached;
+        }
+        return cached;
+    }
+    
+    // since 스냅샷 이후 변경분 직렬화 결과 (since가 null이면 전체를 변경분 형식으로)
+    public PremiumPayload getDeltaPayload(PremiumSnapshot since) {
+        long sinceVersion = since != null ? since.version : 0;
+        return deltaPayloads.computeIfAbsent(sinceVersion, key -> PremiumPayload.delta(since, this));
+    }
+    
+    // 정렬/필터/페이지 결과 직렬화 (같은 조건은 스냅샷당 한 번, 정렬은 테이블의 항목별 색인 사용)
+    public PremiumPayload getViewPayload(PremiumQuery query) {
+        String key = query.key();
+        PremiumPayload cached = viewPayloads.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (viewPayloads.size() >= MAX_CACHED_VIEWS) {
+            return PremiumPayload.view(this, query);
+        }
+        return viewPayloads.computeIfAbsent(key, k -> PremiumPayload.view(this, query));
+    }
+    
+    // 스냅샷에 없는 코인 조회 (loader는 이 스냅샷에서 코인별로 한 번만 호출, 실패하면 빈 테이블)
+    public PremiumTable getCoinLookup(String symbol, Function<String, PremiumTable> loader) {
+        CompletableFuture<PremiumTable> lookup = coinLookups.get(symbol);
+        if (lookup == null) {
+            CompletableFuture<PremiumTable> created = new CompletableFuture<>();
+            lookup = coinLookups.putIfAbsent(symbol, created);
+            if (lookup == null) {
+                lookup = created;
+                try {
+                    created.complete(loader.apply(symbol));
+                } catch (RuntimeException e) {
+                    System.err.println(symbol + " 개별 조회 실패: " + e.getMessage());
+                    created.complete(PremiumTable.empty());
+                }
+            }
+        }
+        return lookup.join();
+    }
+    
+    // 스냅샷 생성 시 소스별 조회 상태
+    public Map<String, SourceStatus> getSources() {
+        return sources;
+    }
+    
+    // 재시작 시 스냅샷 파일에서 복원한 스냅샷인지 여부 (첫 갱신 전까지 응답용)
+    public boolean isRestored() {
+        return !sources.isEmpty()
+            && sources.values().stream().allMatch(status -> status.getState() == SourceStatus.State.RESTORED);
+    }
+    
+    // 일부 소스가 실패/시간 초과된 상태로 만들어진 스냅샷인지 여부
+    public boolean isPartial() {
+        return sources.values().stream().anyMatch(status -> status.getState() != SourceStatus.State.OK);
+    }
+}
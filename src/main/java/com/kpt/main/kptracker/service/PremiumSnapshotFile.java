@@ -0,0 +1,229 @@
+package com.kpt.main.kptracker.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// 마지막 김프 스냅샷 파일 (재시작 직후 첫 갱신 전까지 응답할 데이터)
+// 스냅샷 테이블과 마켓 메타데이터를 고정 순서 바이너리로 저장하고, 시작 시 메모리 매핑해 바로 읽는다
+// 쓰기는 임시 파일에 쓴 뒤 이름을 바꿔 교체하므로 읽는 쪽은 항상 완성된 파일만 본다
+//
+// 헤더: magic(int) | format(int) | savedAt(long) | version(long) | createdAt(long)
+//       | exchangeRate(double) | exchangeRateAsOf(long) | 소스 수(int) | 코인 수(int) | 업비트/빗썸 상장 수(int) | 바이낸스 심볼 수(int)
+// 소스: 이름 | asOf(long)
+// 코인: 심볼 | 한글명 | 영문명 | 가격/거래대금/김프 7개(double, 없으면 NaN) | 가격 소스별 asOf(long) 3개
+// 상장: 거래소(byte, 0=업비트 1=빗썸) | 심볼 | 한글명 | 영문명
+// 바이낸스 거래 중 심볼: 심볼
+// 문자열: 길이(short, null이면 -1) | UTF-8 바이트
+final class PremiumSnapshotFile {
+    
+    static final int MAGIC = 0x4B50534E;  // "KPSN"
+    static final int FORMAT_VERSION = 1;
+    
+    // 코인별 저장 항목 (순서 고정)
+    private static final PremiumField[] ROW_FIELDS = {
+        PremiumField.UPBIT, PremiumField.BITHUMB, PremiumField.BINANCE,
+        PremiumField.UPBIT_VOLUME_24H, PremiumField.BITHUMB_VOLUME_24H,
+        PremiumField.UPBIT_PREMIUM, PremiumField.BITHUMB_PREMIUM
+    };
+    
+    private final long savedAt;
+    private final PremiumSnapshot snapshot;
+    private final Map<String, MarketListing> upbitListings;
+    private final Map<String, MarketListing> bithumbListings;
+    private final Set<String> binanceTradingPairs;
+    
+    private PremiumSnapshotFile(long savedAt, PremiumSnapshot snapshot, Map<String, MarketListing> upbitListings,
+                                Map<String, MarketListing> bithumbListings, Set<String> binanceTradingPairs) {
+        this.savedAt = savedAt;
+        this.snapshot = snapshot;
+        this.upbitListings = upbitListings;
+        this.bithumbListings = bithumbListings;
+        this.binanceTradingPairs = binanceTradingPairs;
+    }
+    
+    // 파일로 저장 (상장 정보가 아직 없으면 빈 맵/집합으로)
+    static int write(Path path, PremiumSnapshot snapshot, Map<String, MarketListing> upbitListings,
+                     Map<String, MarketListing> bithumbListings, Set<String> binanceTradingPairs) throws IOException {
+        PremiumTable table = snapshot.getTable();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096 + table.size() * 128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeLong(snapshot.getVersion());
+        out.writeLong(snapshot.getCreatedAt());
+        out.writeDouble(table.getExchangeRate());
+        out.writeLong(table.getExchangeRateAsOf());
+        out.writeInt(snapshot.getSources().size());
+        out.writeInt(table.size());
+        out.writeInt(upbitListings.size() + bithumbListings.size());
+        out.writeInt(binanceTradingPairs.size());
+        
+        for (Map.Entry<String, SourceStatus> source : snapshot.getSources().entrySet()) {
+            writeString(out, source.getKey());
+            out.writeLong(source.getValue().getAsOf());
+        }
+        for (int row = 0; row < table.size(); row++) {
+            writeString(out, table.symbol(row));
+            writeString(out, table.koreanName(row));
+            writeString(out, table.englishName(row));
+            for (PremiumField field : ROW_FIELDS) {
+                out.writeDouble(table.value(row, field));
+            }
+            for (int source = 0; source < PremiumTable.FRESHNESS_SOURCES.length; source++) {
+                out.writeLong(table.asOf(row, source));
+            }
+        }
+        writeListings(out, 0, upbitListings);
+        writeListings(out, 1, bithumbListings);
+        for (String pair : binanceTradingPairs) {
+            writeString(out, pair);
+        }
+        out.flush();
+        
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return bytes.size();
+    }
+    
+    // 파일 읽기 (없거나 형식이 다르거나 잘린 파일이면 null)
+    // 모든 가격 소스와 환율은 지연(stale) 상태, 소스 상태는 RESTORED로 복원
+    static PremiumSnapshotFile read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            long savedAt = buffer.getLong();
+            long version = buffer.getLong();
+            long createdAt = buffer.getLong();
+            double exchangeRate = buffer.getDouble();
+            long exchangeRateAsOf = buffer.getLong();
+            int sourceCount = buffer.getInt();
+            int rowCount = buffer.getInt();
+            int listingCount = buffer.getInt();
+            int pairCount = buffer.getInt();
+            // 항목마다 1바이트 이상이므로 남은 크기보다 많으면 손상된 파일
+            if (sourceCount < 0 || rowCount < 0 || listingCount < 0 || pairCount < 0
+                    || (long) sourceCount + rowCount + listingCount + pairCount > buffer.remaining()) {
+                return null;
+            }
+            
+            Map<String, SourceStatus> sources = new LinkedHashMap<>();
+            for (int i = 0; i < sourceCount; i++) {
+                String name = readString(buffer);
+                sources.put(name, SourceStatus.restored(buffer.getLong()));
+            }
+            
+            PremiumTable.Builder builder = PremiumTable.builder(exchangeRate, rowCount)
+                .exchangeRateFreshness(exchangeRateAsOf, true);
+            double[] values = new double[ROW_FIELDS.length];
+            for (int i = 0; i < rowCount; i++) {
+                String symbol = readString(buffer);
+                String koreanName = readString(buffer);
+                String englishName = readString(buffer);
+                for (int field = 0; field < values.length; field++) {
+                    values[field] = buffer.getDouble();
+                }
+                builder.add(symbol, values[0], values[1], values[2], values[3], values[4], values[5], values[6],
+                        koreanName, englishName)
+                    .freshness(buffer.getLong(), buffer.getLong(), buffer.getLong(), true, true, true);
+            }
+            
+            Map<String, MarketListing> upbitListings = new LinkedHashMap<>();
+            Map<String, MarketListing> bithumbListings = new LinkedHashMap<>();
+            for (int i = 0; i < listingCount; i++) {
+                Map<String, MarketListing> listings = buffer.get() == 0 ? upbitListings : bithumbListings;
+                MarketListing listing = new MarketListing(readString(buffer), readString(buffer), readString(buffer));
+                listings.put(listing.getSymbol(), listing);
+            }
+            Set<String> binanceTradingPairs = new HashSet<>(pairCount * 2);
+            for (int i = 0; i < pairCount; i++) {
+                binanceTradingPairs.add(readString(buffer));
+            }
+            
+            PremiumSnapshot snapshot = new PremiumSnapshot(version, createdAt, builder.build(), sources);
+            return new PremiumSnapshotFile(savedAt, snapshot, Collections.unmodifiableMap(upbitListings),
+                Collections.unmodifiableMap(bithumbListings), Collections.unmodifiableSet(binanceTradingPairs));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // 쓰는 도중 잘렸거나 손상된 파일
+            return null;
+        }
+    }
+    
+    // 저장 시각 (ms)
+    long getSavedAt() {
+        return savedAt;
+    }
+    
+    PremiumSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    Map<String, MarketListing> getUpbitListings() {
+        return upbitListings;
+    }
+    
+    Map<String, MarketListing> getBithumbListings() {
+        return bithumbListings;
+    }
+    
+    Set<String> getBinanceTradingPairs() {
+        return binanceTradingPairs;
+    }
+    
+    private static void writeListings(DataOutputStream out, int exchange, Map<String, MarketListing> listings)
+            throws IOException {
+        for (MarketListing listing : listings.values()) {
+            out.writeByte(exchange);
+            writeString(out, listing.getSymbol());
+            writeString(out, listing.getKoreanName());
+            writeString(out, listing.getEnglishName());
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,290 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// 김프 스냅샷 관리 - 백그라운드에서 주기적으로 갱신하고 요청은 현재 스냅샷만 읽음
+@Service
+public class PremiumSnapshotService {
+    
+    @Autowired
+    private KimchiPremiumService kimchiPremiumService;
+    
+    @Autowired
+    private MarketStreamService marketStreamService;
+    
+    @Autowired
+    private MarketMetadataRegistry marketRegistry;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+    
+    @Value("${kp.snapshot.history-size:32}")
+    private int historySize;
+    
+    // REST 갱신 주기 (기본값에서 시장 변화량과 요청 한도에 따라 min~max 사이로 조절)
+    @Value("${kp.snapshot.refresh-interval-ms:10000}")
+    private long refreshIntervalMs;
+    
+    @Value("${kp.snapshot.min-interval-ms:2000}")
+    private long minIntervalMs;
+    
+    @Value("${kp.snapshot.max-interval-ms:30000}")
+    private long maxIntervalMs;
+    
+    // 거래대금 가중 평균 김프 변화량(%p)이 이 값 이상이면 최소 주기
+    @Value("${kp.snapshot.active-move-pct:0.05}")
+    private double activeMovePct;
+    
+    private AdaptiveRefreshPolicy refreshPolicy;
+    private volatile long nextRefreshAt;
+    
+    private final AtomicReference<PremiumSnapshot> current = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    
+    // 재시작 후에도 이전 실행의 버전과 겹치지 않도록 시작 시각(ms)부터 증가
+    // (발행 주기가 1ms보다 길므로 이전 실행의 마지막 버전보다 항상 큼)
+    private long lastVersion = System.currentTimeMillis();
+    private volatile long publishedBoardVersion = -1;
+    private volatile Set<String> publishedDisconnected = Set.of();
+    
+    // 최근 발행된 스냅샷 (?since= 변경분 계산용, 발행은 refreshLock 안에서만)
+    private final Map<Long, PremiumSnapshot> history = new ConcurrentHashMap<>();
+    private final Deque<Long> historyOrder = new ArrayDeque<>();
+    
+    // 새 스냅샷 발행 알림 대상 (발행 스레드에서 호출되므로 오래 걸리는 작업은 하지 않아야 함)
+    private final List<Consumer<PremiumSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    
+    // 현재 스냅샷 조회 (최초 요청 시에만 한 번 동기 갱신)
+    public PremiumSnapshot getSnapshot() {
+        PremiumSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        
+        refreshLock.lock();
+        try {
+            // 다른 스레드가 먼저 갱신했으면 그 결과 사용
+            snapshot = current.get();
+            if (snapshot == null) {
+                snapshot = refreshLocked();
+            }
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+    
+    // 마지막으로 발행된 스냅샷 (아직 없으면 null, 갱신하지 않음)
+    public PremiumSnapshot getCurrentSnapshot() {
+        return current.get();
+    }
+    
+    // 최근 발행된 스냅샷 중 해당 버전 (보관 기간이 지났거나 없는 버전이면 null)
+    public PremiumSnapshot getSnapshot(long version) {
+        return history.get(version);
+    }
+    
+    // 코인 하나의 김프 데이터 (/api/premium/all의 코인 항목 + coin, version, 없는 코인이면 null)
+    // 현재 스냅샷의 심볼 색인으로 바로 찾고, 스냅샷에 없는 상장 코인만 해당 코인을 거래소에 직접 조회
+    public Map<String, Object> getCoinPremium(String symbol) {
+        String coin = symbol.toUpperCase();
+        PremiumSnapshot snapshot = getSnapshot();
+        PremiumTable table = snapshot.getTable();
+        int row = table.indexOf(coin);
+        
+        if (row < 0) {
+            // 상장되지 않은 심볼은 거래소에 묻지 않음
+            if (marketRegistry.findListing(coin) == null) {
+                return null;
+            }
+            // 바이낸스 USDT 마켓이 없으면 김프를 계산할 수 없으므로 조회하지 않음 (스냅샷에 없는 코인 대부분)
+            if (!coin.equals("USDT") && !marketRegistry.getBinanceTradingPairs().contains(coin + "USDT")) {
+                return null;
+            }
+            double snapshotRate = table.getExchangeRate();
+            table = snapshot.getCoinLookup(coin, key -> kimchiPremiumService.fetchCoinPremium(key,
+                snapshotRate > 0 ? snapshotRate : kimchiPremiumService.getExchangeRate()));
+            row = table.indexOf(coin);
+            if (row < 0) {
+                return null;
+            }
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("coin", coin);
+        result.putAll(table.toCoinMap(row));
+        result.put("version", snapshot.getVersion());
+        return result;
+    }
+    
+    // 저장된 스냅샷으로 시작 (아직 발행된 스냅샷이 없을 때만, 첫 갱신 전까지 응답용)
+    // 지난 데이터이므로 발행 알림(알림 규칙, 통계, 이력)은 보내지 않음
+    public boolean restore(PremiumSnapshot snapshot) {
+        refreshLock.lock();
+        try {
+            if (current.get() != null) {
+                return false;
+            }
+            lastVersion = Math.max(lastVersion, snapshot.getVersion());
+            history.put(snapshot.getVersion(), snapshot);
+            historyOrder.addLast(snapshot.getVersion());
+            current.set(snapshot);
+            return true;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+    
+    public void addListener(Consumer<PremiumSnapshot> listener) {
+        listeners.add(listener);
+    }
+    
+    @PostConstruct
+    void initRefreshPolicy() {
+        refreshPolicy = new AdaptiveRefreshPolicy(refreshIntervalMs, minIntervalMs, maxIntervalMs, activeMovePct);
+    }
+    
+    // REST 갱신 주기 상태 (/api/premium/status, 실시간 스트림 사용 시 null)
+    public Map<String, Object> getRefreshStatus() {
+        if (marketStreamService.isEnabled()) {
+            return null;
+        }
+        Map<String, Object> status = refreshPolicy.toMap();
+        status.put("nextRefreshInMs", Math.max(0, nextRefreshAt - System.currentTimeMillis()));
+        return status;
+    }
+    
+    // 현재 REST 갱신 주기 (ms)
+    public long getRefreshIntervalMs() {
+        return refreshPolicy.getLastDelayMs();
+    }
+    
+    // 주기적 스냅샷 갱신 (실시간 스트림 사용 시에는 publishLive가 발행)
+    // 짧은 간격으로 확인하고 갱신 시각(nextRefreshAt)이 되었을 때만 조회
+    @Scheduled(fixedDelayString = "${kp.snapshot.tick-ms:250}")
+    public void refresh() {
+        if (marketStreamService.isEnabled() || System.currentTimeMillis() < nextRefreshAt) {
+            return;
+        }
+        
+        refreshLock.lock();
+        try {
+            refreshLocked();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+    
+    // 실시간 시세 변경분 발행 (주기 내 여러 시세 변경을 하나의 버전으로 묶음)
+    @Scheduled(fixedDelayString = "${kp.stream.publish-interval-ms:500}")
+    public void publishLive() {
+        if (!marketStreamService.isEnabled()) {
+            return;
+        }
+        // 변경이 없으면 새 버전을 만들지 않음 (스트림 연결이 끊기거나 다시 연결되면 stale 표시가 바뀌므로 발행)
+        if (marketStreamService.getBoard().getVersion() == publishedBoardVersion
+                && marketStreamService.getDisconnectedExchanges().equals(publishedDisconnected)
+                && current.get() != null) {
+            return;
+        }
+        
+        refreshLock.lock();
+        try {
+            publishLiveLocked();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+    
+    private PremiumSnapshot publishLiveLocked() {
+        long startedAt = System.nanoTime();
+        LiveQuoteBoard board = marketStreamService.getBoard();
+        long boardVersion = board.getVersion();
+        Set<String> disconnected = marketStreamService.getDisconnectedExchanges();
+        PremiumTable table = board.toTable(marketRegistry::findListing, disconnected);
+        
+        // 복원한 스냅샷은 김프를 계산할 수 있는 업비트/빗썸 시세가 들어올 때까지 유지
+        // (바이낸스 시세나 고정 USDT만 있는 보드는 빈 테이블이므로 덮지 않음)
+        PremiumSnapshot previous = current.get();
+        if (table.isEmpty() && previous != null && previous.isRestored()) {
+            return previous;
+        }
+        
+        PremiumSnapshot snapshot = new PremiumSnapshot(
+            ++lastVersion, System.currentTimeMillis(), table, marketStreamService.getSourceStatuses(), previous);
+        publish(snapshot);
+        publishedBoardVersion = boardVersion;
+        publishedDisconnected = disconnected;
+        pipelineMetrics.recordPublish("stream", System.nanoTime() - startedAt);
+        return snapshot;
+    }
+    
+    private PremiumSnapshot refreshLocked() {
+        if (marketStreamService.isEnabled()) {
+            return publishLiveLocked();
+        }
+        
+        long startedAt = System.nanoTime();
+        PremiumSnapshot previous = current.get();
+        try {
+            PremiumFetchResult result = kimchiPremiumService.fetchPremiumData();
+            PremiumSnapshot snapshot = new PremiumSnapshot(
+                ++lastVersion, System.currentTimeMillis(), result.getTable(), result.getSources(), previous);
+            publish(snapshot);
+            pipelineMetrics.recordPublish("rest", System.nanoTime() - startedAt);
+            // 복원한 스냅샷과의 차이는 재시작 동안의 변화이므로 갱신 주기 계산에서 제외
+            refreshPolicy.observe(previous != null && !previous.isRestored() ? previous.getTable() : null,
+                snapshot.getTable());
+            return snapshot;
+        } catch (Exception e) {
+            System.err.println("김프 스냅샷 갱신 실패: " + e.getMessage());
+            
+            // 갱신 실패 시 기존 스냅샷 유지 (없으면 빈 스냅샷)
+            return previous != null ? previous : new PremiumSnapshot(0, System.currentTimeMillis(), PremiumTable.empty(), Map.of());
+        } finally {
+            scheduleNextRefresh();
+        }
+    }
+    
+    // 다음 REST 갱신 시각 (요청 한도 사용률이 높거나 대기 중인 거래소가 있으면 늦춤)
+    private void scheduleNextRefresh() {
+        long now = System.currentTimeMillis();
+        long delayMs = refreshPolicy.nextDelay(rateLimitTracker.getPressure(now), rateLimitTracker.getMaxBlockedForMs(now));
+        nextRefreshAt = now + delayMs;
+    }
+    
+    private void publish(PremiumSnapshot snapshot) {
+        history.put(snapshot.getVersion(), snapshot);
+        historyOrder.addLast(snapshot.getVersion());
+        while (historyOrder.size() > Math.max(1, historySize)) {
+            history.remove(historyOrder.removeFirst());
+        }
+        
+        current.set(snapshot);
+        for (Consumer<PremiumSnapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (Exception e) {
+                System.err.println("스냅샷 발행 알림 실패: " + e.getMessage());
+            }
+        }
+    }
+}
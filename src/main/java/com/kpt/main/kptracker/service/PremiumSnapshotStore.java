@@ -0,0 +1,164 @@
+package com.kpt.main.kptracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// 마지막 김프 스냅샷 저장/복원 (빠른 재시작용)
+// 새 스냅샷이 발행되면 별도 스레드에서 파일(PremiumSnapshotFile)로 저장하고,
+// 시작 시 그 파일을 읽어 지연(stale) 표시된 스냅샷으로 바로 응답하며 첫 갱신은 백그라운드 스케줄에 맡긴다
+@Service
+public class PremiumSnapshotStore {
+    
+    @Autowired
+    private PremiumSnapshotService premiumSnapshotService;
+    
+    @Autowired
+    private MarketMetadataRegistry marketRegistry;
+    
+    @Value("${kp.snapshot.store.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${kp.snapshot.store.path:data/snapshot/premium.snap}")
+    private String path;
+    
+    // 저장 최소 간격 (실시간 스트림 사용 시 발행마다 쓰지 않도록)
+    @Value("${kp.snapshot.store.min-interval-ms:5000}")
+    private long minIntervalMs;
+    
+    private Path file;
+    private ExecutorService writeExecutor;
+    
+    // 저장 대기 중인 최신 스냅샷 (대기 중 새 스냅샷이 오면 교체되어 한 번만 저장)
+    private final AtomicReference<PremiumSnapshot> pending = new AtomicReference<>();
+    
+    // 복원 결과 (복원하지 않았으면 restoredVersion = 0)
+    private volatile long restoredVersion;
+    private volatile long restoredSavedAt;
+    private volatile int restoredCoins;
+    private volatile long restoreMs;
+    private volatile long restoredAtUptimeMs;
+    
+    // 저장 상태 (저장 스레드에서만 갱신)
+    private volatile long lastSavedVersion;
+    private volatile long lastSavedAt;
+    private volatile int lastSavedBytes;
+    private volatile long lastSaveMs;
+    
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        file = Paths.get(path);
+        restore();
+        
+        writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kp-snapshot-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        premiumSnapshotService.addListener(this::schedule);
+    }
+    
+    // 저장 상태 (/api/premium/status)
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("path", path);
+        status.put("restoredVersion", restoredVersion);
+        status.put("restoredSavedAt", restoredSavedAt);
+        status.put("restoredCoins", restoredCoins);
+        status.put("restoreMs", restoreMs);
+        status.put("restoredAtUptimeMs", restoredAtUptimeMs);
+        status.put("lastSavedVersion", lastSavedVersion);
+        status.put("lastSavedAt", lastSavedAt);
+        status.put("lastSavedBytes", lastSavedBytes);
+        status.put("lastSaveMs", lastSaveMs);
+        return status;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (writeExecutor == null) {
+            return;
+        }
+        writeExecutor.shutdown();
+        try {
+            writeExecutor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // 최소 간격 때문에 저장하지 않은 마지막 스냅샷까지 남김
+        PremiumSnapshot snapshot = premiumSnapshotService.getCurrentSnapshot();
+        if (snapshot != null && snapshot.getVersion() != lastSavedVersion) {
+            save(snapshot);
+        }
+    }
+    
+    private void restore() {
+        long startedAt = System.nanoTime();
+        try {
+            PremiumSnapshotFile stored = PremiumSnapshotFile.read(file);
+            if (stored == null || stored.getSnapshot().getTable().isEmpty()) {
+                return;
+            }
+            
+            marketRegistry.restore(stored.getUpbitListings(), stored.getBithumbListings(), stored.getBinanceTradingPairs());
+            PremiumSnapshot snapshot = stored.getSnapshot();
+            if (!premiumSnapshotService.restore(snapshot)) {
+                return;
+            }
+            
+            restoredVersion = snapshot.getVersion();
+            restoredSavedAt = stored.getSavedAt();
+            restoredCoins = snapshot.getTable().size();
+            restoreMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            restoredAtUptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+            lastSavedVersion = snapshot.getVersion();
+            System.out.println("저장된 김프 스냅샷 복원: " + restoredCoins + "개 코인, "
+                + (System.currentTimeMillis() - restoredSavedAt) / 1000 + "초 전 데이터, " + restoreMs + "ms");
+        } catch (IOException e) {
+            System.err.println("김프 스냅샷 파일 읽기 실패: " + e.getMessage());
+        }
+    }
+    
+    // 발행 스레드에서 호출되므로 저장은 저장 스레드에 넘김
+    private void schedule(PremiumSnapshot snapshot) {
+        if (snapshot.getTable().isEmpty() || System.currentTimeMillis() - lastSavedAt < minIntervalMs) {
+            return;
+        }
+        if (pending.getAndSet(snapshot) == null) {
+            writeExecutor.execute(() -> save(pending.getAndSet(null)));
+        }
+    }
+    
+    private void save(PremiumSnapshot snapshot) {
+        long startedAt = System.nanoTime();
+        try {
+            int bytes = PremiumSnapshotFile.write(file, snapshot,
+                marketRegistry.getLoadedListings(MarketMetadataRegistry.UPBIT),
+                marketRegistry.getLoadedListings(MarketMetadataRegistry.BITHUMB),
+                marketRegistry.getLoadedBinanceTradingPairs());
+            lastSavedVersion = snapshot.getVersion();
+            lastSavedAt = System.currentTimeMillis();
+            lastSavedBytes = bytes;
+            lastSaveMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        } catch (IOException e) {
+            System.err.println("김프 스냅샷 파일 저장 실패: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.kpt.main.kptracker.service;
+
+import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 코인/거래소별 김프 이동 통계
+// 김프가 새로 계산될 때마다(REST 갱신, 실시간 시세) 값을 받아 창별 평균/표준편차/z-score/최소/최대를 갱신
+@Service
+public class PremiumStatsEngine {
+    
+    private static final int UPBIT = 0;
+    private static final int BITHUMB = 1;
+    
+    // 코인별 [업비트, 빗썸] 통계
+    private final Map<String, RollingPremiumStats[]> stats = new ConcurrentHashMap<>();
+    
+    // 새 김프 값 반영 (처음 보는 코인일 때만 할당)
+    public void record(String symbol, PremiumField field, double premium, long timestamp) {
+        int exchange = field == PremiumField.UPBIT_PREMIUM ? UPBIT
+            : field == PremiumField.BITHUMB_PREMIUM ? BITHUMB : -1;
+        if (exchange < 0 || Double.isNaN(premium)) {
+            return;
+        }
+        
+        RollingPremiumStats[] coin = stats.get(symbol);
+        if (coin == null) {
+            coin = stats.computeIfAbsent(symbol,
+                key -> new RollingPremiumStats[] {new RollingPremiumStats(), new RollingPremiumStats()});
+        }
+        coin[exchange].update(timestamp, premium);
+    }
+    
+    // 코인 통계 ({"upbit": {...}, "bithumb": {...}}, 없으면 null)
+    public Map<String, Object> getStats(String symbol) {
+        RollingPremiumStats[] coin = stats.get(symbol.toUpperCase());
+        if (coin == null) {
+            return null;
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(PremiumField.UPBIT.getJsonName(), coin[UPBIT].toMap());
+        result.put(PremiumField.BITHUMB.getJsonName(), coin[BITHUMB].toMap());
+        return result;
+    }
+    
+    // 전체 코인 통계 (심볼순)
+    public Map<String, Object> getAllStats() {
+        Map<String, Object> result = new TreeMap<>();
+        for (String symbol : stats.keySet()) {
+            Map<String, Object> coin = getStats(symbol);
+            if (coin != null) {
+                result.put(symbol, coin);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,432 @@
+package com.kpt.main.kptracker.service;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 코인별 김프 데이터 (불변, 컬럼 단위 저장)
+// 코인마다 맵과 박싱된 Double을 만들지 않고 항목별 double[] 컬럼과 값 존재 여부 BitSet으로 저장한다
+// JSON은 PremiumTableSerializer가 기존 응답 형식({"BTC": {"upbit": ..., ...}, ...})으로 직접 출력
+@JsonSerialize(using = PremiumTableSerializer.class)
+public final class PremiumTable {
+    
+    // 값이 있을 때만 응답에 포함되는 항목
+    static final PremiumField[] OPTIONAL_FIELDS = {
+        PremiumField.UPBIT_VOLUME_24H, PremiumField.BITHUMB_VOLUME_24H, PremiumField.TOTAL_VOLUME_24H,
+        PremiumField.UPBIT_PREMIUM, PremiumField.BITHUMB_PREMIUM
+    };
+    
+    // 기준 시각/지연 여부를 기록하는 가격 소스 (JSON의 asOf/stale 키)
+    static final PremiumField[] FRESHNESS_SOURCES = {PremiumField.UPBIT, PremiumField.BITHUMB, PremiumField.BINANCE};
+    public static final int SOURCE_UPBIT = 0;
+    public static final int SOURCE_BITHUMB = 1;
+    public static final int SOURCE_BINANCE = 2;
+    
+    private static final PremiumTable EMPTY = new Builder(0, 0).build();
+    
+    private final int size;
+    private final double exchangeRate;
+    private final String[] symbols;
+    private final String[] koreanNames;
+    private final String[] englishNames;
+    private final double[] upbitPrice;
+    private final double[] bithumbPrice;
+    private final double[] binancePrice;
+    private final double[] upbitVolume24h;
+    private final double[] bithumbVolume24h;
+    private final double[] upbitPremium;
+    private final double[] bithumbPremium;
+    
+    // 값 존재 여부 (업비트/빗썸 가격, 거래대금, 김프)
+    private final BitSet hasUpbit;
+    private final BitSet hasBithumb;
+    private final BitSet hasUpbitVolume;
+    private final BitSet hasBithumbVolume;
+    private final BitSet hasUpbitPremium;
+    private final BitSet hasBithumbPremium;
+    
+    // 가격 소스별 기준 시각(ms, 모르면 0)과 지연 여부 (이전 값을 대신 사용 중이면 stale)
+    // 가격 소스 순서: FRESHNESS_SOURCES (업비트, 빗썸, 바이낸스), 환율은 테이블 전체에 하나
+    private final long[][] asOf;
+    private final BitSet[] stale;
+    private final long exchangeRateAsOf;
+    private final boolean exchangeRateStale;
+    
+    private final Map<String, Integer> rowIndex;
+    
+    // 항목별 정렬 색인 (처음 요청될 때 한 번 만들어 이 테이블을 쓰는 모든 요청이 공유)
+    private final AtomicReferenceArray<SortIndex> sortIndexes = new AtomicReferenceArray<>(PremiumField.values().length);
+    
+    private PremiumTable(Builder builder) {
+        // 심볼 순으로 정렬해 응답 순서를 고정
+        Integer[] order = new Integer[builder.size];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> builder.symbols[a].compareTo(builder.symbols[b]));
+        
+        this.size = builder.size;
+        this.exchangeRate = builder.exchangeRate;
+        this.symbols = new String[size];
+        this.koreanNames = new String[size];
+        this.englishNames = new String[size];
+        this.upbitPrice = new double[size];
+        this.bithumbPrice = new double[size];
+        this.binancePrice = new double[size];
+        this.upbitVolume24h = new double[size];
+        this.bithumbVolume24h = new double[size];
+        this.upbitPremium = new double[size];
+        this.bithumbPremium = new double[size];
+        this.hasUpbit = new BitSet(size);
+        this.hasBithumb = new BitSet(size);
+        this.hasUpbitVolume = new BitSet(size);
+        this.hasBithumbVolume = new BitSet(size);
+        this.hasUpbitPremium = new BitSet(size);
+        this.hasBithumbPremium = new BitSet(size);
+        this.asOf = new long[FRESHNESS_SOURCES.length][size];
+        this.stale = new BitSet[FRESHNESS_SOURCES.length];
+        this.exchangeRateAsOf = builder.exchangeRateAsOf;
+        this.exchangeRateStale = builder.exchangeRateStale;
+        this.rowIndex = new HashMap<>(size * 2);
+        for (int source = 0; source < FRESHNESS_SOURCES.length; source++) {
+            stale[source] = new BitSet(size);
+        }
+        
+        for (int row = 0; row < size; row++) {
+            int source = order[row];
+            symbols[row] = builder.symbols[source];
+            koreanNames[row] = builder.koreanNames[source];
+            englishNames[row] = builder.englishNames[source];
+            binancePrice[row] = builder.binancePrice[source];
+            setOptional(upbitPrice, hasUpbit, row, builder.upbitPrice[source]);
+            setOptional(bithumbPrice, hasBithumb, row, builder.bithumbPrice[source]);
+            setOptional(upbitVolume24h, hasUpbitVolume, row, builder.upbitVolume24h[source]);
+            setOptional(bithumbVolume24h, hasBithumbVolume, row, builder.bithumbVolume24h[source]);
+            setOptional(upbitPremium, hasUpbitPremium, row, builder.upbitPremium[source]);
+            setOptional(bithumbPremium, hasBithumbPremium, row, builder.bithumbPremium[source]);
+            for (int priceSource = 0; priceSource < FRESHNESS_SOURCES.length; priceSource++) {
+                asOf[priceSource][row] = builder.asOf[priceSource][source];
+                stale[priceSource].set(row, builder.stale[priceSource][source]);
+            }
+            rowIndex.put(symbols[row], row);
+        }
+    }
+    
+    private static void setOptional(double[] column, BitSet presence, int row, double value) {
+        if (!Double.isNaN(value)) {
+            column[row] = value;
+            presence.set(row);
+        }
+    }
+    
+    public static PremiumTable empty() {
+        return EMPTY;
+    }
+    
+    public static Builder builder(double exchangeRate, int expectedSize) {
+        return new Builder(exchangeRate, expectedSize);
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public double getExchangeRate() {
+        return exchangeRate;
+    }
+    
+    // 심볼의 행 번호 (없으면 -1)
+    public int indexOf(String symbol) {
+        Integer row = rowIndex.get(symbol);
+        return row != null ? row : -1;
+    }
+    
+    public String symbol(int row) {
+        return symbols[row];
+    }
+    
+    public String koreanName(int row) {
+        return koreanNames[row];
+    }
+    
+    public String englishName(int row) {
+        return englishNames[row];
+    }
+    
+    public boolean hasUpbit(int row) {
+        return hasUpbit.get(row);
+    }
+    
+    public boolean hasBithumb(int row) {
+        return hasBithumb.get(row);
+    }
+    
+    // 항목 값 (값이 없으면 NaN)
+    public double value(int row, PremiumField field) {
+        switch (field) {
+            case UPBIT:
+                return optional(upbitPrice, hasUpbit, row);
+            case BITHUMB:
+                return optional(bithumbPrice, hasBithumb, row);
+            case BINANCE:
+                return binancePrice[row];
+            case UPBIT_VOLUME_24H:
+                return optional(upbitVolume24h, hasUpbitVolume, row);
+            case BITHUMB_VOLUME_24H:
+                return optional(bithumbVolume24h, hasBithumbVolume, row);
+            case TOTAL_VOLUME_24H:
+                return totalVolume24h(row);
+            case UPBIT_PREMIUM:
+                return optional(upbitPremium, hasUpbitPremium, row);
+            case BITHUMB_PREMIUM:
+                return optional(bithumbPremium, hasBithumbPremium, row);
+            default:
+                return Double.NaN;
+        }
+    }
+    
+    // 코인 가격 소스의 기준 시각 (ms, 모르면 0)
+    public long asOf(int row, int source) {
+        return asOf[source][row];
+    }
+    
+    // 코인 가격 소스가 이전 값(조회 실패/연결 끊김)인지 여부
+    public boolean isStale(int row, int source) {
+        return stale[source].get(row);
+    }
+    
+    public long getExchangeRateAsOf() {
+        return exchangeRateAsOf;
+    }
+    
+    public boolean isExchangeRateStale() {
+        return exchangeRateStale;
+    }
+    
+    // 가격이 있는 소스인지 (asOf/stale 출력 대상)
+    boolean hasSource(int row, int source) {
+        return !Double.isNaN(value(row, FRESHNESS_SOURCES[source]));
+    }
+    
+    // 항목 값 오름차순 정렬 색인 (동시에 만들어져도 결과가 같으므로 먼저 저장된 것을 사용)
+    SortIndex sortIndex(PremiumField field) {
+        SortIndex index = sortIndexes.get(field.ordinal());
+        if (index == null) {
+            sortIndexes.compareAndSet(field.ordinal(), null, new SortIndex(this, field));
+            index = sortIndexes.get(field.ordinal());
+        }
+        return index;
+    }
+    
+    // 합계 거래대금 (시가총액 대용치, 거래대금 정보가 없으면 NaN)
+    public double totalVolume24h(int row) {
+        double total = 0.0;
+        if (hasUpbitVolume.get(row)) {
+            total += upbitVolume24h[row];
+        }
+        if (hasBithumbVolume.get(row)) {
+            total += bithumbVolume24h[row];
+        }
+        return total > 0 ? total : Double.NaN;
+    }
+    
+    // 다른 테이블의 행과 값이 같은지 비교 (환율, 이름, 모든 항목과 값 존재 여부, 소스별 지연 여부)
+    // 기준 시각(asOf)은 비교하지 않음 - 값이 그대로인 코인은 변경분에 다시 싣지 않으므로 받은 asOf가 실제보다 이를 수 있다
+    public boolean sameRow(int row, PremiumTable other, int otherRow) {
+        if (Double.compare(exchangeRate, other.exchangeRate) != 0
+                || exchangeRateStale != other.exchangeRateStale
+                || !Objects.equals(koreanNames[row], other.koreanNames[otherRow])
+                || !Objects.equals(englishNames[row], other.englishNames[otherRow])) {
+            return false;
+        }
+        for (PremiumField field : PremiumField.values()) {
+            if (Double.compare(value(row, field), other.value(otherRow, field)) != 0) {
+                return false;
+            }
+        }
+        for (int source = 0; source < FRESHNESS_SOURCES.length; source++) {
+            if (stale[source].get(row) != other.stale[source].get(otherRow)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static double optional(double[] column, BitSet presence, int row) {
+        return presence.get(row) ? column[row] : Double.NaN;
+    }
+    
+    // 한 코인의 데이터를 기존 응답 형식의 맵으로 변환
+    public Map<String, Object> toCoinMap(int row) {
+        Map<String, Object> coinData = new LinkedHashMap<>();
+        coinData.put("upbit", hasUpbit.get(row) ? upbitPrice[row] : null);
+        coinData.put("bithumb", hasBithumb.get(row) ? bithumbPrice[row] : null);
+        coinData.put("binance", binancePrice[row]);
+        coinData.put("exchangeRate", exchangeRate);
+        for (PremiumField field : OPTIONAL_FIELDS) {
+            double value = value(row, field);
+            if (!Double.isNaN(value)) {
+                coinData.put(field.getJsonName(), value);
+            }
+        }
+        if (koreanNames[row] != null || englishNames[row] != null) {
+            coinData.put("koreanName", koreanNames[row]);
+            coinData.put("englishName", englishNames[row]);
+        }
+        
+        Map<String, Object> sourceAsOf = new LinkedHashMap<>();
+        Map<String, Object> sourceStale = new LinkedHashMap<>();
+        for (int source = 0; source < FRESHNESS_SOURCES.length; source++) {
+            if (hasSource(row, source)) {
+                sourceAsOf.put(FRESHNESS_SOURCES[source].getJsonName(), asOf[source][row]);
+                sourceStale.put(FRESHNESS_SOURCES[source].getJsonName(), stale[source].get(row));
+            }
+        }
+        sourceAsOf.put("exchangeRate", exchangeRateAsOf);
+        sourceStale.put("exchangeRate", exchangeRateStale);
+        coinData.put("asOf", sourceAsOf);
+        coinData.put("stale", sourceStale);
+        return coinData;
+    }
+    
+    // 전체 데이터를 기존 응답 형식의 맵으로 변환 (이전 호환용)
+    public Map<String, Map<String, Object>> toMap() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (int row = 0; row < size; row++) {
+            result.put(symbols[row], toCoinMap(row));
+        }
+        return result;
+    }
+    
+    // 항목 값 오름차순 행 번호 (값이 같으면 심볼 순)
+    // 앞의 valued개가 값이 있는 행이고, 값이 없는 행은 그 뒤에 심볼 순으로
+    static final class SortIndex {
+        final int[] rows;
+        final int valued;
+        
+        private SortIndex(PremiumTable table, PremiumField field) {
+            Integer[] order = new Integer[table.size];
+            int count = 0;
+            for (int row = 0; row < table.size; row++) {
+                if (!Double.isNaN(table.value(row, field))) {
+                    order[count++] = row;
+                }
+            }
+            // 행이 심볼 순이므로 안정 정렬이면 값이 같은 행은 심볼 순
+            Arrays.sort(order, 0, count, (a, b) -> Double.compare(table.value(a, field), table.value(b, field)));
+            
+            this.rows = new int[table.size];
+            this.valued = count;
+            for (int i = 0; i < count; i++) {
+                rows[i] = order[i];
+            }
+            int next = count;
+            for (int row = 0; row < table.size; row++) {
+                if (Double.isNaN(table.value(row, field))) {
+                    rows[next++] = row;
+                }
+            }
+        }
+    }
+    
+    // 테이블 생성기 (값이 없는 항목은 NaN으로 전달)
+    public static final class Builder {
+        
+        private final double exchangeRate;
+        private int size;
+        private String[] symbols;
+        private String[] koreanNames;
+        private String[] englishNames;
+        private double[] upbitPrice;
+        private double[] bithumbPrice;
+        private double[] binancePrice;
+        private double[] upbitVolume24h;
+        private double[] bithumbVolume24h;
+        private double[] upbitPremium;
+        private double[] bithumbPremium;
+        private long[][] asOf = new long[FRESHNESS_SOURCES.length][];
+        private boolean[][] stale = new boolean[FRESHNESS_SOURCES.length][];
+        private long exchangeRateAsOf;
+        private boolean exchangeRateStale;
+        
+        private Builder(double exchangeRate, int expectedSize) {
+            this.exchangeRate = exchangeRate;
+            allocate(Math.max(expectedSize, 16));
+        }
+        
+        public Builder add(String symbol, double upbitPrice, double bithumbPrice, double binancePrice,
+                           double upbitVolume24h, double bithumbVolume24h,
+                           double upbitPremium, double bithumbPremium,
+                           String koreanName, String englishName) {
+            if (size == symbols.length) {
+                allocate(size * 2);
+            }
+            this.symbols[size] = symbol.intern();
+            this.koreanNames[size] = koreanName;
+            this.englishNames[size] = englishName;
+            this.upbitPrice[size] = upbitPrice;
+            this.bithumbPrice[size] = bithumbPrice;
+            this.binancePrice[size] = binancePrice;
+            this.upbitVolume24h[size] = upbitVolume24h;
+            this.bithumbVolume24h[size] = bithumbVolume24h;
+            this.upbitPremium[size] = upbitPremium;
+            this.bithumbPremium[size] = bithumbPremium;
+            size++;
+            return this;
+        }
+        
+        // 마지막으로 추가한 코인의 거래소별 기준 시각(모르면 0)과 지연 여부
+        public Builder freshness(long upbitAsOf, long bithumbAsOf, long binanceAsOf,
+                                 boolean upbitStale, boolean bithumbStale, boolean binanceStale) {
+            int row = size - 1;
+            asOf[SOURCE_UPBIT][row] = upbitAsOf;
+            asOf[SOURCE_BITHUMB][row] = bithumbAsOf;
+            asOf[SOURCE_BINANCE][row] = binanceAsOf;
+            stale[SOURCE_UPBIT][row] = upbitStale;
+            stale[SOURCE_BITHUMB][row] = bithumbStale;
+            stale[SOURCE_BINANCE][row] = binanceStale;
+            return this;
+        }
+        
+        // 환율 기준 시각과 지연 여부 (모든 코인 공통)
+        public Builder exchangeRateFreshness(long asOf, boolean stale) {
+            this.exchangeRateAsOf = asOf;
+            this.exchangeRateStale = stale;
+            return this;
+        }
+        
+        public PremiumTable build() {
+            return new PremiumTable(this);
+        }
+        
+        private void allocate(int capacity) {
+            symbols = symbols == null ? new String[capacity] : Arrays.copyOf(symbols, capacity);
+            koreanNames = koreanNames == null ? new String[capacity] : Arrays.copyOf(koreanNames, capacity);
+            englishNames = englishNames == null ? new String[capacity] : Arrays.copyOf(englishNames, capacity);
+            upbitPrice = grow(upbitPrice, capacity);
+            bithumbPrice = grow(bithumbPrice, capacity);
+            binancePrice = grow(binancePrice, capacity);
+            upbitVolume24h = grow(upbitVolume24h, capacity);
+            bithumbVolume24h = grow(bithumbVolume24h, capacity);
+            upbitPremium = grow(upbitPremium, capacity);
+            bithumbPremium = grow(bithumbPremium, capacity);
+            for (int source = 0; source < FRESHNESS_SOURCES.length; source++) {
+                asOf[source] = asOf[source] == null ? new long[capacity] : Arrays.copyOf(asOf[source], capacity);
+                stale[source] = stale[source] == null ? new boolean[capacity] : Arrays.copyOf(stale[source], capacity);
+            }
+        }
+        
+        private static double[] grow(double[] column, int capacity) {
+            return column == null ? new double[capacity] : Arrays.copyOf(column, capacity);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.kpt.main.kptracker.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+
+// PremiumTable을 기존 /api/premium/all 응답 형식으로 출력 (중간 맵 생성 없음)
+public class PremiumTableSerializer extends JsonSerializer<PremiumTable> {
+    
+    @Override
+    public void serialize(PremiumTable table, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writeTable(table, gen);
+    }
+    
+    // 전체 코인 출력 ({"BTC": {...}, "ETH": {...}, ...})
+    static void writeTable(PremiumTable table, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        for (int row = 0; row < table.size(); row++) {
+            gen.writeFieldName(table.symbol(row));
+            writeCoin(table, row, gen);
+        }
+        gen.writeEndObject();
+    }
+    
+    // 코인 한 개 출력 ({"upbit": ..., "bithumb": ..., "binance": ..., ...})
+    static void writeCoin(PremiumTable table, int row, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        writeCoinFields(table, row, gen);
+        gen.writeEndObject();
+    }
+    
+    // 코인 한 개의 항목들 (객체 시작/끝 없이, 앞에 "coin" 등을 붙여 쓸 때)
+    static void writeCoinFields(PremiumTable table, int row, JsonGenerator gen) throws IOException {
+        writeNullable(gen, PremiumField.UPBIT.getJsonName(), table.value(row, PremiumField.UPBIT));
+        writeNullable(gen, PremiumField.BITHUMB.getJsonName(), table.value(row, PremiumField.BITHUMB));
+        gen.writeNumberField(PremiumField.BINANCE.getJsonName(), table.value(row, PremiumField.BINANCE));
+        gen.writeNumberField("exchangeRate", table.getExchangeRate());
+        
+        for (PremiumField field : PremiumTable.OPTIONAL_FIELDS) {
+            double value = table.value(row, field);
+            if (!Double.isNaN(value)) {
+                gen.writeNumberField(field.getJsonName(), value);
+            }
+        }
+        
+        if (table.koreanName(row) != null || table.englishName(row) != null) {
+            gen.writeStringField("koreanName", table.koreanName(row));
+            gen.writeStringField("englishName", table.englishName(row));
+        }
+        
+        // 소스별 기준 시각과 지연 여부 ({"upbit": ..., "binance": ..., "exchangeRate": ...})
+        gen.writeObjectFieldStart("asOf");
+        for (int source = 0; source < PremiumTable.FRESHNESS_SOURCES.length; source++) {
+            if (table.hasSource(row, source)) {
+                gen.writeNumberField(PremiumTable.FRESHNESS_SOURCES[source].getJsonName(), table.asOf(row, source));
+            }
+        }
+        gen.writeNumberField("exchangeRate", table.getExchangeRateAsOf());
+        gen.writeEndObject();
+        
+        gen.writeObjectFieldStart("stale");
+        for (int source = 0; source < PremiumTable.FRESHNESS_SOURCES.length; source++) {
+            if (table.hasSource(row, source)) {
+                gen.writeBooleanField(PremiumTable.FRESHNESS_SOURCES[source].getJsonName(), table.isStale(row, source));
+            }
+        }
+        gen.writeBooleanField("exchangeRate", table.isExchangeRateStale());
+        gen.writeEndObject();
+    }
+    
+    private static void writeNullable(JsonGenerator gen, String name, double value) throws IOException {
+        if (Double.isNaN(value)) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+}
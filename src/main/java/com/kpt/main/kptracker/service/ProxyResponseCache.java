@@ -0,0 +1,201 @@
+package com.kpt.main.kptracker.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// /api/proxy 응답 캐시
+// 같은 URL은 짧은 시간 동안 캐시된 응답을 돌려주고, 동시에 들어온 같은 요청은 외부 호출 하나를 함께 기다린다
+// 크기가 정해져 있어 가장 오래 쓰이지 않은 응답부터 제거 (LRU)
+@Service
+public class ProxyResponseCache {
+    
+    static final String SOURCE_PROXY = "proxy";
+    
+    @Value("${kp.proxy.cache-ttl-ms:1000}")
+    private long ttlMs;
+    
+    @Value("${kp.proxy.cache-max-entries:256}")
+    private int maxEntries;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    // 접근 순서 LinkedHashMap (synchronized로 보호)
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > Math.max(1, maxEntries);
+        }
+    };
+    
+    // 진행 중인 외부 호출 (URL당 하나)
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    
+    // 캐시된 응답 반환, 없거나 만료됐으면 loader로 조회 (같은 URL 동시 요청은 한 번만 조회)
+    // loader에서 발생한 예외는 기다리던 요청 모두에 그대로 전달되고 캐시하지 않음
+    public String get(String url, Function<String, String> loader) {
+        String key = normalize(url);
+        
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        
+        try {
+            // 확인 직후 다른 요청이 조회를 끝내고 저장했을 수 있음
+            String response = lookup(key);
+            if (response != null) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                response = load(url, loader);
+                store(key, response);
+            }
+            created.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+    
+    long getHits() {
+        return hits.get();
+    }
+    
+    long getMisses() {
+        return misses.get();
+    }
+    
+    long getCoalesced() {
+        return coalesced.get();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("coalesced", coalesced.get());
+        return stats;
+    }
+    
+    // 외부 호출 (지연 시간, 실패를 source "proxy"로 기록)
+    private String load(String url, Function<String, String> loader) {
+        long startedAt = System.nanoTime();
+        try {
+            String response = loader.apply(url);
+            pipelineMetrics.recordFetch(SOURCE_PROXY, PipelineMetrics.OUTCOME_OK, System.nanoTime() - startedAt);
+            return response;
+        } catch (RuntimeException | Error e) {
+            pipelineMetrics.recordFetch(SOURCE_PROXY, PipelineMetrics.OUTCOME_ERROR, System.nanoTime() - startedAt);
+            throw e;
+        }
+    }
+    
+    private String lookup(String key) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return cached.body;
+        }
+    }
+    
+    private void store(String key, String body) {
+        if (body == null || ttlMs <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new CachedResponse(body, System.currentTimeMillis() + ttlMs));
+        }
+    }
+    
+    private static String await(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    // 캐시 키 정규화 (스킴/호스트 소문자, 기본 포트 제거, 쿼리 파라미터 정렬)
+    static String normalize(String url) {
+        try {
+            URI uri = URI.create(url.trim()).normalize();
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return url.trim();
+            }
+            
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                || (scheme.equals("https") && port == 443)
+                || (scheme.equals("http") && port == 80);
+            
+            StringBuilder key = new StringBuilder(url.length())
+                .append(scheme).append("://").append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (!defaultPort) {
+                key.append(':').append(port);
+            }
+            key.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+            
+            String query = uri.getRawQuery();
+            if (query != null && !query.isEmpty()) {
+                String[] params = query.split("&");
+                Arrays.sort(params);
+                key.append('?').append(String.join("&", params));
+            }
+            return key.toString();
+        } catch (IllegalArgumentException e) {
+            return url.trim();
+        }
+    }
+    
+    private static class CachedResponse {
+        final String body;
+        final long expiresAt;
+        
+        CachedResponse(String body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.kpt.main.kptracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 거래소별 요청 한도 추적 (공용 RestTemplate의 모든 응답 헤더를 확인)
+// 업비트 Remaining-Req(초/분당 남은 요청 수), 바이낸스 X-MBX-USED-WEIGHT-1M(분당 사용 가중치)가 한도에 가까워지면
+// 다음 창이 열릴 때까지, 429/418 응답을 받으면 Retry-After(없으면 설정값)만큼 해당 거래소 호출을 멈춘다
+// 업비트는 요청 그룹(ticker, orderbook 등)마다 한도가 따로 있으므로 그룹별로 따로 세고 (예: upbit:orderbook),
+// 나머지 거래소는 거래소 하나를 한 한도로 본다
+@Service
+public class RateLimitTracker {
+    
+    @Value("${kp.ratelimit.binance-weight-limit:6000}")
+    private int binanceWeightLimit = 6000;
+    
+    // 한도 중 남겨 둘 비율 (사용량이 1 - reserveRatio를 넘으면 다음 창까지 대기)
+    @Value("${kp.ratelimit.reserve-ratio:0.2}")
+    private double reserveRatio = 0.2;
+    
+    // Retry-After가 없을 때 대기 시간 (429: 요청 과다, 418: IP 차단)
+    @Value("${kp.ratelimit.throttle-backoff-ms:10000}")
+    private long throttleBackoffMs = 10_000;
+    
+    @Value("${kp.ratelimit.ban-backoff-ms:120000}")
+    private long banBackoffMs = 120_000;
+    
+    // 업비트 시세 API 요청 그룹 (/v1/ 다음 경로, 목록에 없으면 default)
+    private static final Set<String> UPBIT_GROUPS = Set.of("market", "candles", "trades", "ticker", "orderbook");
+    
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    
+    // 요청 한도를 따로 세는 단위 (exchange: UpstreamEndpoints.exchangeOf 값, url: 요청 주소 또는 경로)
+    public static String budgetKey(String exchange, String url) {
+        if (!MarketMetadataRegistry.UPBIT.equals(exchange)) {
+            return exchange;
+        }
+        return exchange + ":" + upbitGroup(url);
+    }
+    
+    static String upbitGroup(String url) {
+        int start = url != null ? url.indexOf("/v1/") : -1;
+        if (start < 0) {
+            return "default";
+        }
+        start += 4;
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+            end++;
+        }
+        String group = url.substring(start, end);
+        return UPBIT_GROUPS.contains(group) ? group : "default";
+    }
+    
+    // 응답 반영 (exchange: budgetKey 값)
+    public void observe(String exchange, int status, HttpHeaders headers, long now) {
+        Budget budget = budgets.computeIfAbsent(exchange, key -> new Budget());
+        synchronized (budget) {
+            budget.observedAt = now;
+            
+            if (status == 429 || status == 418) {
+                long retryAfterMs = parseRetryAfterMs(headers.getFirst(HttpHeaders.RETRY_AFTER));
+                if (retryAfterMs <= 0) {
+                    retryAfterMs = status == 418 ? banBackoffMs : throttleBackoffMs;
+                }
+                budget.rejected++;
+                block(budget, now + retryAfterMs, status == 418 ? "banned (418)" : "throttled (429)");
+                System.err.println(exchange + " 요청 한도 초과 응답 " + status + ", " + retryAfterMs + "ms 동안 호출 중단");
+                return;
+            }
+            
+            String remaining = headers.getFirst("Remaining-Req");
+            if (remaining != null) {
+                observeUpbit(budget, remaining, now);
+            }
+            String usedWeight = headers.getFirst("X-MBX-USED-WEIGHT-1M");
+            if (usedWeight == null) {
+                usedWeight = headers.getFirst("X-MBX-USED-WEIGHT");
+            }
+            if (usedWeight != null) {
+                observeBinance(budget, usedWeight, now);
+            }
+        }
+    }
+    
+    // 호출 가능 여부 (exchange: budgetKey 값, 대기 중이면 false)
+    public boolean allows(String exchange, long now) {
+        return getBlockedForMs(exchange, now) == 0;
+    }
+    
+    // 해당 거래소 호출을 다시 할 수 있을 때까지 남은 시간 (ms, 가능하면 0)
+    public long getBlockedForMs(String exchange, long now) {
+        Budget budget = exchange != null ? budgets.get(exchange) : null;
+        if (budget == null) {
+            return 0;
+        }
+        synchronized (budget) {
+            return Math.max(0, budget.blockedUntil - now);
+        }
+    }
+    
+    // 모든 거래소 중 가장 오래 남은 대기 시간
+    public long getMaxBlockedForMs(long now) {
+        long max = 0;
+        for (String exchange : budgets.keySet()) {
+            max = Math.max(max, getBlockedForMs(exchange, now));
+        }
+        return max;
+    }
+    
+    // 한도 사용률 중 가장 높은 값 (0~1, 마지막 응답이 현재 창의 것일 때만)
+    public double getPressure(long now) {
+        double pressure = 0;
+        for (Budget budget : budgets.values()) {
+            synchronized (budget) {
+                pressure = Math.max(pressure, budget.pressure(now));
+            }
+        }
+        return pressure;
+    }
+    
+    public Map<String, Map<String, Object>> getStatus() {
+        long now = System.currentTimeMillis();
+        Map<String, Map<String, Object>> status = new LinkedHashMap<>();
+        budgets.forEach((exchange, budget) -> {
+            synchronized (budget) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("pressure", budget.pressure(now));
+                if (budget.remainingSec >= 0) {
+                    item.put("remainingSec", budget.remainingSec);
+                }
+                if (budget.remainingMin >= 0) {
+                    item.put("remainingMin", budget.remainingMin);
+                }
+                if (budget.usedWeight >= 0) {
+                    item.put("usedWeight", budget.usedWeight);
+                    item.put("weightLimit", binanceWeightLimit);
+                }
+                item.put("blockedForMs", Math.max(0, budget.blockedUntil - now));
+                item.put("blockedReason", budget.blockedUntil > now ? budget.blockedReason : null);
+                item.put("rejected", budget.rejected);
+                item.put("observedAt", budget.observedAt);
+                status.put(exchange, item);
+            }
+        });
+        return status;
+    }
+    
+    // "group=default; min=1799; sec=29"
+    private void observeUpbit(Budget budget, String header, long now) {
+        int sec = -1;
+        int min = -1;
+        for (String part : header.split(";")) {
+            String[] pair = part.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].equals("sec")) {
+                sec = parseInt(pair[1]);
+            } else if (pair.length == 2 && pair[0].equals("min")) {
+                min = parseInt(pair[1]);
+            }
+        }
+        budget.remainingSec = sec;
+        budget.remainingMin = min;
+        if (sec >= 0) {
+            // 초당 한도는 헤더에 없으므로 이 그룹에서 지금까지 본 가장 큰 남은 수를 한도로 사용
+            budget.secLimit = Math.max(budget.secLimit, sec + 1);
+            if (sec <= reserve(budget.secLimit)) {
+                block(budget, windowEnd(now, 1_000), "sec budget");
+            }
+        }
+        if (min >= 0) {
+            budget.minLimit = Math.max(budget.minLimit, min + 1);
+            if (min <= reserve(budget.minLimit)) {
+                block(budget, windowEnd(now, 60_000), "min budget");
+            }
+        }
+    }
+    
+    private void observeBinance(Budget budget, String header, long now) {
+        int used = parseInt(header.trim());
+        if (used < 0) {
+            return;
+        }
+        budget.usedWeight = used;
+        budget.weightLimit = binanceWeightLimit;
+        if (used >= binanceWeightLimit - reserve(binanceWeightLimit)) {
+            block(budget, windowEnd(now, 60_000), "weight budget");
+        }
+    }
+    
+    private int reserve(int limit) {
+        return (int) Math.floor(limit * reserveRatio);
+    }
+    
+    private static void block(Budget budget, long until, String reason) {
+        if (until > budget.blockedUntil) {
+            budget.blockedUntil = until;
+            budget.blockedReason = reason;
+        }
+    }
+    
+    // 고정 창(초/분) 끝 시각
+    private static long windowEnd(long now, long windowMs) {
+        return now - now % windowMs + windowMs;
+    }
+    
+    // Retry-After (초 단위 숫자만 지원, HTTP 날짜 형식이면 0)
+    static long parseRetryAfterMs(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private static final class Budget {
+        long observedAt;
+        long blockedUntil;
+        String blockedReason;
+        long rejected;
+        
+        // 업비트
+        int remainingSec = -1;
+        int remainingMin = -1;
+        int secLimit;
+        int minLimit;
+        
+        // 바이낸스
+        int usedWeight = -1;
+        int weightLimit;
+        
+        // 현재 창의 한도 사용률 (마지막 응답이 이전 창이면 0)
+        double pressure(long now) {
+            double pressure = 0;
+            if (remainingSec >= 0 && secLimit > 0 && windowEnd(observedAt, 1_000) > now) {
+                pressure = Math.max(pressure, 1 - (double) remainingSec / secLimit);
+            }
+            if (remainingMin >= 0 && minLimit > 0 && windowEnd(observedAt, 60_000) > now) {
+                pressure = Math.max(pressure, 1 - (double) remainingMin / minLimit);
+            }
+            if (usedWeight >= 0 && weightLimit > 0 && windowEnd(observedAt, 60_000) > now) {
+                pressure = Math.max(pressure, (double) usedWeight / weightLimit);
+            }
+            return Math.min(1, pressure);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 코인 하나, 거래소 하나의 김프 이동 통계 (5분/1시간/24시간)
+// 값이 들어올 때마다 O(1)로 갱신하고 갱신 중에는 객체를 만들지 않는다 (배열은 생성 시 한 번만 할당)
+//
+// - 평균/분산: 시간 가중 지수 이동 평균과 분산 (Welford 방식 증분 갱신, alpha = 1 - exp(-dt / window))
+//   시세는 값이 바뀔 때만 들어오므로 직전 값이 다음 값이 올 때까지 유지된 것으로 보고(sample-and-hold)
+//   직전 값을 유지된 시간(dt)만큼 반영한다. 새 값은 다음 갱신 때 반영되므로 z-score는 새 값을 그 이전 평균과 비교
+// - 최소/최대: 창을 BUCKETS개 구간으로 나눠 구간별 최소/최대를 단조 덱으로 관리 (구간 단위 근사)
+final class RollingPremiumStats {
+    
+    static final String[] WINDOW_NAMES = {"5m", "1h", "24h"};
+    static final long[] WINDOW_MS = {300_000L, 3_600_000L, 86_400_000L};
+    
+    private static final int BUCKETS = 60;
+    
+    private final double[] means = new double[WINDOW_MS.length];
+    private final double[] variances = new double[WINDOW_MS.length];
+    private final WindowExtremes[] extremes = new WindowExtremes[WINDOW_MS.length];
+    
+    private double last = Double.NaN;
+    private long lastAt;
+    private long samples;
+    
+    RollingPremiumStats() {
+        for (int window = 0; window < WINDOW_MS.length; window++) {
+            extremes[window] = new WindowExtremes(WINDOW_MS[window] / BUCKETS);
+        }
+    }
+    
+    synchronized void update(long timestamp, double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        
+        if (samples == 0) {
+            for (int window = 0; window < WINDOW_MS.length; window++) {
+                means[window] = value;
+                variances[window] = 0;
+            }
+        } else {
+            long elapsed = Math.max(0, timestamp - lastAt);
+            for (int window = 0; window < WINDOW_MS.length; window++) {
+                double alpha = 1 - Math.exp(-(double) elapsed / WINDOW_MS[window]);
+                double diff = last - means[window];
+                double increment = alpha * diff;
+                means[window] += increment;
+                variances[window] = (1 - alpha) * (variances[window] + diff * increment);
+            }
+        }
+        for (WindowExtremes window : extremes) {
+            window.add(timestamp, value);
+        }
+        
+        last = value;
+        lastAt = Math.max(lastAt, timestamp);
+        samples++;
+    }
+    
+    // 창별 통계 ({"5m": {"mean", "stddev", "zScore", "min", "max"}, ...})
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("last", samples > 0 ? last : null);
+        result.put("updatedAt", lastAt);
+        result.put("samples", samples);
+        if (samples == 0) {
+            return result;
+        }
+        
+        for (int window = 0; window < WINDOW_MS.length; window++) {
+            double stddev = Math.sqrt(variances[window]);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("mean", means[window]);
+            stats.put("stddev", stddev);
+            stats.put("zScore", stddev > 0 ? (last - means[window]) / stddev : null);
+            stats.put("min", extremes[window].min(lastAt));
+            stats.put("max", extremes[window].max(lastAt));
+            result.put(WINDOW_NAMES[window], stats);
+        }
+        return result;
+    }
+    
+    // 창 안의 최소/최대 (구간 번호 = timestamp / bucketMs)
+    private static class WindowExtremes {
+        private final long bucketMs;
+        
+        // 닫힌 구간의 최소/최대 (구간 번호 % BUCKETS 위치)
+        private final double[] bucketMin = new double[BUCKETS];
+        private final double[] bucketMax = new double[BUCKETS];
+        
+        // 단조 덱 (구간 번호, 최소 덱은 값 오름차순 / 최대 덱은 내림차순)
+        private final long[] minDeque = new long[BUCKETS];
+        private final long[] maxDeque = new long[BUCKETS];
+        private int minHead;
+        private int minSize;
+        private int maxHead;
+        private int maxSize;
+        
+        // 진행 중인 구간
+        private long current = Long.MIN_VALUE;
+        private double currentMin;
+        private double currentMax;
+        
+        WindowExtremes(long bucketMs) {
+            this.bucketMs = bucketMs;
+        }
+        
+        void add(long timestamp, double value) {
+            long bucket = Math.floorDiv(timestamp, bucketMs);
+            if (bucket < current) {
+                // 늦게 들어온 값은 진행 중인 구간에 포함
+                bucket = current;
+            }
+            if (bucket != current) {
+                if (current != Long.MIN_VALUE) {
+                    close();
+                }
+                current = bucket;
+                currentMin = value;
+                currentMax = value;
+            } else {
+                currentMin = Math.min(currentMin, value);
+                currentMax = Math.max(currentMax, value);
+            }
+            expire(bucket);
+        }
+        
+        Double min(long now) {
+            if (current == Long.MIN_VALUE) {
+                return null;
+            }
+            expire(Math.floorDiv(now, bucketMs));
+            double min = currentMin;
+            if (minSize > 0) {
+                min = Math.min(min, bucketMin[slot(minDeque[minHead])]);
+            }
+            return min;
+        }
+        
+        Double max(long now) {
+            if (current == Long.MIN_VALUE) {
+                return null;
+            }
+            expire(Math.floorDiv(now, bucketMs));
+            double max = currentMax;
+            if (maxSize > 0) {
+                max = Math.max(max, bucketMax[slot(maxDeque[maxHead])]);
+            }
+            return max;
+        }
+        
+        // 진행 중인 구간을 닫고 덱에 추가
+        private void close() {
+            int slot = slot(current);
+            bucketMin[slot] = currentMin;
+            bucketMax[slot] = currentMax;
+            
+            while (minSize > 0 && bucketMin[slot(minDeque[(minHead + minSize - 1) % BUCKETS])] >= currentMin) {
+                minSize--;
+            }
+            minDeque[(minHead + minSize) % BUCKETS] = current;
+            minSize++;
+            
+            while (maxSize > 0 && bucketMax[slot(maxDeque[(maxHead + maxSize - 1) % BUCKETS])] <= currentMax) {
+                maxSize--;
+            }
+            maxDeque[(maxHead + maxSize) % BUCKETS] = current;
+            maxSize++;
+        }
+        
+        // 창 밖으로 나간 구간 제거 (현재 구간 포함 최근 BUCKETS개만 유지)
+        private void expire(long bucket) {
+            long oldest = bucket - BUCKETS + 1;
+            while (minSize > 0 && minDeque[minHead] < oldest) {
+                minHead = (minHead + 1) % BUCKETS;
+                minSize--;
+            }
+            while (maxSize > 0 && maxDeque[maxHead] < oldest) {
+                maxHead = (maxHead + 1) % BUCKETS;
+                maxSize--;
+            }
+        }
+        
+        private static int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) BUCKETS);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kpt.main.kptracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 데이터 소스별 서킷 브레이커
+// 연속 실패가 failureThreshold번이면 openMs 동안 호출하지 않고 바로 실패 처리(OPEN)
+// openMs가 지나면 한 번만 시험 호출(HALF_OPEN)해서 성공하면 닫고, 실패하면 다시 연다
+final class SourceCircuitBreaker {
+    
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final String source;
+    private final int failureThreshold;
+    private final long openMs;
+    
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long rejectedCount;
+    
+    SourceCircuitBreaker(String source, int failureThreshold, long openMs) {
+        this.source = source;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = openMs;
+    }
+    
+    // 호출 가능 여부 (OPEN이면 false, 열린 지 openMs가 지났으면 시험 호출 한 번만 허용)
+    synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt >= openMs) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                rejectedCount++;
+                return false;
+            default:
+                // 시험 호출 결과를 기다리는 중
+                rejectedCount++;
+                return false;
+        }
+    }
+    
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+    
+    synchronized void onFailure(long now) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                System.err.println(source + " 서킷 브레이커 열림 (연속 실패 " + consecutiveFailures + "회, " + openMs + "ms 동안 호출 중단)");
+            }
+            state = State.OPEN;
+            openedAt = now;
+        }
+    }
+    
+    synchronized State getState() {
+        return state;
+    }
+    
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("consecutiveFailures", consecutiveFailures);
+        status.put("openedAt", state == State.CLOSED ? 0 : openedAt);
+        status.put("rejected", rejectedCount);
+        return status;
+    }
+}
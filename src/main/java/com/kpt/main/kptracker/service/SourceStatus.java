@@ -0,0 +1,77 @@
+package com.kpt.main.kptracker.service;
+
+// 데이터 소스별 조회 결과 상태
+// 조회에 실패하거나 서킷 브레이커가 열려 있거나 요청 한도 대기 중이면 마지막으로 성공한 값을 대신 쓰며, 이때 stale=true, asOf는 그 값의 조회 시각
+public final class SourceStatus {
+    
+    public enum State {
+        OK, TIMEOUT, ERROR, CIRCUIT_OPEN, RATE_LIMITED, RESTORED
+    }
+    
+    private final State state;
+    private final long elapsedMs;
+    private final String message;
+    private final long asOf;
+    private final boolean stale;
+    
+    private SourceStatus(State state, long elapsedMs, String message, long asOf, boolean stale) {
+        this.state = state;
+        this.elapsedMs = elapsedMs;
+        this.message = message;
+        this.asOf = asOf;
+        this.stale = stale;
+    }
+    
+    public static SourceStatus ok(long elapsedMs) {
+        return new SourceStatus(State.OK, elapsedMs, null, System.currentTimeMillis(), false);
+    }
+    
+    public static SourceStatus timeout(long elapsedMs) {
+        return new SourceStatus(State.TIMEOUT, elapsedMs, "제한 시간 초과", 0, true);
+    }
+    
+    public static SourceStatus error(long elapsedMs, String message) {
+        return new SourceStatus(State.ERROR, elapsedMs, message, 0, true);
+    }
+    
+    public static SourceStatus circuitOpen() {
+        return new SourceStatus(State.CIRCUIT_OPEN, 0, "서킷 브레이커 열림", 0, true);
+    }
+    
+    // 거래소 요청 한도에 가까워 호출하지 않음 (RateLimitTracker)
+    public static SourceStatus rateLimited() {
+        return new SourceStatus(State.RATE_LIMITED, 0, "요청 한도 대기", 0, true);
+    }
+    
+    // 재시작 시 저장된 스냅샷 파일에서 복원한 값 (첫 갱신 전까지, asOf는 저장 당시 조회 시각)
+    public static SourceStatus restored(long asOf) {
+        return new SourceStatus(State.RESTORED, 0, "저장된 스냅샷", asOf, true);
+    }
+    
+    // 대신 사용한 마지막 성공 값의 조회 시각 지정 (값이 없으면 0)
+    public SourceStatus withAsOf(long lastGoodAt) {
+        return new SourceStatus(state, elapsedMs, message, lastGoodAt, stale);
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    // 사용한 값의 조회 시각 (ms, 값이 없으면 0)
+    public long getAsOf() {
+        return asOf;
+    }
+    
+    // 이번 조회 값이 아닌 이전 값(또는 기본값)을 사용했는지 여부
+    public boolean isStale() {
+        return stale;
+    }
+}
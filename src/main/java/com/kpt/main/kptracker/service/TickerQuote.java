@@ -0,0 +1,47 @@
+package com.kpt.main.kptracker.service;
+
+// 거래소 ticker 값 (현재가 + 24시간 거래대금)
+public final class TickerQuote {
+    
+    private final double price;
+    private final double volume24h;  // 24시간 거래대금 (KRW), 없으면 NaN
+    
+    public TickerQuote(double price, double volume24h) {
+        this.price = price;
+        this.volume24h = volume24h;
+    }
+    
+    public double getPrice() {
+        return price;
+    }
+    
+    public double getVolume24h() {
+        return volume24h;
+    }
+    
+    public boolean hasVolume24h() {
+        return !Double.isNaN(volume24h);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TickerQuote)) {
+            return false;
+        }
+        TickerQuote other = (TickerQuote) o;
+        return Double.compare(price, other.price) == 0 && Double.compare(volume24h, other.volume24h) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(price) + Double.hashCode(volume24h);
+    }
+    
+    @Override
+    public String toString() {
+        return "TickerQuote{price=" + price + ", volume24h=" + volume24h + "}";
+    }
+}
@@ -0,0 +1,76 @@
+package com.kpt.main.kptracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+// 거래소/환율 REST API 기본 주소 (부하 테스트 시 로컬 시뮬레이터로 바꿀 수 있도록 설정으로 분리)
+@Service
+public class UpstreamEndpoints {
+    
+    public static final String EXCHANGE_RATE = "exchangeRate";
+    
+    @Value("${kp.upstream.upbit-url:https://api.upbit.com}")
+    private String upbitUrl;
+    
+    @Value("${kp.upstream.bithumb-url:https://api.bithumb.com}")
+    private String bithumbUrl;
+    
+    @Value("${kp.upstream.binance-url:https://api.binance.com}")
+    private String binanceUrl;
+    
+    @Value("${kp.upstream.exchange-rate-url:https://api.exchangerate-api.com}")
+    private String exchangeRateUrl;
+    
+    public String upbit(String path) {
+        return join(upbitUrl, path);
+    }
+    
+    public String bithumb(String path) {
+        return join(bithumbUrl, path);
+    }
+    
+    public String binance(String path) {
+        return join(binanceUrl, path);
+    }
+    
+    public String exchangeRate(String path) {
+        return join(exchangeRateUrl, path);
+    }
+    
+    // URL의 거래소 (upbit, bithumb, binance, exchangeRate, 해당 없으면 null)
+    // 설정된 기본 주소와 실제 거래소 호스트 모두 인식 (/api/proxy로 실제 주소를 호출하는 경우)
+    public String exchangeOf(String url) {
+        if (url.startsWith(prefix(upbitUrl)) || url.contains("api.upbit.com")) {
+            return MarketMetadataRegistry.UPBIT;
+        }
+        if (url.startsWith(prefix(bithumbUrl)) || url.contains("api.bithumb.com")) {
+            return MarketMetadataRegistry.BITHUMB;
+        }
+        if (url.startsWith(prefix(binanceUrl)) || url.contains("api.binance.com")) {
+            return MarketMetadataRegistry.BINANCE;
+        }
+        if (url.startsWith(prefix(exchangeRateUrl)) || url.contains("api.exchangerate-api.com")) {
+            return EXCHANGE_RATE;
+        }
+        return null;
+    }
+    
+    // 설정된 기본 주소 중 하나로 시작하는 URL인지 (/api/proxy 허용 대상)
+    public boolean isUpstreamUrl(String url) {
+        for (String base : List.of(upbitUrl, bithumbUrl, binanceUrl, exchangeRateUrl)) {
+            if (url.startsWith(prefix(base))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String prefix(String base) {
+        return base.endsWith("/") ? base : base + "/";
+    }
+    
+    private static String join(String base, String path) {
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) + path : base + path;
+    }
+}
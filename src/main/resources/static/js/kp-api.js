@@ -10,6 +10,9 @@ const API_ENDPOINTS = {
 // 프록시 서버 (CORS 우회용) - 백엔드 API 사용
 const USE_BACKEND_API = true;
 
+// 마지막으로 받은 전체 데이터 버전 (다음 조회부터는 이후 변경분만 요청)
+let premiumVersion = null;
+
 // 전체 데이터 가져오기
 async function fetchAllData() {
     try {
@@ -19,9 +22,12 @@ async function fetchAllData() {
         showLoading('eth-premium');
         showLoading('usdt-premium');
         
-        // 백엔드 API에서 전체 데이터 가져오기
-        const response = await fetch('/api/premium/all');
-        const data = await response.json();
+        // 백엔드 API에서 전체 데이터 가져오기 (이미 받은 데이터가 있으면 변경분만)
+        const hasData = premiumVersion !== null && window.allCoinsData;
+        const response = await fetch(hasData ? `/api/premium/all?since=${premiumVersion}` : '/api/premium/all');
+        const body = await response.json();
+        const data = hasData ? mergePremiumDelta(body) : body;
+        premiumVersion = response.headers.get('X-Premium-Version');
         
         // 환율 가져오기
         await fetchExchangeRate();
@@ -38,6 +44,70 @@ async function fetchAllData() {
     }
 }
 
+// 실시간 스트림 (SSE) - 연결 시 전체 데이터를 받고 이후에는 변경된 코인만 받음
+let premiumStream = null;
+
+// 스트림 연결 (EventSource를 지원하지 않으면 false 반환 → 주기 조회 사용)
+function connectPremiumStream() {
+    if (typeof EventSource === 'undefined') {
+        return false;
+    }
+    disconnectPremiumStream();
+    
+    premiumStream = new EventSource('/api/premium/stream');
+    
+    // 전체 데이터 ({"BTC": {...}, ...})
+    premiumStream.addEventListener('snapshot', event => {
+        applyStreamData(JSON.parse(event.data));
+    });
+    
+    // 변경분 ({"version": N, "updated": {...}, "removed": [...]})
+    premiumStream.addEventListener('delta', event => {
+        applyStreamData(mergePremiumDelta(JSON.parse(event.data)));
+    });
+    
+    premiumStream.onerror = () => {
+        // 일시적인 끊김은 브라우저가 자동 재연결, 연결 자체가 거부된 경우에만 주기 조회로 전환
+        if (premiumStream && premiumStream.readyState === EventSource.CLOSED) {
+            console.warn('실시간 스트림 연결 실패 - 주기 조회로 전환');
+            disconnectPremiumStream();
+            startPolling();
+        }
+    };
+    
+    return true;
+}
+
+// 스트림 연결 해제
+function disconnectPremiumStream() {
+    if (premiumStream) {
+        premiumStream.close();
+        premiumStream = null;
+    }
+}
+
+// 변경분을 현재 데이터에 합침 (full이면 updated가 전체 데이터)
+function mergePremiumDelta(delta) {
+    const data = Object.assign({}, delta.full ? {} : (window.allCoinsData || {}), delta.updated);
+    delta.removed.forEach(coin => delete data[coin]);
+    return data;
+}
+
+// 스트림 데이터 반영 (환율은 코인 데이터에 포함된 값 사용)
+function applyStreamData(data) {
+    const firstCoin = Object.values(data)[0];
+    if (firstCoin && firstCoin.exchangeRate) {
+        exchangeRate = firstCoin.exchangeRate;
+        const rateElement = document.querySelector('#usd-krw-rate .rate-value');
+        if (rateElement) {
+            rateElement.textContent = formatNumber(exchangeRate.toFixed(2));
+        }
+    }
+    
+    processAllData(data);
+    updateCurrentTime();
+}
+
 // 전체 데이터 처리
 function processAllData(data) {
     if (!data) return;
@@ -291,65 +361,89 @@ async function fetchMajorCoins() {
     renderMajorCoinsTable();
 }
 
-// 전체 코인 테이블 업데이트
+// 전체 코인 테이블: 정렬/거래소 필터/페이지는 서버에서 처리 (/api/premium/all?sort=..&exchange=..&limit=..)
+const COIN_VIEW_SORTS = {
+    'upbit-premium-desc': ['upbitPremium', 'desc'],
+    'upbit-premium-asc': ['upbitPremium', 'asc'],
+    'bithumb-premium-desc': ['bithumbPremium', 'desc'],
+    'bithumb-premium-asc': ['bithumbPremium', 'asc'],
+    'volume-desc': ['totalVolume24h', 'desc'],
+    'volume-asc': ['totalVolume24h', 'asc'],
+    'name-asc': ['symbol', 'asc']
+};
+const COIN_VIEW_PAGE_SIZE = 100;
+// 조건이 그대로면 이 간격보다 자주 다시 받지 않음
+const COIN_VIEW_REFRESH_MS = 5000;
+
+let coinViewLimit = COIN_VIEW_PAGE_SIZE;
+let coinViewQuery = null;
+let coinViewETag = null;
+let coinViewFetchedAt = 0;
+let coinViewLoading = false;
+
+// 현재 화면 조건을 요청 파라미터로 변환
+function coinViewParams() {
+    const currentSort = document.getElementById('sort-by')?.value || 'upbit-premium-desc';
+    const [sort, order] = COIN_VIEW_SORTS[currentSort] || COIN_VIEW_SORTS['upbit-premium-desc'];
+    const exchange = document.querySelector('input[name="exchange-filter"]:checked')?.value || 'all';
+    const params = new URLSearchParams({ sort, order, exchange, limit: coinViewLimit });
+    const search = document.getElementById('coin-search')?.value.trim();
+    if (search) {
+        params.set('search', search);
+    }
+    return params.toString();
+}
+
+// 정렬/필터된 코인 목록 가져오기 (force가 아니면 조건이 바뀌었거나 갱신 간격이 지났을 때만)
+async function fetchCoinView(force) {
+    const query = coinViewParams();
+    const changed = query !== coinViewQuery;
+    if (!changed && (coinViewLoading || (!force && Date.now() - coinViewFetchedAt < COIN_VIEW_REFRESH_MS))) {
+        return;
+    }
+    
+    coinViewLoading = true;
+    coinViewFetchedAt = Date.now();
+    try {
+        // 같은 조건이면 ETag로 확인 (스냅샷이 그대로면 304)
+        const headers = !changed && coinViewETag ? { 'If-None-Match': coinViewETag } : {};
+        const response = await fetch(`/api/premium/all?${query}`, { headers });
+        if (response.status === 304) return;
+        if (!response.ok) {
+            throw new Error(await response.text());
+        }
+        const view = await response.json();
+        
+        // 응답을 기다리는 동안 조건이 바뀌었으면 버림
+        if (query !== coinViewParams()) return;
+        coinViewQuery = query;
+        coinViewETag = response.headers.get('ETag');
+        renderCoinView(view);
+    } catch (error) {
+        console.error('전체 코인 목록 가져오기 실패:', error);
+    } finally {
+        coinViewLoading = false;
+    }
+}
+
+// 전체 코인 테이블 업데이트 (새 데이터를 받을 때마다 호출, 목록은 서버 조회 결과로 그림)
 function updateAllCoinsTable(data) {
+    fetchCoinView(false);
+}
+
+// 서버에서 받은 순서 그대로 렌더링
+function renderCoinView(view) {
     const tbody = document.getElementById('all-coins-table');
     if (!tbody) return;
     
     tbody.innerHTML = '';
     
-    // 현재 필터 확인
     const currentFilter = document.querySelector('input[name="exchange-filter"]:checked')?.value || 'all';
-    
-    // 데이터를 배열로 변환하고 필터링
-    let coinsArray = Object.entries(data).map(([symbol, coinData]) => ({
-        symbol,
-        ...coinData
+    const coinsArray = view.coins.map(coin => ({
+        symbol: coin.coin,
+        ...coin
     }));
     
-    // 거래소별 필터 적용
-    coinsArray = coinsArray.filter(coin => {
-        const hasUpbit = coin.upbit && coin.upbit > 0;
-        const hasBithumb = coin.bithumb && coin.bithumb > 0;
-        
-        switch (currentFilter) {
-            case 'both':
-                return hasUpbit && hasBithumb;
-            case 'upbit-only':
-                return hasUpbit && !hasBithumb;
-            case 'bithumb-only':
-                return !hasUpbit && hasBithumb;
-            case 'all':
-            default:
-                return true;
-        }
-    });
-    
-    // 현재 선택된 정렬 옵션 확인
-    const currentSort = document.getElementById('sort-by')?.value || 'upbit-premium-desc';
-    
-    // 정렬 적용
-    coinsArray.sort((a, b) => {
-        switch (currentSort) {
-            case 'upbit-premium-desc':
-                return (b.upbitPremium || -999) - (a.upbitPremium || -999);
-            case 'upbit-premium-asc':
-                return (a.upbitPremium || 999) - (b.upbitPremium || 999);
-            case 'bithumb-premium-desc':
-                return (b.bithumbPremium || -999) - (a.bithumbPremium || -999);
-            case 'bithumb-premium-asc':
-                return (a.bithumbPremium || 999) - (b.bithumbPremium || 999);
-            case 'volume-desc':
-                return (b.totalVolume24h || 0) - (a.totalVolume24h || 0);
-            case 'volume-asc':
-                return (a.totalVolume24h || 0) - (b.totalVolume24h || 0);
-            case 'name-asc':
-                return a.symbol.localeCompare(b.symbol);
-            default:
-                return (b.upbitPremium || -999) - (a.upbitPremium || -999);
-        }
-    });
-    
     coinsArray.forEach(coin => {
         const row = document.createElement('tr');
         row.setAttribute('data-coin', coin.symbol);
@@ -458,8 +552,9 @@ function updateAllCoinsTable(data) {
         tbody.appendChild(row);
     });
     
-    // 필터 결과 개수 표시
-    updateFilterInfo(coinsArray.length);
+    // 필터 결과 개수 표시 (조건에 맞는 전체 개수)
+    updateFilterInfo(view.total);
+    updateLoadMoreButton(view.total, coinsArray.length);
     
     // 현재 필터 상태에 따라 컬럼 숨김 처리 재적용
     // currentFilter는 이미 상단에 선언되어 있음
@@ -536,27 +631,40 @@ async function fetchAllCoins() {
     updateAllCoinsTime();
 }
 
-// 코인 필터링
+// 코인 검색 (불러온 페이지가 아니라 전체 목록에서 찾도록 검색어로 첫 페이지부터 다시 조회)
 function filterCoins() {
-    const searchTerm = document.getElementById('coin-search').value.toLowerCase();
-    const rows = document.querySelectorAll('#all-coins-table tr');
-    
-    rows.forEach(row => {
-        const coinName = row.querySelector('td:first-child').textContent.toLowerCase();
-        if (coinName.includes(searchTerm)) {
-            row.style.display = '';
-        } else {
-            row.style.display = 'none';
-        }
-    });
+    coinViewLimit = COIN_VIEW_PAGE_SIZE;
+    fetchCoinView(false);
 }
 
-// 코인 정렬
+// 코인 정렬 (정렬 옵션이 바뀌면 첫 페이지부터 다시 조회)
 function sortCoins() {
-    // 현재 데이터가 있으면 정렬 옵션에 따라 다시 렌더링
-    if (window.allCoinsData) {
-        updateAllCoinsTable(window.allCoinsData);
+    coinViewLimit = COIN_VIEW_PAGE_SIZE;
+    fetchCoinView(true);
+}
+
+// 다음 페이지까지 포함해 다시 조회
+function loadMoreCoins() {
+    coinViewLimit += COIN_VIEW_PAGE_SIZE;
+    fetchCoinView(true);
+}
+
+// 더 보기 버튼 (아직 표시하지 않은 코인이 있을 때만)
+function updateLoadMoreButton(total, shown) {
+    const table = document.getElementById('all-coins-table')?.closest('table');
+    if (!table) return;
+    
+    let button = document.getElementById('load-more-coins');
+    if (!button) {
+        button = document.createElement('button');
+        button.id = 'load-more-coins';
+        button.className = 'load-more-button';
+        button.onclick = loadMoreCoins;
+        table.after(button);
     }
+    
+    button.textContent = `더 보기 (${shown} / ${total})`;
+    button.style.display = shown < total ? '' : 'none';
 }
 
 // 거래소별 필터링
@@ -566,10 +674,9 @@ function filterByExchange(filterType) {
     // 컬럼 표시/숨김 처리
     updateTableColumns(filterType);
     
-    // 전체 데이터 다시 렌더링 (필터 적용)
-    if (window.allCoinsData) {
-        updateAllCoinsTable(window.allCoinsData);
-    }
+    // 필터 조건으로 첫 페이지부터 다시 조회
+    coinViewLimit = COIN_VIEW_PAGE_SIZE;
+    fetchCoinView(true);
 }
 
 // 테이블 컬럼 업데이트
@@ -153,9 +153,22 @@ function toggleAutoUpdate() {
     }
 }
 
-// 자동 업데이트 시작
+// 자동 업데이트 시작 (실시간 스트림 우선, 사용할 수 없으면 주기 조회)
 function startAutoUpdate() {
     stopAutoUpdate();
+    
+    if (typeof connectPremiumStream !== 'undefined' && connectPremiumStream()) {
+        console.log('자동 업데이트 시작: 실시간 스트림');
+        return;
+    }
+    startPolling();
+}
+
+// 주기 조회 시작
+function startPolling() {
+    if (autoUpdateInterval) {
+        clearInterval(autoUpdateInterval);
+    }
     fetchAllData();
     
     // 설정에서 지정한 주기 사용 (기본값 30초)
@@ -168,6 +181,9 @@ function startAutoUpdate() {
 
 // 자동 업데이트 중지
 function stopAutoUpdate() {
+    if (typeof disconnectPremiumStream !== 'undefined') {
+        disconnectPremiumStream();
+    }
     if (autoUpdateInterval) {
         clearInterval(autoUpdateInterval);
         autoUpdateInterval = null;
@@ -3,7 +3,22 @@ package com.kpt.main.kptracker;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// 컨텍스트 로딩만 확인하므로 외부 거래소 호출, 파일 저장, 스트림 연결은 하지 않음
+// (거래소 주소는 연결이 바로 거부되는 로컬 포트, 주기 작업은 첫 실행 뒤 다시 돌지 않도록 긴 간격)
+@SpringBootTest(properties = {
+    "kp.upstream.upbit-url=http://localhost:1",
+    "kp.upstream.bithumb-url=http://localhost:1",
+    "kp.upstream.binance-url=http://localhost:1",
+    "kp.upstream.exchange-rate-url=http://localhost:1",
+    "kp.stream.enabled=false",
+    "kp.history.enabled=false",
+    "kp.snapshot.store.enabled=false",
+    "kp.snapshot.refresh-interval-ms=3600000",
+    "kp.snapshot.min-interval-ms=3600000",
+    "kp.snapshot.max-interval-ms=3600000",
+    "kp.markets.refresh-interval-ms=3600000",
+    "kp.orderbook.refresh-interval-ms=3600000"
+})
 class KpTrackerApplicationTests {
 
   @Test
@@ -0,0 +1,98 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ExchangePayloadParserTest {
+
+  private final ExchangePayloadParser parser = new ExchangePayloadParser();
+
+  @Test
+  void bithumbTickerStreamingMatchesTree() throws IOException {
+    byte[] payload = fixture("bithumb-ticker-all-krw.json");
+
+    Map<String, TickerQuote> streamed = parser.parseBithumbTicker(new ByteArrayInputStream(payload));
+    Map<String, TickerQuote> tree = parser.parseBithumbTickerTree(new String(payload, StandardCharsets.UTF_8));
+
+    assertFalse(tree.isEmpty());
+    assertEquals(tree, streamed);
+    assertFalse(streamed.containsKey("date"));
+    assertFalse(streamed.containsKey("IMX"));
+    assertFalse(streamed.get("SAND").hasVolume24h());
+  }
+
+  @Test
+  void bithumbErrorStatusFailsFetch() {
+    String payload = "{\"status\":\"5600\",\"message\":\"점검 중\"}";
+
+    assertThrows(IOException.class,
+        () -> parser.parseBithumbTicker(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8))));
+    assertThrows(IOException.class, () -> parser.parseBithumbTickerTree(payload));
+  }
+
+  @Test
+  void upbitTickerStreamingMatchesTree() throws IOException {
+    byte[] payload = fixture("upbit-ticker.json");
+
+    Map<String, TickerQuote> streamed = parser.parseUpbitTicker(new ByteArrayInputStream(payload));
+    Map<String, TickerQuote> tree = parser.parseUpbitTickerTree(new String(payload, StandardCharsets.UTF_8));
+
+    assertFalse(tree.isEmpty());
+    assertEquals(tree, streamed);
+  }
+
+  @Test
+  void binanceExchangeInfoStreamingMatchesTree() throws IOException {
+    byte[] payload = fixture("binance-exchange-info.json");
+
+    Set<String> streamed = parser.parseBinanceTradingSymbols(new ByteArrayInputStream(payload));
+    Set<String> tree = parser.parseBinanceTradingSymbolsTree(new String(payload, StandardCharsets.UTF_8));
+
+    assertEquals(tree, streamed);
+    assertTrue(streamed.contains("BTCUSDT"));
+    assertFalse(streamed.contains("ALGOUSDT"));
+  }
+
+  @Test
+  void binanceTickerStreamingMatchesTree() throws IOException {
+    Set<String> tradingSymbols = parser.parseBinanceTradingSymbols(
+        new ByteArrayInputStream(fixture("binance-exchange-info.json")));
+    byte[] payload = fixture("binance-ticker-price.json");
+
+    Map<String, Double> streamed = parser.parseBinanceUsdtPrices(new ByteArrayInputStream(payload), tradingSymbols);
+    Map<String, Double> tree = parser.parseBinanceUsdtPricesTree(
+        new String(payload, StandardCharsets.UTF_8), tradingSymbols);
+
+    assertFalse(tree.isEmpty());
+    assertEquals(tree, streamed);
+    assertFalse(streamed.containsKey("ETHBTC"));
+    assertFalse(streamed.containsKey("LUNA"));
+  }
+
+  @Test
+  void parseDoubleMatchesJdk() {
+    String[] values = {"0", "-0", "1", "1.", ".5", "143250000", "0.00001266", "43000.12000000",
+        "12345.67890123456789", "3.33e2", "0.0000000000000000000001234", "999999999999999", "-42.5"};
+    for (String value : values) {
+      char[] chars = ("xx" + value + "yy").toCharArray();
+      assertEquals(Double.parseDouble(value), ExchangePayloadParser.parseDouble(chars, 2, value.length()), value);
+    }
+    assertTrue(Double.isNaN(ExchangePayloadParser.parseDouble("-".toCharArray(), 0, 1)));
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = ExchangePayloadParserTest.class.getResourceAsStream("/fixtures/" + name)) {
+      return in.readAllBytes();
+    }
+  }
+}
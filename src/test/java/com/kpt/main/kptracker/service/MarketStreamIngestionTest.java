@@ -0,0 +1,165 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MarketStreamIngestionTest {
+
+  private static final double EXCHANGE_RATE = 1400.0;
+  private static final Set<String> TRADING_PAIRS = Set.of("BTCUSDT", "ETHUSDT", "XRPUSDT");
+
+  private final KimchiPremiumService premiumService = new KimchiPremiumService();
+  private final ExchangePayloadParser parser = new ExchangePayloadParser();
+  private final List<WebSocketStubServer> servers = new ArrayList<>();
+  private final List<ExchangeWebSocketClient> clients = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() throws Exception {
+    for (ExchangeWebSocketClient client : clients) {
+      client.stop();
+    }
+    for (WebSocketStubServer server : servers) {
+      server.close();
+    }
+    premiumService.shutdown();
+  }
+
+  @Test
+  void replayedTicksRecalculatePremiums() throws Exception {
+    LiveQuoteBoard board = new LiveQuoteBoard(premiumService);
+    board.updateExchangeRate(EXCHANGE_RATE);
+
+    WebSocketStubServer upbit = server("upbit-ticker.jsonl", true, true, false);
+    WebSocketStubServer bithumb = server("bithumb-ticker.jsonl", false, true, false);
+    WebSocketStubServer binance = server("binance-mini-ticker.jsonl", false, false, false);
+
+    ExchangeWebSocketClient upbitClient = client("upbit", upbit,
+        MarketStreamService.upbitSubscribeMessage(List.of("BTC", "ETH", "XRP")),
+        MarketStreamService.upbitHandler(parser, board), null);
+    ExchangeWebSocketClient bithumbClient = client("bithumb", bithumb,
+        MarketStreamService.bithumbSubscribeMessage(List.of("BTC", "ETH", "WEMIX")),
+        MarketStreamService.bithumbHandler(parser, board), null);
+    ExchangeWebSocketClient binanceClient = client("binance", binance, null,
+        MarketStreamService.binanceHandler(parser, board, () -> TRADING_PAIRS), null);
+
+    awaitTrue(() -> upbitClient.getMessageCount() >= upbit.messageCount()
+        && bithumbClient.getMessageCount() >= bithumb.messageCount()
+        && binanceClient.getMessageCount() >= binance.messageCount());
+
+    assertTrue(upbit.received().get(0).contains("\"codes\":[\"KRW-BTC\",\"KRW-ETH\",\"KRW-XRP\"]"));
+    assertTrue(bithumb.received().get(0).contains("\"symbols\":[\"BTC_KRW\",\"ETH_KRW\",\"WEMIX_KRW\"]"));
+
+    PremiumTable table = board.toTable(symbol -> null);
+    int btc = table.indexOf("BTC");
+    assertEquals(143600000.0, table.value(btc, PremiumField.UPBIT));
+    assertEquals(143400000.0, table.value(btc, PremiumField.BITHUMB));
+    assertEquals(102400.1, table.value(btc, PremiumField.BINANCE));
+    assertEquals(512360000000.0, table.value(btc, PremiumField.UPBIT_VOLUME_24H));
+    assertEquals(98770000000.5, table.value(btc, PremiumField.BITHUMB_VOLUME_24H));
+    assertEquals(premiumService.calculatePremium(143600000.0, 102400.1, EXCHANGE_RATE),
+        table.value(btc, PremiumField.UPBIT_PREMIUM));
+    assertEquals(premiumService.calculatePremium(143400000.0, 102400.1, EXCHANGE_RATE),
+        table.value(btc, PremiumField.BITHUMB_PREMIUM));
+
+    // 업비트에만 있는 코인은 빗썸 값 없음
+    int xrp = table.indexOf("XRP");
+    assertFalse(table.hasBithumb(xrp));
+    assertEquals(premiumService.calculatePremium(3542.0, 2.5321, EXCHANGE_RATE),
+        table.value(xrp, PremiumField.UPBIT_PREMIUM));
+
+    // 바이낸스 거래 중 목록에 없는 코인(WEMIX)과 USDT 외 마켓(ETHBTC)은 제외
+    assertEquals(-1, table.indexOf("WEMIX"));
+    assertEquals(3, table.size());
+  }
+
+  @Test
+  void reconnectsAndBackfillsAfterServerClose() throws Exception {
+    LiveQuoteBoard board = new LiveQuoteBoard(premiumService);
+    board.updateExchangeRate(EXCHANGE_RATE);
+    WebSocketStubServer upbit = server("upbit-ticker.jsonl", true, true, true);
+
+    AtomicInteger backfills = new AtomicInteger();
+    ExchangeWebSocketClient upbitClient = client("upbit", upbit,
+        MarketStreamService.upbitSubscribeMessage(List.of("BTC", "ETH", "XRP")),
+        MarketStreamService.upbitHandler(parser, board),
+        () -> {
+          backfills.incrementAndGet();
+          board.backfillBinance(Map.of("BTC", 102400.1), System.currentTimeMillis());
+        });
+
+    awaitTrue(() -> upbit.connectionCount() >= 3 && backfills.get() >= 3);
+
+    // 연결마다 구독 메시지를 다시 보냄
+    assertTrue(upbit.received().size() >= 3);
+    assertTrue(upbitClient.getConnectCount() >= 3);
+    PremiumTable table = board.toTable(symbol -> null);
+    assertEquals(premiumService.calculatePremium(table.value(0, PremiumField.UPBIT), 102400.1, EXCHANGE_RATE),
+        table.value(0, PremiumField.UPBIT_PREMIUM));
+  }
+
+  @Test
+  void backfillDoesNotOverwriteNewerTicks() {
+    LiveQuoteBoard board = new LiveQuoteBoard(premiumService);
+    board.updateExchangeRate(EXCHANGE_RATE);
+    long beforeTick = System.currentTimeMillis() - 1000;
+
+    board.updateBinance("BTC", 100000.0, Double.NaN);
+    board.updateUpbit("BTC", 143000000.0, 5e11);
+    long version = board.getVersion();
+
+    // 실시간 시세보다 먼저 시작된 REST 조회 결과는 무시
+    board.backfillUpbit(Map.of("BTC", new TickerQuote(142000000.0, 4e11)), beforeTick);
+    assertEquals(version, board.getVersion());
+    assertEquals(143000000.0, board.toTable(symbol -> null).value(0, PremiumField.UPBIT));
+
+    // 이후 시작된 조회 결과는 반영하고 김프도 다시 계산
+    board.backfillUpbit(Map.of("BTC", new TickerQuote(144000000.0, 6e11)), System.currentTimeMillis() + 1);
+    PremiumTable table = board.toTable(symbol -> null);
+    assertEquals(144000000.0, table.value(0, PremiumField.UPBIT));
+    assertEquals(premiumService.calculatePremium(144000000.0, 100000.0, EXCHANGE_RATE),
+        table.value(0, PremiumField.UPBIT_PREMIUM));
+
+    // 환율이 바뀌면 전체 김프 재계산
+    board.updateExchangeRate(1450.0);
+    assertEquals(premiumService.calculatePremium(144000000.0, 100000.0, 1450.0),
+        board.toTable(symbol -> null).value(0, PremiumField.UPBIT_PREMIUM));
+  }
+
+  private WebSocketStubServer server(String tickFile, boolean binary, boolean expectSubscribe,
+      boolean closeAfterReplay) throws Exception {
+    WebSocketStubServer server =
+        new WebSocketStubServer("/fixtures/ticks/" + tickFile, binary, expectSubscribe, closeAfterReplay);
+    servers.add(server);
+    return server;
+  }
+
+  private ExchangeWebSocketClient client(String name, WebSocketStubServer server, String subscribeMessage,
+      Consumer<String> handler, Runnable onConnected) {
+    ExchangeWebSocketClient client = new ExchangeWebSocketClient(name, server.uri(),
+        subscribeMessage != null ? () -> subscribeMessage : null, handler, onConnected, 50, 200, 0);
+    clients.add(client);
+    client.start();
+    return client;
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("condition not met within 10s");
+      }
+      Thread.sleep(20);
+    }
+  }
+}
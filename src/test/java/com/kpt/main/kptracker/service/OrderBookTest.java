@@ -0,0 +1,70 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OrderBookTest {
+
+  private final ExchangePayloadParser parser = new ExchangePayloadParser();
+
+  @Test
+  void executablePremiumWalksBothBooks() {
+    OrderBook upbit = new OrderBook(5);
+    upbit.addBid(1_400_000, 1);
+    upbit.addBid(1_390_000, 10);
+    upbit.addAsk(1_410_000, 1);
+    upbit.addAsk(1_420_000, 10);
+    OrderBook binance = new OrderBook(5);
+    binance.addBid(999, 100);
+    binance.addAsk(1_000, 1);
+    binance.addAsk(1_010, 100);
+
+    // 1,000만 원 = 7,142.86달러: 바이낸스 1개 @1000 + 6.0820개 @1010 → 업비트 1개 @140만 + 6.0820개 @139만
+    Map<String, Object> result = OrderBookService.executable(upbit, binance, 10_000_000, 1400);
+    Map<?, ?> sellKorea = (Map<?, ?>) result.get("sellKorea");
+    double quantity = 1 + (10_000_000 / 1400.0 - 1000) / 1010;
+    double krwPrice = (1_400_000 + (quantity - 1) * 1_390_000) / quantity;
+    double usdPrice = 10_000_000 / 1400.0 / quantity;
+    assertEquals(quantity, (double) sellKorea.get("quantity"), 1e-9);
+    assertEquals((krwPrice / (usdPrice * 1400) - 1) * 100, (double) sellKorea.get("premium"), 1e-9);
+    assertTrue((boolean) sellKorea.get("complete"));
+
+    // 업비트 매도 호가가 모자라면 있는 만큼만 (11개)
+    Map<?, ?> buyKorea = (Map<?, ?>) OrderBookService.executable(upbit, binance, 100_000_000, 1400).get("buyKorea");
+    assertEquals(11, (double) buyKorea.get("quantity"), 1e-9);
+    assertFalse((boolean) buyKorea.get("complete"));
+  }
+
+  @Test
+  void parsesExchangeOrderBooks() throws IOException {
+    Map<String, Double> bestBids = new HashMap<>();
+    parser.parseUpbitOrderbook(stream("[{\"market\":\"KRW-BTC\",\"timestamp\":1,\"orderbook_units\":["
+            + "{\"ask_price\":101.0,\"bid_price\":99.0,\"ask_size\":1.5,\"bid_size\":2.0},"
+            + "{\"ask_price\":102.0,\"bid_price\":98.0,\"ask_size\":3.0,\"bid_size\":4.0}]}]"),
+        new OrderBook(15), (symbol, book) -> bestBids.put(symbol, book.sellQuantity(1).averagePrice()));
+    assertEquals(Map.of("BTC", 99.0), bestBids);
+
+    OrderBook bithumb = new OrderBook(15);
+    assertTrue(parser.parseBithumbOrderbook(stream("{\"status\":\"0000\",\"data\":{\"timestamp\":\"1\","
+        + "\"bids\":[{\"quantity\":\"2\",\"price\":\"99\"}],\"asks\":[{\"quantity\":\"1\",\"price\":\"101\"}]}}"), bithumb));
+    assertEquals(100, bithumb.mid(), 1e-9);
+
+    OrderBook binance = new OrderBook(1);
+    assertTrue(parser.parseBinanceDepth(stream("{\"lastUpdateId\":7,"
+        + "\"bids\":[[\"0.5\",\"10\"],[\"0.4\",\"10\"]],\"asks\":[[\"0.6\",\"10\"]]}"), binance));
+    assertEquals(5, binance.sellQuantity(20).quote, 1e-9);
+  }
+
+  private static InputStream stream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
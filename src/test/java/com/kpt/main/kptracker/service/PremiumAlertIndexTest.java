@@ -0,0 +1,79 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PremiumAlertIndexTest {
+
+  private final AtomicInteger conditionIds = new AtomicInteger();
+
+  @Test
+  void onlyConditionsBetweenOldAndNewValueAreVisited() {
+    PremiumAlertIndex index = PremiumAlertIndex.EMPTY;
+    for (int i = 1; i <= 1000; i++) {
+      index = index.with(rule(i, i % 2 == 0 ? "BTC" : null, "upbitPremium", ">", i / 100.0, 0));
+    }
+    index = index.with(rule(1001, "ETH", "upbitPremium", ">", 2.0, 0));
+
+    // 2.00% → 2.05%: 임계값 2.00~2.05 (양 끝 포함) 6개만 확인, ETH 규칙은 제외
+    List<Integer> visited = new ArrayList<>();
+    index.forEachCandidate("BTC", PremiumField.UPBIT_PREMIUM, 2.0, 2.05,
+        condition -> visited.add(condition.getRuleId()));
+    assertEquals(6, visited.size());
+    for (int ruleId : visited) {
+      assertTrue(ruleId >= 200 && ruleId <= 205);
+    }
+
+    // 값이 처음 생기면 해당 코인에 걸린 조건 전체
+    List<Integer> all = new ArrayList<>();
+    index.forEachCandidate("ETH", PremiumField.UPBIT_PREMIUM, Double.NaN, 1.0,
+        condition -> all.add(condition.getRuleId()));
+    assertEquals(501, all.size());
+
+    List<Integer> none = new ArrayList<>();
+    index.forEachCandidate("BTC", PremiumField.BITHUMB_PREMIUM, 1.0, 5.0,
+        condition -> none.add(condition.getRuleId()));
+    assertTrue(none.isEmpty());
+  }
+
+  @Test
+  void hysteresisKeepsConditionUntilReleaseBound() {
+    PremiumAlertRule rule = rule(1, null, "bithumbPremium", "<", -2.0, 0.5);
+    PremiumAlertRule.Condition condition = rule.getConditions().get(0);
+    PremiumAlertIndex index = PremiumAlertIndex.EMPTY.with(rule);
+
+    assertTrue(condition.next(false, -2.1));
+    assertTrue(condition.next(true, -1.8));
+    assertFalse(condition.next(true, -1.4));
+    assertFalse(condition.next(false, -1.8));
+    assertFalse(condition.next(true, Double.NaN));
+
+    // 해제 경계(-1.5)를 지나는 변화도 후보에 포함
+    List<Integer> visited = new ArrayList<>();
+    index.forEachCandidate("XRP", PremiumField.BITHUMB_PREMIUM, -1.8, -1.4,
+        candidate -> visited.add(candidate.getRuleId()));
+    assertEquals(List.of(1), visited);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> PremiumAlertRule.parse(2, conditionIds::getAndIncrement,
+            Map.of("conditions", List.of(Map.of("field", "nope", "op", ">", "threshold", 1))), 0));
+  }
+
+  private PremiumAlertRule rule(int id, String symbol, String field, String op, double threshold,
+      double hysteresis) {
+    Map<String, Object> condition =
+        Map.of("field", field, "op", op, "threshold", threshold, "hysteresis", hysteresis);
+    Map<String, Object> request = symbol != null
+        ? Map.of("symbol", symbol, "conditions", List.of(condition))
+        : Map.of("conditions", List.of(condition));
+    return PremiumAlertRule.parse(id, conditionIds::getAndIncrement, request, 0);
+  }
+}
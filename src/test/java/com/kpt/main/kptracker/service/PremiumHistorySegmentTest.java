@@ -0,0 +1,76 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PremiumHistorySegmentTest {
+
+  private static final long START = 28_333_333L * PremiumSeries.ROLLUP_MS;
+  private static final long TO = START + 3 * PremiumSeries.ROLLUP_MS;
+
+  @Test
+  void closedSegmentAnswersFromIndexFile() throws IOException {
+    Path dir = Files.createTempDirectory("kp-history");
+    PremiumHistorySegment segment = PremiumHistorySegment.create(dir, START, 1024);
+    double[] values = new double[PremiumHistoryStore.FIELD_COUNT];
+    for (int sample = 0; sample < 18; sample++) {
+      long timestamp = START + sample * 10_000L;
+      for (String symbol : new String[] {"BTC", "ETH", "XRP"}) {
+        values[PremiumHistoryStore.EXCHANGE_RATE] = 1400;
+        values[3] = symbol.equals("BTC") ? sample : Double.NaN;
+        segment.append(timestamp, symbol, PremiumHistorySegment.encodeSymbol(symbol), values);
+      }
+    }
+
+    PremiumHistoryBuckets live = new PremiumHistoryBuckets(START, TO, PremiumSeries.ROLLUP_MS, values.length);
+    segment.aggregateRollups("BTC", START, TO, live);
+    segment.close();
+
+    Path index = dir.resolve(String.format("premium-%013d.idx", START));
+    assertTrue(Files.exists(index));
+    PremiumHistorySegment reopened = PremiumHistorySegment.open(segment.getPath());
+    assertMinuteAverages(reopened, live);
+
+    List<Long> timestamps = new ArrayList<>();
+    reopened.scan("BTC", START + 25_000, START + 60_000, (timestamp, record) -> {
+      timestamps.add(timestamp);
+      assertEquals((timestamp - START) / 10_000, record[3], 1e-9);
+    });
+    assertEquals(List.of(START + 30_000, START + 40_000, START + 50_000, START + 60_000), timestamps);
+
+    // 색인 파일이 없으면 레코드를 한 번 훑어 다시 만듦
+    Files.delete(index);
+    assertMinuteAverages(PremiumHistorySegment.open(segment.getPath()), live);
+    assertTrue(Files.exists(index));
+
+    reopened.delete();
+    assertFalse(Files.exists(index));
+  }
+
+  private static void assertMinuteAverages(PremiumHistorySegment segment, PremiumHistoryBuckets expected)
+      throws IOException {
+    PremiumHistoryBuckets buckets = new PremiumHistoryBuckets(START, TO, PremiumSeries.ROLLUP_MS,
+        PremiumHistoryStore.FIELD_COUNT);
+    segment.aggregateRollups("BTC", START, TO, buckets);
+    segment.aggregateRollups("DOGE", START, TO, buckets);
+
+    assertEquals(2.5, buckets.avg(3, 0), 1e-9);
+    assertEquals(6.0, buckets.min(3, 1), 1e-9);
+    assertEquals(17.0, buckets.max(3, 2), 1e-9);
+    assertNull(buckets.avg(3, 3));
+    for (int bucket = 0; bucket < buckets.getBucketCount(); bucket++) {
+      assertEquals(expected.avg(3, bucket), buckets.avg(3, bucket));
+      assertEquals(expected.avg(PremiumHistoryStore.EXCHANGE_RATE, bucket),
+          buckets.avg(PremiumHistoryStore.EXCHANGE_RATE, bucket));
+    }
+  }
+}
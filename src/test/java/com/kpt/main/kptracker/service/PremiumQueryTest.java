@@ -0,0 +1,80 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PremiumQueryTest {
+
+  private final PremiumTable table = PremiumTable.builder(1400, 8)
+      .add("BTC", 140_000_000, 140_100_000, 99_000, 5e11, 2e11, 1.02, 1.09, "비트코인", "Bitcoin")
+      .add("ETH", 5_000_000, Double.NaN, 3_500, 3e11, Double.NaN, 2.04, Double.NaN, null, null)
+      .add("XRP", Double.NaN, 800, 0.55, Double.NaN, 1e9, Double.NaN, 3.9, null, null)
+      .add("DOGE", 300, 301, 0.21, 2e10, 1e10, 2.21, 2.38, "도지코인", "Dogecoin")
+      .add("SOL", 200_000, 200_500, 141, 1e8, Double.NaN, 1.32, 1.57, null, null)
+      .build();
+
+  @Test
+  void sortsFromIndexWithMissingValuesLast() {
+    assertArrayEquals(new String[] {"DOGE", "ETH", "SOL", "BTC", "XRP"}, symbols(query("upbitPremium", "desc", null, null, null, null)));
+    assertArrayEquals(new String[] {"BTC", "SOL", "ETH", "DOGE", "XRP"}, symbols(query("upbitPremium", "asc", null, null, null, null)));
+    assertArrayEquals(new String[] {"SOL", "BTC"}, symbols(query("upbitPremium", null, null, null, 2, 2)));
+    assertArrayEquals(new String[] {"XRP", "SOL", "ETH"}, symbols(query("symbol", "desc", null, null, 3, null)));
+
+    PremiumQuery.Result pastEnd = query(null, null, null, null, 10, 7).select(table);
+    assertEquals(0, pastEnd.rows.length);
+    assertEquals(5, pastEnd.total);
+  }
+
+  @Test
+  void filtersKeepSortOrderAndCountTotal() {
+    PremiumQuery query = query("totalVolume24h", null, 1e9, "bithumb", 2, 1);
+    assertArrayEquals(new String[] {"DOGE", "XRP"}, symbols(query));
+    assertEquals(3, query.select(table).total);
+    assertArrayEquals(new String[] {"ETH"}, symbols(query(null, null, null, "upbit-only", null, null)));
+
+    PremiumQuery search = PremiumQuery.parse("upbitPremium", null, null, null, " COIN ", 1, null);
+    assertArrayEquals(new String[] {"DOGE"}, symbols(search));
+    assertEquals(2, search.select(table).total);
+    assertArrayEquals(new String[] {"BTC"}, symbols(PremiumQuery.parse(null, null, null, null, "비트", null, null)));
+    assertArrayEquals(new String[] {"SOL"}, symbols(PremiumQuery.parse(null, null, null, null, "sol", null, null)));
+
+    assertThrows(IllegalArgumentException.class, () -> query("price", null, null, null, null, null));
+    assertThrows(IllegalArgumentException.class, () -> query(null, null, null, "coinone", null, null));
+    assertThrows(IllegalArgumentException.class, () -> query(null, null, null, null, -1, null));
+  }
+
+  @Test
+  void viewPayloadListsSelectedCoins() throws IOException {
+    PremiumSnapshot snapshot = new PremiumSnapshot(7, 0, table, Map.of());
+    PremiumQuery query = query("bithumbPremium", null, null, "both", 1, null);
+    PremiumPayload payload = snapshot.getViewPayload(query);
+
+    JsonNode view = new ObjectMapper().readTree(payload.getJson());
+    assertEquals(7, view.get("version").asLong());
+    assertEquals(3, view.get("total").asInt());
+    assertEquals("DOGE", view.get("coins").get(0).get("coin").asText());
+    assertEquals(2.38, view.get("coins").get(0).get("bithumbPremium").asDouble(), 1e-9);
+    assertEquals(payload, snapshot.getViewPayload(query("bithumbPremium", "desc", null, "both", 1, null)));
+  }
+
+  private static PremiumQuery query(String sort, String order, Double minVolume, String exchange,
+      Integer limit, Integer offset) {
+    return PremiumQuery.parse(sort, order, minVolume, exchange, null, limit, offset);
+  }
+
+  private String[] symbols(PremiumQuery query) {
+    int[] rows = query.select(table).rows;
+    String[] symbols = new String[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      symbols[i] = table.symbol(rows[i]);
+    }
+    return symbols;
+  }
+}
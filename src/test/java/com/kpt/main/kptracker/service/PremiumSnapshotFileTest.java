@@ -0,0 +1,67 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PremiumSnapshotFileTest {
+
+  @Test
+  void restoresSnapshotAndListingsMarkedStale() throws IOException {
+    PremiumTable table = PremiumTable.builder(1390.5, 2)
+        .add("BTC", 140_000_000, 140_100_000, 99_000, 5e11, 2e11, 1.7, 1.8, "비트코인", "Bitcoin")
+        .freshness(1_000, 2_000, 3_000, false, false, false)
+        .add("XRP", Double.NaN, 800, 0.55, Double.NaN, 1e9, Double.NaN, 3.9, null, null)
+        .freshness(0, 2_000, 3_000, false, false, false)
+        .exchangeRateFreshness(4_000, false)
+        .build();
+    PremiumSnapshot snapshot = new PremiumSnapshot(42, 5_000, table, Map.of("upbitTicker", SourceStatus.ok(10)));
+
+    Path dir = Files.createTempDirectory("kp-snapshot");
+    Path path = dir.resolve("nested/premium.snap");
+    assertNull(PremiumSnapshotFile.read(path));
+    PremiumSnapshotFile.write(path, snapshot, Map.of("BTC", new MarketListing("BTC", "비트코인", "Bitcoin")),
+        Map.of(), Set.of("BTCUSDT", "XRPUSDT"));
+
+    PremiumSnapshotFile stored = PremiumSnapshotFile.read(path);
+    PremiumSnapshot restored = stored.getSnapshot();
+    PremiumTable restoredTable = restored.getTable();
+    assertEquals(42, restored.getVersion());
+    assertEquals(5_000, restored.getCreatedAt());
+    assertTrue(restored.isRestored());
+    assertEquals(SourceStatus.State.RESTORED, restored.getSources().get("upbitTicker").getState());
+    assertEquals(2, restoredTable.size());
+    assertEquals(1390.5, restoredTable.getExchangeRate(), 0);
+    assertTrue(restoredTable.isExchangeRateStale());
+
+    int xrp = restoredTable.indexOf("XRP");
+    assertFalse(restoredTable.hasUpbit(xrp));
+    assertEquals(3.9, restoredTable.value(xrp, PremiumField.BITHUMB_PREMIUM), 0);
+    assertNull(restoredTable.koreanName(xrp));
+    int btc = restoredTable.indexOf("BTC");
+    assertEquals("비트코인", restoredTable.koreanName(btc));
+    assertEquals(2_000, restoredTable.asOf(btc, PremiumTable.SOURCE_BITHUMB));
+    assertTrue(restoredTable.isStale(btc, PremiumTable.SOURCE_UPBIT));
+    for (PremiumField field : PremiumField.values()) {
+      assertEquals(table.value(btc, field), restoredTable.value(btc, field), 0);
+    }
+
+    assertEquals("Bitcoin", stored.getUpbitListings().get("BTC").getEnglishName());
+    assertTrue(stored.getBithumbListings().isEmpty());
+    assertEquals(Set.of("BTCUSDT", "XRPUSDT"), stored.getBinanceTradingPairs());
+
+    // 잘린 파일은 무시
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 5));
+    assertNull(PremiumSnapshotFile.read(path));
+  }
+}
@@ -0,0 +1,69 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PremiumSnapshotServiceTest {
+
+  private final KimchiPremiumService premiumService = new KimchiPremiumService();
+  private final LiveQuoteBoard board = new LiveQuoteBoard(premiumService);
+  private final PremiumSnapshotService snapshotService = new PremiumSnapshotService();
+
+  @BeforeEach
+  void setUp() {
+    MarketStreamService streamService = new MarketStreamService();
+    ReflectionTestUtils.setField(streamService, "enabled", true);
+    ReflectionTestUtils.setField(streamService, "board", board);
+
+    ReflectionTestUtils.setField(snapshotService, "marketStreamService", streamService);
+    ReflectionTestUtils.setField(snapshotService, "marketRegistry", new MarketMetadataRegistry() {
+      @Override
+      public MarketListing findListing(String symbol) {
+        return null;
+      }
+    });
+    ReflectionTestUtils.setField(snapshotService, "pipelineMetrics", new PipelineMetrics() {
+      @Override
+      public void recordPublish(String mode, long elapsedNanos) {
+      }
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    premiumService.shutdown();
+  }
+
+  @Test
+  void restoredSnapshotSurvivesUntilKoreanQuotesArrive() {
+    PremiumTable table = PremiumTable.builder(1390.5, 1)
+        .add("BTC", 140_000_000, 140_100_000, 99_000, 5e11, 2e11, 1.7, 1.8, null, null)
+        .build();
+    PremiumSnapshot restored = new PremiumSnapshot(42, 5_000, table,
+        Map.of(MarketStreamService.SOURCE_UPBIT_STREAM, SourceStatus.restored(5_000)));
+    assertTrue(snapshotService.restore(restored));
+
+    // 환율과 바이낸스 시세만 있으면 김프를 계산할 코인이 없으므로 복원한 스냅샷 유지
+    snapshotService.publishLive();
+    board.updateExchangeRate(1400);
+    board.updateBinance("BTC", 100_000, Double.NaN);
+    snapshotService.publishLive();
+    assertSame(restored, snapshotService.getCurrentSnapshot());
+
+    board.updateUpbit("BTC", 141_000_000, 6e11);
+    snapshotService.publishLive();
+    PremiumSnapshot live = snapshotService.getCurrentSnapshot();
+    assertFalse(live.isRestored());
+    assertTrue(live.getVersion() > restored.getVersion());
+    assertEquals(1, live.getTable().size());
+    assertEquals("BTC", live.getTable().symbol(0));
+  }
+}
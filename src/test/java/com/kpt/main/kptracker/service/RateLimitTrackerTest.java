@@ -0,0 +1,68 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class RateLimitTrackerTest {
+
+  private final RateLimitTracker tracker = new RateLimitTracker();
+
+  @Test
+  void upbitSecondBudgetPausesUntilNextSecond() {
+    long now = 1_700_000_000_200L;
+    tracker.observe("upbit", 200, upbit(9), now);
+    assertTrue(tracker.allows("upbit", now));
+    assertEquals(0.1, tracker.getPressure(now), 1e-9);
+
+    // 한도 10 중 2개 남으면 (예비 20%) 다음 초까지 대기
+    tracker.observe("upbit", 200, upbit(2), now + 100);
+    assertFalse(tracker.allows("upbit", now + 100));
+    assertEquals(700, tracker.getBlockedForMs("upbit", now + 100));
+    assertTrue(tracker.allows("upbit", now + 800));
+
+    // 다음 초에는 이전 초 사용률을 보지 않음 (분당 1799/1800 남음)
+    assertEquals(1 / 1800.0, tracker.getPressure(now + 800), 1e-9);
+    assertTrue(tracker.allows("binance", now));
+  }
+
+  @Test
+  void throttledResponseHonorsRetryAfter() {
+    long now = 1_700_000_000_000L;
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, "3");
+    tracker.observe("binance", 429, headers, now);
+    assertEquals(3000, tracker.getBlockedForMs("binance", now));
+    assertEquals(3000, tracker.getMaxBlockedForMs(now));
+    assertTrue(tracker.allows("binance", now + 3000));
+  }
+
+  @Test
+  void upbitGroupsKeepSeparateBudgets() {
+    long now = 1_700_000_000_200L;
+    String orderbook = RateLimitTracker.budgetKey("upbit", "https://api.upbit.com/v1/orderbook?markets=KRW-BTC");
+    String ticker = RateLimitTracker.budgetKey("upbit", "https://api.upbit.com/v1/ticker?markets=KRW-BTC");
+    assertEquals("upbit:orderbook", orderbook);
+    assertEquals("upbit:ticker", ticker);
+    assertEquals("binance", RateLimitTracker.budgetKey("binance", "https://api.binance.com/api/v3/depth"));
+
+    // 주문서 그룹 한도 소진은 ticker 조회를 막지 않고, 그룹별 한도도 따로 학습
+    tracker.observe(ticker, 200, upbit(29), now);
+    tracker.observe(orderbook, 200, upbit(9), now);
+    tracker.observe(orderbook, 200, upbit(1), now + 50);
+    assertFalse(tracker.allows(orderbook, now + 50));
+    assertTrue(tracker.allows(ticker, now + 50));
+
+    tracker.observe(ticker, 200, upbit(8), now + 60);
+    assertTrue(tracker.allows(ticker, now + 60));
+  }
+
+  private static HttpHeaders upbit(int remainingSec) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Remaining-Req", "group=market; min=1799; sec=" + remainingSec);
+    return headers;
+  }
+}
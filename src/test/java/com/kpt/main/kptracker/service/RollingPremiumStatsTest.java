@@ -0,0 +1,93 @@
+package com.kpt.main.kptracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RollingPremiumStatsTest {
+
+  @Test
+  void meanAndStddevFollowTimeWeightedWindows() {
+    RollingPremiumStats stats = new RollingPremiumStats();
+    long start = 1_700_000_000_000L;
+
+    // 1초 간격으로 1%/3% 번갈아 6시간 입력 (초기값 영향이 사라질 만큼) → 평균 2%, 표준편차 1%
+    for (int i = 0; i < 21600; i++) {
+      stats.update(start + i * 1000L, i % 2 == 0 ? 1.0 : 3.0);
+    }
+
+    assertEquals(2.0, value(stats, "1h", "mean"), 0.01);
+    assertEquals(1.0, value(stats, "1h", "stddev"), 0.01);
+    assertEquals(1.0, value(stats, "1h", "min"));
+    assertEquals(3.0, value(stats, "1h", "max"));
+
+    // 급등하면 짧은 창의 z-score가 먼저 커짐
+    stats.update(start + 21600 * 1000L, 6.0);
+    double fiveMinuteZ = value(stats, "5m", "zScore");
+    double dayZ = value(stats, "24h", "zScore");
+    assertTrue(fiveMinuteZ > 3.5);
+    assertTrue(dayZ > fiveMinuteZ);
+    assertEquals(6.0, stats.toMap().get("last"));
+  }
+
+  @Test
+  void spikeAfterQuietStretchKeepsItsZScore() {
+    RollingPremiumStats stats = new RollingPremiumStats();
+    long start = 1_700_000_000_000L;
+
+    // 값이 바뀔 때만 들어오는 불규칙한 시세: 1시간 동안 2%/2.2%를 오가다 10분간 변화 없음
+    long at = start;
+    for (int i = 0; i < 400; i++) {
+      at += i % 3 == 0 ? 17_000 : 4_000;
+      stats.update(at, i % 2 == 0 ? 2.0 : 2.2);
+    }
+    at += 600_000;
+    stats.update(at, 5.0);
+
+    // 조용한 구간 뒤의 급등이 평균을 끌어올려 묻히지 않아야 함
+    assertTrue(value(stats, "1h", "mean") < 2.3);
+    double hourZ = value(stats, "1h", "zScore");
+    assertTrue(hourZ > 10);
+    assertTrue(value(stats, "5m", "zScore") > 10);
+
+    // 같은 시각에 들어온 값은 직전 값을 대신함 (유지된 시간이 0이라 평균은 그대로)
+    stats.update(at, 6.0);
+    assertEquals(6.0, stats.toMap().get("last"));
+    assertTrue(value(stats, "1h", "zScore") > hourZ);
+  }
+
+  @Test
+  void minAndMaxExpireWithTheWindow() {
+    RollingPremiumStats stats = new RollingPremiumStats();
+    long start = 1_700_000_000_000L;
+
+    stats.update(start, -5.0);
+    stats.update(start + 1000, 10.0);
+    for (int i = 1; i <= 60; i++) {
+      stats.update(start + i * 10_000L, 2.0);
+    }
+
+    // 5분 창에서는 처음 값이 빠지고 1시간 창에는 남아 있음
+    assertEquals(2.0, value(stats, "5m", "min"));
+    assertEquals(2.0, value(stats, "5m", "max"));
+    assertEquals(-5.0, value(stats, "1h", "min"));
+    assertEquals(10.0, value(stats, "1h", "max"));
+
+    // 값이 한 번뿐이면 분산이 0이라 z-score 없음
+    RollingPremiumStats single = new RollingPremiumStats();
+    single.update(start, 1.5);
+    assertNull(window(single, "5m").get("zScore"));
+  }
+
+  private static double value(RollingPremiumStats stats, String name, String key) {
+    return (Double) window(stats, name).get(key);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> window(RollingPremiumStats stats, String name) {
+    return (Map<String, Object>) stats.toMap().get(name);
+  }
+}
@@ -0,0 +1,222 @@
+package com.kpt.main.kptracker.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 테스트용 최소 WebSocket 서버 (RFC 6455)
+// 접속한 클라이언트에게 녹화된 시세 파일(한 줄에 메시지 하나)을 재생한다.
+// closeAfterReplay가 true면 재생 후 연결을 닫아 재연결을 유도한다
+final class WebSocketStubServer implements AutoCloseable {
+
+  private static final String HANDSHAKE_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+  private final ServerSocket serverSocket;
+  private final List<String> messages;
+  private final boolean binary;
+  private final boolean expectSubscribe;
+  private final boolean closeAfterReplay;
+  private final List<String> received = new CopyOnWriteArrayList<>();
+  private final AtomicInteger connections = new AtomicInteger();
+  private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+  private final Thread acceptThread;
+
+  WebSocketStubServer(String tickResource, boolean binary, boolean expectSubscribe, boolean closeAfterReplay)
+      throws IOException {
+    this.messages = readLines(tickResource);
+    this.binary = binary;
+    this.expectSubscribe = expectSubscribe;
+    this.closeAfterReplay = closeAfterReplay;
+    this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    this.acceptThread = new Thread(this::acceptLoop, "ws-stub-" + serverSocket.getLocalPort());
+    this.acceptThread.setDaemon(true);
+    this.acceptThread.start();
+  }
+
+  URI uri() {
+    return URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/");
+  }
+
+  int messageCount() {
+    return messages.size();
+  }
+
+  int connectionCount() {
+    return connections.get();
+  }
+
+  // 클라이언트가 보낸 텍스트 메시지 (구독 메시지 등)
+  List<String> received() {
+    return received;
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    for (Socket socket : sockets) {
+      socket.close();
+    }
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        sockets.add(socket);
+        Thread handler = new Thread(() -> handle(socket), "ws-stub-conn");
+        handler.setDaemon(true);
+        handler.start();
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private void handle(Socket socket) {
+    try (socket) {
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      OutputStream out = socket.getOutputStream();
+      handshake(in, out);
+      connections.incrementAndGet();
+
+      if (expectSubscribe) {
+        byte[] subscribe = readFrame(in);
+        received.add(new String(subscribe, StandardCharsets.UTF_8));
+      }
+      for (String message : messages) {
+        writeFrame(out, binary ? 0x2 : 0x1, message.getBytes(StandardCharsets.UTF_8));
+      }
+      out.flush();
+
+      if (closeAfterReplay) {
+        writeFrame(out, 0x8, new byte[] {0x03, (byte) 0xE8});  // 1000 Normal Closure
+        out.flush();
+      }
+      // 클라이언트가 연결을 닫을 때까지 대기
+      while (readFrame(in) != null) {
+        // 추가 메시지는 무시
+      }
+    } catch (IOException e) {
+      // 연결 종료
+    }
+  }
+
+  private static void handshake(DataInputStream in, OutputStream out) throws IOException {
+    String key = null;
+    String line;
+    while ((line = readLine(in)) != null && !line.isEmpty()) {
+      int colon = line.indexOf(':');
+      if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+        key = line.substring(colon + 1).trim();
+      }
+    }
+    if (key == null) {
+      throw new IOException("missing Sec-WebSocket-Key");
+    }
+
+    String response = "HTTP/1.1 101 Switching Protocols\r\n"
+        + "Upgrade: websocket\r\n"
+        + "Connection: Upgrade\r\n"
+        + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+    out.write(response.getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+  }
+
+  private static String acceptKey(String key) throws IOException {
+    try {
+      MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+      byte[] digest = sha1.digest((key + HANDSHAKE_GUID).getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) != -1) {
+      if (b == '\n') {
+        break;
+      }
+      if (b != '\r') {
+        line.write(b);
+      }
+    }
+    return b == -1 && line.size() == 0 ? null : line.toString(StandardCharsets.US_ASCII);
+  }
+
+  // 서버 -> 클라이언트 프레임 (마스킹 없음, 단일 프레임)
+  private static void writeFrame(OutputStream out, int opcode, byte[] payload) throws IOException {
+    out.write(0x80 | opcode);
+    if (payload.length < 126) {
+      out.write(payload.length);
+    } else if (payload.length <= 0xFFFF) {
+      out.write(126);
+      out.write(payload.length >>> 8);
+      out.write(payload.length);
+    } else {
+      out.write(127);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        out.write((int) ((long) payload.length >>> shift));
+      }
+    }
+    out.write(payload);
+  }
+
+  // 클라이언트 -> 서버 프레임 읽기 (마스킹 해제, 닫기 프레임이면 null)
+  private static byte[] readFrame(DataInputStream in) throws IOException {
+    int first = in.readUnsignedByte();
+    int second = in.readUnsignedByte();
+    int opcode = first & 0x0F;
+    long length = second & 0x7F;
+    if (length == 126) {
+      length = in.readUnsignedShort();
+    } else if (length == 127) {
+      length = in.readLong();
+    }
+
+    byte[] mask = new byte[4];
+    if ((second & 0x80) != 0) {
+      in.readFully(mask);
+    }
+    byte[] payload = new byte[(int) length];
+    in.readFully(payload);
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] ^= mask[i % 4];
+    }
+    return opcode == 0x8 ? null : payload;
+  }
+
+  private static List<String> readLines(String resource) throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (InputStream in = WebSocketStubServer.class.getResourceAsStream(resource)) {
+      if (in == null) {
+        throw new IOException("missing tick file: " + resource);
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isBlank()) {
+          lines.add(line);
+        }
+      }
+    }
+    return lines;
+  }
+}